@@ -0,0 +1,475 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Admission-day load generator for SmartHostelServer or the Spring app.
+ *
+ * Open loop: requests are scheduled at a fixed arrival rate regardless of how
+ * fast the server answers, and latency is measured from each request's
+ * scheduled start, so a stalled server is charged for the requests that
+ * queued up behind it (coordinated omission correction).
+ *
+ * Usage:
+ *   javac HostelLoadGenerator.java
+ *   java HostelLoadGenerator --rate 500 --duration 30 --mix list=5,search=60,allocate=30,add=5
+ *   java HostelLoadGenerator --rate 200 --duration 10 --record day.log
+ *   java HostelLoadGenerator --replay day.log --speed 2
+ *
+ * Options (defaults in brackets):
+ *   --target URL      server base URL [http://localhost:8080]
+ *   --rate N          arrivals per second [200]
+ *   --duration S      seconds to generate [30]
+ *   --mix SPEC        relative weights of list/search/allocate/add [list=5,search=60,allocate=30,add=5]
+ *   --zipf S          Zipf exponent for group sizes and capacities [1.2]
+ *   --max-capacity N  largest capacity/group size drawn [6]
+ *   --workers N       concurrent connections [64]
+ *   --seed N          random seed [42]
+ *   --record FILE     also write the generated workload as a replay log
+ *   --replay FILE     send a recorded log instead of generating one
+ *   --speed X         replay time scale, 2 = twice as fast [1]
+ *   --accept TYPE     Accept header to send, e.g. application/vnd.smarthostel.rooms [none]
+ *
+ * Replay log format, one request per line:
+ *   <offset millis> <METHOD> <path> [json body]
+ */
+public class HostelLoadGenerator {
+
+    // -----------------------------
+    // Workload
+    // -----------------------------
+    static final class PlannedRequest {
+        final long offsetNanos;
+        final String method;
+        final String path;
+        final String body;
+
+        PlannedRequest(long offsetNanos, String method, String path, String body) {
+            this.offsetNanos = offsetNanos;
+            this.method = method;
+            this.path = path;
+            this.body = body;
+        }
+
+        String toLogLine() {
+            return TimeUnit.NANOSECONDS.toMillis(offsetNanos) + " " + method + " " + path
+                    + (body == null ? "" : " " + body);
+        }
+
+        static PlannedRequest parse(String line, double speed) {
+            String[] parts = line.trim().split(" ", 4);
+            if (parts.length < 3) {
+                throw new IllegalArgumentException("Bad replay line: " + line);
+            }
+            long offset = (long) (TimeUnit.MILLISECONDS.toNanos(Long.parseLong(parts[0])) / speed);
+            return new PlannedRequest(offset, parts[1].toUpperCase(Locale.ROOT), parts[2],
+                    parts.length == 4 ? parts[3] : null);
+        }
+    }
+
+    /** Draws ranks 1..n with P(k) proportional to 1/k^s. */
+    static final class Zipf {
+        private final double[] cdf;
+
+        Zipf(int n, double s) {
+            cdf = new double[n];
+            double sum = 0;
+            for (int k = 1; k <= n; k++) {
+                sum += 1.0 / Math.pow(k, s);
+                cdf[k - 1] = sum;
+            }
+            for (int i = 0; i < n; i++) {
+                cdf[i] /= sum;
+            }
+        }
+
+        int next(SplittableRandom rnd) {
+            double u = rnd.nextDouble();
+            int lo = 0;
+            int hi = cdf.length - 1;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (cdf[mid] < u) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo + 1;
+        }
+    }
+
+    static final class WorkloadGenerator {
+        private final Map<String, Integer> mix;
+        private final int totalWeight;
+        private final Zipf sizes;
+        private final SplittableRandom rnd;
+        private final String runId;
+        private int added;
+
+        WorkloadGenerator(Map<String, Integer> mix, int maxCapacity, double zipfExponent, long seed) {
+            this.mix = mix;
+            this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+            if (totalWeight <= 0) {
+                throw new IllegalArgumentException("--mix needs at least one positive weight");
+            }
+            this.sizes = new Zipf(maxCapacity, zipfExponent);
+            this.rnd = new SplittableRandom(seed);
+            this.runId = Long.toString(System.currentTimeMillis() % 100000, 36).toUpperCase(Locale.ROOT);
+        }
+
+        /** Evenly spaced arrivals; the open loop comes from never waiting on responses. */
+        List<PlannedRequest> generate(double ratePerSecond, int seconds) {
+            long count = (long) (ratePerSecond * seconds);
+            double intervalNanos = 1e9 / ratePerSecond;
+            List<PlannedRequest> plan = new ArrayList<>((int) Math.min(count, Integer.MAX_VALUE));
+            for (long i = 0; i < count; i++) {
+                plan.add(next((long) (i * intervalNanos)));
+            }
+            return plan;
+        }
+
+        private PlannedRequest next(long offsetNanos) {
+            int pick = rnd.nextInt(totalWeight);
+            String kind = null;
+            for (Map.Entry<String, Integer> e : mix.entrySet()) {
+                pick -= e.getValue();
+                if (pick < 0) {
+                    kind = e.getKey();
+                    break;
+                }
+            }
+            boolean ac = rnd.nextInt(3) == 0;
+            boolean washroom = rnd.nextBoolean();
+            switch (kind) {
+                case "list":
+                    return new PlannedRequest(offsetNanos, "GET", "/api/rooms", null);
+                case "search":
+                    return new PlannedRequest(offsetNanos, "GET", "/api/rooms/search?minCapacity=" + sizes.next(rnd)
+                            + "&needsAC=" + ac + "&needsWashroom=" + washroom, null);
+                case "allocate":
+                    return new PlannedRequest(offsetNanos, "POST", "/api/rooms/allocate",
+                            "{\"students\":" + sizes.next(rnd) + ",\"needsAC\":" + ac
+                                    + ",\"needsWashroom\":" + washroom + "}");
+                case "add":
+                    // Popular sizes are requested most, so rooms are skewed the same way
+                    return new PlannedRequest(offsetNanos, "POST", "/api/rooms",
+                            "{\"roomNo\":\"LG" + runId + "-" + (++added) + "\",\"capacity\":" + sizes.next(rnd)
+                                    + ",\"hasAC\":" + ac + ",\"hasAttachedWashroom\":" + washroom + "}");
+                default:
+                    throw new IllegalStateException(kind);
+            }
+        }
+    }
+
+    // -----------------------------
+    // Latency histogram
+    // -----------------------------
+    /**
+     * Log-linear histogram of microsecond values: exact below 64, then each
+     * power of two is split into 32 linear sub-buckets, so any recorded value
+     * is reported within ~3%. Recording is a single atomic increment.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BITS = 6;
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+        private static final int MAGNITUDES = 40;
+
+        private final AtomicLongArray counts = new AtomicLongArray(SUB_COUNT * MAGNITUDES);
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong max = new AtomicLong();
+
+        void recordMicros(long value) {
+            long v = Math.max(0, value);
+            counts.incrementAndGet(index(v));
+            total.incrementAndGet();
+            max.accumulateAndGet(v, Math::max);
+        }
+
+        private static int index(long v) {
+            if (v < SUB_COUNT) {
+                return (int) v;
+            }
+            int magnitude = 63 - Long.numberOfLeadingZeros(v) - SUB_BITS + 1;
+            int sub = (int) (v >>> magnitude) - SUB_COUNT / 2;
+            return Math.min(SUB_COUNT * MAGNITUDES - 1, SUB_COUNT + (magnitude - 1) * (SUB_COUNT / 2) + sub);
+        }
+
+        /** Upper bound of the values that land in bucket {@code idx}. */
+        private static long highestEquivalent(int idx) {
+            if (idx < SUB_COUNT) {
+                return idx;
+            }
+            int magnitude = (idx - SUB_COUNT) / (SUB_COUNT / 2) + 1;
+            int sub = (idx - SUB_COUNT) % (SUB_COUNT / 2) + SUB_COUNT / 2;
+            return ((long) (sub + 1) << magnitude) - 1;
+        }
+
+        long count() {
+            return total.get();
+        }
+
+        long percentile(double p) {
+            long n = total.get();
+            if (n == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(p / 100.0 * n));
+            long seen = 0;
+            for (int i = 0; i < counts.length(); i++) {
+                seen += counts.get(i);
+                if (seen >= rank) {
+                    return Math.min(highestEquivalent(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        long max() {
+            return max.get();
+        }
+    }
+
+    // -----------------------------
+    // Runner
+    // -----------------------------
+    private final HttpClient client;
+    private final String target;
+    private final ExecutorService workers;
+    private final String accept;
+
+    private final LatencyHistogram corrected = new LatencyHistogram();
+    private final LatencyHistogram service = new LatencyHistogram();
+    private final AtomicLong ok = new AtomicLong();
+    private final AtomicLong clientErrors = new AtomicLong();
+    private final AtomicLong rejected = new AtomicLong();
+    private final AtomicLong serverErrors = new AtomicLong();
+    private final AtomicLong ioErrors = new AtomicLong();
+    private final AtomicLong bodyBytes = new AtomicLong();
+
+    HostelLoadGenerator(String target, int workerCount, String accept) {
+        this.accept = accept;
+        this.target = target.endsWith("/") ? target.substring(0, target.length() - 1) : target;
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r, "load-worker");
+            t.setDaemon(true);
+            return t;
+        });
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+    }
+
+    void run(List<PlannedRequest> plan) throws InterruptedException {
+        long start = System.nanoTime();
+        Thread progress = startProgressReporter(start);
+        for (PlannedRequest request : plan) {
+            long intended = start + request.offsetNanos;
+            long wait;
+            while ((wait = intended - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            // Never block on the server here: late responses must not delay later arrivals
+            workers.execute(() -> send(request, intended));
+        }
+        workers.shutdown();
+        workers.awaitTermination(1, TimeUnit.HOURS);
+        progress.interrupt();
+        report(plan.size(), System.nanoTime() - start);
+    }
+
+    private void send(PlannedRequest planned, long intendedStart) {
+        long actualStart = System.nanoTime();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(target + planned.path))
+                .timeout(Duration.ofSeconds(30));
+        if (accept != null) {
+            builder.header("Accept", accept);
+        }
+        if (planned.body != null) {
+            builder.header("Content-Type", "application/json")
+                    .method(planned.method, HttpRequest.BodyPublishers.ofString(planned.body));
+        } else {
+            builder.method(planned.method, HttpRequest.BodyPublishers.noBody());
+        }
+        try {
+            HttpResponse<Long> res = client.send(builder.build(), info -> countingBody());
+            bodyBytes.addAndGet(res.body());
+            int status = res.statusCode();
+            if (status == 503) {
+                rejected.incrementAndGet();
+            } else if (status >= 500) {
+                serverErrors.incrementAndGet();
+            } else if (status >= 400) {
+                // 404 "no room" is an expected answer once the hostel fills up
+                clientErrors.incrementAndGet();
+            } else {
+                ok.incrementAndGet();
+            }
+        } catch (IOException e) {
+            ioErrors.incrementAndGet();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        long end = System.nanoTime();
+        corrected.recordMicros((end - intendedStart) / 1000);
+        service.recordMicros((end - actualStart) / 1000);
+    }
+
+    /** Discards the body but counts its bytes (before any content decoding, as sent on the wire). */
+    private static HttpResponse.BodySubscriber<Long> countingBody() {
+        long[] count = new long[1];
+        return HttpResponse.BodySubscribers.fromSubscriber(new Flow.Subscriber<List<ByteBuffer>>() {
+            @Override
+            public void onSubscribe(Flow.Subscription subscription) {
+                subscription.request(Long.MAX_VALUE);
+            }
+
+            @Override
+            public void onNext(List<ByteBuffer> buffers) {
+                for (ByteBuffer b : buffers) {
+                    count[0] += b.remaining();
+                }
+            }
+
+            @Override
+            public void onError(Throwable throwable) {
+            }
+
+            @Override
+            public void onComplete() {
+            }
+        }, s -> count[0]);
+    }
+
+    private Thread startProgressReporter(long start) {
+        Thread t = new Thread(() -> {
+            long last = 0;
+            try {
+                while (true) {
+                    Thread.sleep(1000);
+                    long done = corrected.count();
+                    System.out.printf("  t=%3ds  %6d req/s  p99 %8.2f ms%n",
+                            (System.nanoTime() - start) / 1_000_000_000L, done - last,
+                            corrected.percentile(99) / 1000.0);
+                    last = done;
+                }
+            } catch (InterruptedException ignored) {
+                // finished
+            }
+        }, "load-progress");
+        t.setDaemon(true);
+        t.start();
+        return t;
+    }
+
+    private void report(int planned, long elapsedNanos) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.println();
+        System.out.printf("Requests:   %d planned, %d completed in %.2f s (%.1f req/s)%n",
+                planned, corrected.count(), seconds, corrected.count() / seconds);
+        System.out.printf("Responses:  %d ok, %d 4xx, %d rejected (503), %d other 5xx, %d I/O errors%n",
+                ok.get(), clientErrors.get(), rejected.get(), serverErrors.get(), ioErrors.get());
+        System.out.printf("Body bytes: %d total, %.1f per response%n",
+                bodyBytes.get(), (double) bodyBytes.get() / Math.max(1, corrected.count()));
+        System.out.println();
+        System.out.println("Latency (ms)   corrected   service-time");
+        for (double p : new double[] {50, 90, 99, 99.9, 99.99}) {
+            System.out.printf("  p%-9s %10.2f %14.2f%n", trimPercent(p),
+                    corrected.percentile(p) / 1000.0, service.percentile(p) / 1000.0);
+        }
+        System.out.printf("  %-10s %10.2f %14.2f%n", "max", corrected.max() / 1000.0, service.max() / 1000.0);
+        System.out.println();
+        System.out.println("corrected = measured from the scheduled send time; service-time = from the actual send.");
+    }
+
+    private static String trimPercent(double p) {
+        return p == Math.rint(p) ? Long.toString((long) p) : Double.toString(p);
+    }
+
+    // -----------------------------
+    // Command line
+    // -----------------------------
+    public static void main(String[] args) throws Exception {
+        Map<String, String> opts = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                System.err.println("Expected --option value, got: " + args[i]);
+                System.exit(2);
+            }
+            opts.put(args[i].substring(2), args[++i]);
+        }
+
+        List<PlannedRequest> plan;
+        if (opts.containsKey("replay")) {
+            double speed = Double.parseDouble(opts.getOrDefault("speed", "1"));
+            plan = new ArrayList<>();
+            try (BufferedReader reader = Files.newBufferedReader(Path.of(opts.get("replay")), StandardCharsets.UTF_8)) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank() && !line.startsWith("#")) {
+                        plan.add(PlannedRequest.parse(line, speed));
+                    }
+                }
+            }
+            plan.sort((a, b) -> Long.compare(a.offsetNanos, b.offsetNanos));
+        } else {
+            WorkloadGenerator generator = new WorkloadGenerator(
+                    parseMix(opts.getOrDefault("mix", "list=5,search=60,allocate=30,add=5")),
+                    Integer.parseInt(opts.getOrDefault("max-capacity", "6")),
+                    Double.parseDouble(opts.getOrDefault("zipf", "1.2")),
+                    Long.parseLong(opts.getOrDefault("seed", "42")));
+            plan = generator.generate(Double.parseDouble(opts.getOrDefault("rate", "200")),
+                    Integer.parseInt(opts.getOrDefault("duration", "30")));
+        }
+
+        if (opts.containsKey("record")) {
+            try (PrintWriter out = new PrintWriter(Files.newBufferedWriter(Path.of(opts.get("record")),
+                    StandardCharsets.UTF_8))) {
+                for (PlannedRequest r : plan) {
+                    out.println(r.toLogLine());
+                }
+            }
+        }
+
+        String target = opts.getOrDefault("target", "http://localhost:8080");
+        System.out.println("Sending " + plan.size() + " requests to " + target);
+        new HostelLoadGenerator(target, Integer.parseInt(opts.getOrDefault("workers", "64")), opts.get("accept")).run(plan);
+    }
+
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String part : spec.split(",")) {
+            String[] kv = part.split("=");
+            String kind = kv[0].trim().toLowerCase(Locale.ROOT);
+            if (!List.of("list", "search", "allocate", "add").contains(kind) || kv.length != 2) {
+                throw new IllegalArgumentException("Bad --mix entry: " + part);
+            }
+            mix.put(kind, Integer.parseInt(kv[1].trim()));
+        }
+        return mix;
+    }
+}
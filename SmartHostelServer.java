@@ -1,18 +1,34 @@
 import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpContext;
 import com.sun.net.httpserver.HttpExchange;
 import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpPrincipal;
 import com.sun.net.httpserver.HttpServer;
 
 import java.io.*;
 import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.net.URI;
 import java.net.URLDecoder;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Instant;
 import java.util.*;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * Smart Hostel Room Allocation System
@@ -37,6 +53,7 @@ public class SmartHostelServer {
         final int capacity;
         final boolean hasAC;
         final boolean hasAttachedWashroom;
+        int occupied;
 
         Room(String roomNo, int capacity, boolean hasAC, boolean hasAttachedWashroom) {
             this.roomNo = roomNo;
@@ -44,14 +61,143 @@ public class SmartHostelServer {
             this.hasAC = hasAC;
             this.hasAttachedWashroom = hasAttachedWashroom;
         }
+
+        int freeBeds() {
+            return capacity - occupied;
+        }
+
+        Room copy() {
+            Room r = new Room(roomNo, capacity, hasAC, hasAttachedWashroom);
+            r.occupied = occupied;
+            return r;
+        }
+    }
+
+    /**
+     * Availability aggregates updated on every add/allocate/release, so a
+     * stats read never scans the rooms. Guarded by the HostelManager lock.
+     */
+    static class AvailabilityStats {
+        private final int[] roomsByFacilities = new int[4];
+        private final long[] freeBedsByFacilities = new long[4];
+        private final TreeMap<Integer, long[]> byCapacity = new TreeMap<>();
+        private final TreeMap<Integer, Integer> freeBedsHistogram = new TreeMap<>();
+        private int totalRooms;
+        private long totalBeds;
+        private long freeBeds;
+
+        void roomAdded(Room r) {
+            int free = r.freeBeds();
+            int f = facilities(r);
+            roomsByFacilities[f]++;
+            freeBedsByFacilities[f] += free;
+            long[] c = byCapacity.computeIfAbsent(r.capacity, k -> new long[2]);
+            c[0]++;
+            c[1] += free;
+            histogramAdd(free, 1);
+            totalRooms++;
+            totalBeds += r.capacity;
+            freeBeds += free;
+        }
+
+        void occupancyChanged(Room r, int oldOccupied) {
+            int delta = oldOccupied - r.occupied;
+            freeBedsByFacilities[facilities(r)] += delta;
+            byCapacity.get(r.capacity)[1] += delta;
+            histogramAdd(r.capacity - oldOccupied, -1);
+            histogramAdd(r.freeBeds(), 1);
+            freeBeds += delta;
+        }
+
+        String toJson() {
+            StringBuilder sb = new StringBuilder();
+            sb.append("{\"totalRooms\":").append(totalRooms)
+                    .append(",\"totalBeds\":").append(totalBeds)
+                    .append(",\"freeBeds\":").append(freeBeds)
+                    .append(",\"largestAvailable\":").append(freeBedsHistogram.isEmpty() ? 0 : freeBedsHistogram.lastKey())
+                    .append(",\"byFacilities\":[");
+            for (int f = 0; f < 4; f++) {
+                if (f > 0) sb.append(",");
+                sb.append("{\"hasAC\":").append((f & 2) != 0)
+                        .append(",\"hasAttachedWashroom\":").append((f & 1) != 0)
+                        .append(",\"rooms\":").append(roomsByFacilities[f])
+                        .append(",\"freeBeds\":").append(freeBedsByFacilities[f]).append("}");
+            }
+            sb.append("],\"byCapacity\":[");
+            boolean first = true;
+            for (Map.Entry<Integer, long[]> e : byCapacity.entrySet()) {
+                if (!first) sb.append(",");
+                first = false;
+                sb.append("{\"capacity\":").append(e.getKey())
+                        .append(",\"rooms\":").append(e.getValue()[0])
+                        .append(",\"freeBeds\":").append(e.getValue()[1]).append("}");
+            }
+            sb.append("],\"freeBedsHistogram\":{");
+            first = true;
+            for (Map.Entry<Integer, Integer> e : freeBedsHistogram.entrySet()) {
+                if (!first) sb.append(",");
+                first = false;
+                sb.append("\"").append(e.getKey()).append("\":").append(e.getValue());
+            }
+            return sb.append("}}").toString();
+        }
+
+        private void histogramAdd(int free, int delta) {
+            if (free <= 0) return;
+            freeBedsHistogram.merge(free, delta, (a, b) -> a + b == 0 ? null : a + b);
+        }
+
+        private static int facilities(Room r) {
+            return (r.hasAC ? 2 : 0) | (r.hasAttachedWashroom ? 1 : 0);
+        }
     }
 
     // -----------------------------
     // Business logic (ported from your Swing version)
     // -----------------------------
+    /**
+     * The room catalogue. Rooms handed out are copies taken under the lock,
+     * so they can be serialized after it is released.
+     *
+     * Changes are saved in batches: they mark the catalogue dirty, and a
+     * background thread rewrites the file at most once per save interval
+     * from a copy taken under the lock, so requests never wait on disk. A
+     * crash loses at most the last interval of changes; a normal shutdown
+     * saves them.
+     */
     static class HostelManager {
+        private static final Comparator<Room> ROOM_ORDER =
+                Comparator.comparingInt((Room r) -> r.capacity).thenComparing(r -> r.roomNo);
+        private static final long SAVE_INTERVAL_MS = Long.getLong("hostel.saveIntervalMs", 500);
+
         private final List<Room> rooms = new ArrayList<>();
+        // lower-cased room number -> room, for exact and prefix lookups
+        private final TreeMap<String, Room> byNumber = new TreeMap<>();
+        // every room in search order, so lookups on short prefixes can stop after `limit` hits
+        private final TreeSet<Room> inSearchOrder = new TreeSet<>(ROOM_ORDER);
+        private final AvailabilityStats stats = new AvailabilityStats();
+        // Open exports; see ExportCursor
+        private final List<ExportCursor> exports = new ArrayList<>();
         private final Path dbPath;
+        // Changed since the last save; guarded by this
+        private boolean dirty;
+        // Serializes file writes between the saver thread and the shutdown hook
+        private final Object saveLock = new Object();
+
+        /**
+         * Read position of one export over the rooms that existed when it
+         * started. Occupancy changes made meanwhile save the old value here
+         * until the room is read, so the export shows its start state.
+         */
+        static class ExportCursor {
+            final int end;
+            int position;
+            final Map<Room, Integer> before = new IdentityHashMap<>();
+
+            ExportCursor(int end) {
+                this.end = end;
+            }
+        }
 
         HostelManager(Path dbPath) {
             this.dbPath = dbPath;
@@ -62,23 +208,45 @@ public class SmartHostelServer {
                 rooms.add(new Room("103", 4, true, false));
                 rooms.add(new Room("104", 2, true, true));
                 rooms.add(new Room("201", 6, false, false));
-                saveToDisk();
+                dirty = true;
+            }
+            rooms.forEach(stats::roomAdded);
+            rooms.forEach(r -> byNumber.put(r.roomNo.toLowerCase(Locale.ROOT), r));
+            inSearchOrder.addAll(rooms);
+            if (dbPath != null) {
+                saveIfDirty();
+                Thread saver = new Thread(() -> {
+                    while (true) {
+                        try {
+                            Thread.sleep(SAVE_INTERVAL_MS);
+                        } catch (InterruptedException e) {
+                            return;
+                        }
+                        saveIfDirty();
+                    }
+                }, "catalogue-saver");
+                saver.setDaemon(true);
+                saver.start();
+                Runtime.getRuntime().addShutdownHook(new Thread(this::saveIfDirty, "catalogue-final-save"));
             }
         }
 
         synchronized boolean addRoom(String roomNo, int capacity, boolean ac, boolean washroom) {
             String rNo = roomNo == null ? "" : roomNo.trim();
             if (rNo.isEmpty() || capacity <= 0) return false;
-            for (Room r : rooms) {
-                if (r.roomNo.equalsIgnoreCase(rNo)) return false;
-            }
-            rooms.add(new Room(rNo, capacity, ac, washroom));
-            saveToDisk();
+            String key = rNo.toLowerCase(Locale.ROOT);
+            if (byNumber.containsKey(key)) return false;
+            Room room = new Room(rNo, capacity, ac, washroom);
+            rooms.add(room);
+            stats.roomAdded(room);
+            byNumber.put(key, room);
+            inSearchOrder.add(room);
+            dirty = true;
             return true;
         }
 
         synchronized List<Room> getAllRooms() {
-            return new ArrayList<>(rooms);
+            return copies(rooms);
         }
 
         synchronized List<Room> searchRooms(int minCapacity, boolean requireAC, boolean requireWashroom) {
@@ -86,15 +254,110 @@ public class SmartHostelServer {
                     .filter(r -> r.capacity >= minCapacity)
                     .filter(r -> !requireAC || r.hasAC)
                     .filter(r -> !requireWashroom || r.hasAttachedWashroom)
-                    .sorted(Comparator.comparingInt((Room r) -> r.capacity).thenComparing(r -> r.roomNo))
+                    .sorted(ROOM_ORDER)
+                    .map(Room::copy)
                     .collect(Collectors.toList());
         }
 
+        /**
+         * Up to {@code limit} rooms whose number starts with {@code prefix}, in search order.
+         * Two walks run side by side and the first to finish answers: the rooms numbered
+         * with the prefix, and all rooms in search order until {@code limit} of them match.
+         * A lookup costs about twice the shorter walk, so a rare prefix reads only its own
+         * rooms and a common or empty one stops after a few hits.
+         */
+        synchronized List<Room> lookupRooms(String prefix, int limit) {
+            String p = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+            Iterator<Map.Entry<String, Room>> numbered = byNumber.tailMap(p, true).entrySet().iterator();
+            Iterator<Room> ordered = inSearchOrder.iterator();
+            // Keep the best `limit` of the numbered walk in a heap whose head is the worst of them
+            PriorityQueue<Room> best = new PriorityQueue<>(ROOM_ORDER.reversed());
+            List<Room> firstHits = new ArrayList<>();
+            while (true) {
+                Map.Entry<String, Room> e = numbered.hasNext() ? numbered.next() : null;
+                if (e == null || !e.getKey().startsWith(p)) {
+                    List<Room> result = copies(best);
+                    result.sort(ROOM_ORDER);
+                    return result;
+                }
+                best.add(e.getValue());
+                if (best.size() > limit) best.poll();
+                // at least as many rooms as prefix matches so far, so the ordered walk has a next
+                Room r = ordered.next();
+                if (r.roomNo.toLowerCase(Locale.ROOT).startsWith(p)) {
+                    firstHits.add(r);
+                    if (firstHits.size() == limit) return copies(firstHits);
+                }
+            }
+        }
+
+        /** Smallest room with enough free beds; the beds are marked occupied. */
         synchronized Room allocateRoom(int students, boolean needsAC, boolean needsWashroom) {
-            List<Room> candidates = searchRooms(students, needsAC, needsWashroom);
-            if (candidates.isEmpty()) return null;
-            candidates.sort(Comparator.comparingInt(r -> r.capacity));
-            return candidates.get(0);
+            Room best = null;
+            for (Room r : rooms) {
+                if (r.freeBeds() < students) continue;
+                if (needsAC && !r.hasAC) continue;
+                if (needsWashroom && !r.hasAttachedWashroom) continue;
+                if (best == null || r.capacity < best.capacity
+                        || (r.capacity == best.capacity && r.roomNo.compareTo(best.roomNo) < 0)) {
+                    best = r;
+                }
+            }
+            if (best == null) return null;
+            setOccupied(best, best.occupied + students);
+            return best.copy();
+        }
+
+        synchronized Room releaseBeds(String roomNo, int students) {
+            Room r = byNumber.get(roomNo == null ? "" : roomNo.trim().toLowerCase(Locale.ROOT));
+            if (r == null || students < 1 || students > r.occupied) return null;
+            setOccupied(r, r.occupied - students);
+            return r.copy();
+        }
+
+        synchronized ExportCursor openExport() {
+            ExportCursor c = new ExportCursor(rooms.size());
+            exports.add(c);
+            return c;
+        }
+
+        /** Copies of the export's next rooms as of its start; empty once all are read. */
+        synchronized List<Room> nextExportPage(ExportCursor c, int max) {
+            int end = Math.min(c.end, c.position + max);
+            List<Room> page = new ArrayList<>(Math.max(0, end - c.position));
+            for (; c.position < end; c.position++) {
+                Room r = rooms.get(c.position);
+                Integer before = c.before.remove(r);
+                Room copy = r.copy();
+                if (before != null) copy.occupied = before;
+                page.add(copy);
+            }
+            return page;
+        }
+
+        synchronized void closeExport(ExportCursor c) {
+            exports.remove(c);
+        }
+
+        synchronized String statsJson() {
+            return stats.toJson();
+        }
+
+        private void setOccupied(Room r, int occupied) {
+            int old = r.occupied;
+            for (ExportCursor c : exports) {
+                // already-read rooms may land here too; the map is dropped with the cursor
+                c.before.putIfAbsent(r, old);
+            }
+            r.occupied = occupied;
+            stats.occupancyChanged(r, old);
+            dirty = true;
+        }
+
+        private static List<Room> copies(Collection<Room> rooms) {
+            List<Room> list = new ArrayList<>(rooms.size());
+            for (Room r : rooms) list.add(r.copy());
+            return list;
         }
 
         private boolean loadFromDisk() {
@@ -113,11 +376,27 @@ public class SmartHostelServer {
             }
         }
 
-        private void saveToDisk() {
+        /** Writes the catalogue if it changed since the last save; the lock is only held to copy it. */
+        private void saveIfDirty() {
+            synchronized (saveLock) {
+                List<Room> snapshot;
+                synchronized (this) {
+                    if (!dirty) return;
+                    dirty = false;
+                    snapshot = copies(rooms);
+                }
+                if (!saveToDisk(snapshot)) {
+                    synchronized (this) {
+                        dirty = true;
+                    }
+                }
+            }
+        }
+
+        private boolean saveToDisk(List<Room> snapshot) {
             try {
-                if (dbPath == null) return;
                 Files.createDirectories(dbPath.getParent());
-                String json = toJsonArray(rooms);
+                String json = toJsonArray(snapshot);
                 Path tmp = dbPath.resolveSibling(dbPath.getFileName().toString() + ".tmp");
                 Files.writeString(tmp, json, StandardCharsets.UTF_8);
                 try {
@@ -125,35 +404,1012 @@ public class SmartHostelServer {
                 } catch (Exception e) {
                     Files.move(tmp, dbPath, java.nio.file.StandardCopyOption.REPLACE_EXISTING);
                 }
-            } catch (Exception ignored) {
+                return true;
+            } catch (Exception e) {
+                return false;
+            }
+        }
+    }
+
+    // -----------------------------
+    // Admission control
+    // -----------------------------
+    /**
+     * Request classes, from most to least important. Each class may only use
+     * a share of the current concurrency limit, so listings are shed long
+     * before allocations are.
+     */
+    enum Priority {
+        CRITICAL(1.0),
+        NORMAL(0.8),
+        BULK(0.5);
+
+        final double share;
+
+        Priority(double share) {
+            this.share = share;
+        }
+    }
+
+    /**
+     * Gradient-style adaptive concurrency limit.
+     * - Tracks a long-term RTT average as the "no load" baseline
+     * - Shrinks the limit when recent RTT grows beyond the baseline (queueing)
+     * - Grows it by roughly sqrt(limit) while latency stays flat
+     */
+    static class AdaptiveLimit {
+        private final int minLimit;
+        private final int maxLimit;
+        private final double smoothing = 0.2;
+        private double estimatedLimit;
+        private double longRttNanos;
+        private double shortRttNanos;
+        private volatile int limit;
+
+        AdaptiveLimit(int initialLimit, int minLimit, int maxLimit) {
+            this.minLimit = minLimit;
+            this.maxLimit = maxLimit;
+            this.estimatedLimit = initialLimit;
+            this.limit = initialLimit;
+        }
+
+        int get() {
+            return limit;
+        }
+
+        synchronized void onSample(long rttNanos, int inFlight) {
+            if (longRttNanos == 0) {
+                longRttNanos = rttNanos;
+                shortRttNanos = rttNanos;
+            }
+            // short window reacts within ~10 requests, long window within ~600
+            shortRttNanos += (rttNanos - shortRttNanos) * 0.1;
+            longRttNanos += (rttNanos - longRttNanos) / 600.0;
+
+            // let the baseline recover quickly after a latency spike ends
+            if (longRttNanos / shortRttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+            // no evidence about a higher limit if we are not using the current one
+            if (inFlight < estimatedLimit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, longRttNanos / shortRttNanos));
+            double queueSize = Math.sqrt(estimatedLimit);
+            double next = estimatedLimit * gradient + queueSize;
+            next = estimatedLimit * (1 - smoothing) + next * smoothing;
+            estimatedLimit = Math.max(minLimit, Math.min(maxLimit, next));
+            limit = (int) estimatedLimit;
+        }
+    }
+
+    /**
+     * Admits or sheds each request as soon as its head has been read, before
+     * it waits for a worker:
+     * - One count covers queued and running requests, so the limit binds as
+     *   soon as work piles up in front of the workers
+     * - Per-priority shares of one adaptive limit
+     * - The limit is fed each request's sojourn time (admission to
+     *   completion), which includes the queue wait that grows under overload
+     * - Fast 503 + Retry-After instead of letting latency and heap grow
+     */
+    static class AdmissionController {
+        /** An admitted request; hand it to {@link #complete} exactly once. */
+        static final class Ticket {
+            final long admittedNanos = System.nanoTime();
+            final int outstanding;
+
+            Ticket(int outstanding) {
+                this.outstanding = outstanding;
+            }
+        }
+
+        private final AdaptiveLimit limit;
+        private final AtomicInteger outstanding = new AtomicInteger();
+        private final AtomicLong rejected = new AtomicLong();
+        // JDK engine: reads request heads, then admits or rejects; never runs a handler
+        private final ThreadPoolExecutor intake;
+        // Runs admitted handlers; admission keeps this queue below the limit
+        private final ThreadPoolExecutor workers;
+
+        AdmissionController(int workers, int intakeThreads, AdaptiveLimit limit) {
+            this.limit = limit;
+            this.intake = fixedPool(intakeThreads, "intake");
+            this.workers = fixedPool(workers, "worker");
+        }
+
+        /** Executor for HttpServer; its tasks only parse a request head and admit it. */
+        Executor intakeExecutor() {
+            return intake;
+        }
+
+        /** Runs admitted handlers (the NIO engine hands them over itself). */
+        Executor workers() {
+            return workers;
+        }
+
+        long rejectedCount() {
+            return rejected.get();
+        }
+
+        /** A ticket if the request fits its class's share of the limit, otherwise null (counted as rejected). */
+        Ticket tryAdmit(Priority priority) {
+            int current = outstanding.incrementAndGet();
+            if (current > Math.max(1, (int) (limit.get() * priority.share))) {
+                outstanding.decrementAndGet();
+                rejected.incrementAndGet();
+                return null;
+            }
+            return new Ticket(current);
+        }
+
+        void complete(Ticket ticket) {
+            limit.onSample(System.nanoTime() - ticket.admittedNanos, ticket.outstanding);
+            outstanding.decrementAndGet();
+        }
+
+        /**
+         * For the JDK engine. Runs on an intake thread: admitted exchanges go
+         * to the worker queue, the rest are answered with 503 right away.
+         */
+        HttpHandler guard(HttpHandler handler) {
+            return ex -> {
+                Ticket ticket = tryAdmit(classify(ex));
+                if (ticket == null) {
+                    reject(ex);
+                    return;
+                }
+                workers.execute(() -> {
+                    try {
+                        handler.handle(ex);
+                    } catch (IOException | RuntimeException e) {
+                        // as HttpServer does when a handler throws: drop the connection
+                        ex.close();
+                    } finally {
+                        complete(ticket);
+                    }
+                });
+            };
+        }
+
+        static void reject(HttpExchange ex) throws IOException {
+            try {
+                ex.getRequestBody().close();
+                ex.getResponseHeaders().set("Retry-After", "1");
+                sendJson(ex, 503, "{\"message\":\"Server busy, please retry\"}");
+            } finally {
+                ex.close();
             }
         }
+
+        private static ThreadPoolExecutor fixedPool(int threads, String name) {
+            AtomicInteger ids = new AtomicInteger();
+            return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                    r -> new Thread(r, name + "-" + ids.incrementAndGet()));
+        }
+
+        static Priority classify(HttpExchange ex) {
+            String path = ex.getRequestURI().getPath();
+            String method = ex.getRequestMethod();
+            if (path.startsWith("/api/rooms/allocate") || "POST".equalsIgnoreCase(method)) {
+                return Priority.CRITICAL;
+            }
+            if (path.startsWith("/api/rooms/search") || path.startsWith("/api/rooms/lookup")) {
+                return Priority.NORMAL;
+            }
+            return Priority.BULK;
+        }
     }
 
     // -----------------------------
     // Server
     // -----------------------------
+    private static final int WORKERS = Integer.getInteger("hostel.workers", 8);
+    private static final int BACKLOG = Integer.getInteger("hostel.backlog", 128);
+    private static final int INTAKE_THREADS = Integer.getInteger("hostel.intakeThreads", 2);
+    // Most requests queued or running at once
+    private static final int MAX_CONCURRENCY = Integer.getInteger("hostel.maxConcurrency", 64);
+    // Rooms copied per lock acquisition during an export
+    private static final int EXPORT_PAGE = 256;
+    // Compact room encoding for high-volume clients, same as the Spring app's RoomCodec
+    private static final String ROOMS_MEDIA_TYPE = "application/vnd.smarthostel.rooms";
+
     private final Path webRoot = Path.of("web");
     private final Path dbPath = Path.of("data", "rooms.json");
     private final HostelManager manager = new HostelManager(dbPath);
+    private final AdmissionController admission = new AdmissionController(
+            WORKERS, INTAKE_THREADS, new AdaptiveLimit(WORKERS * 2, WORKERS, MAX_CONCURRENCY));
 
     public static void main(String[] args) throws Exception {
         new SmartHostelServer().start(8080);
     }
 
     void start(int port) throws Exception {
-        HttpServer server = HttpServer.create(new InetSocketAddress(port), 0);
-        server.setExecutor(Executors.newFixedThreadPool(8));
+        Map<String, HttpHandler> routes = new LinkedHashMap<>();
+        routes.put("/api/rooms", this::handleRooms);
+        routes.put("/api/rooms/search", this::handleSearch);
+        routes.put("/api/rooms/allocate", this::handleAllocate);
+        routes.put("/api/rooms/release", this::handleRelease);
+        routes.put("/api/rooms/stats", this::handleStats);
+        routes.put("/api/rooms/lookup", this::handleLookup);
+        routes.put("/api/rooms/export", this::handleExport);
+        routes.put("/", new StaticHandler(webRoot));
 
-        server.createContext("/api/rooms", this::handleRooms);
-        server.createContext("/api/rooms/search", this::handleSearch);
-        server.createContext("/api/rooms/allocate", this::handleAllocate);
-
-        server.createContext("/", new StaticHandler(webRoot));
+        // -Dhostel.engine=nio selects the selector-based engine below
+        String engine = System.getProperty("hostel.engine", "jdk");
+        if ("nio".equalsIgnoreCase(engine)) {
+            NioHttpServer nio = new NioHttpServer(routes, admission, Integer.getInteger("hostel.selectors",
+                    Runtime.getRuntime().availableProcessors()));
+            nio.start(new InetSocketAddress(port), BACKLOG);
+        } else {
+            HttpServer server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+            server.setExecutor(admission.intakeExecutor());
+            routes.forEach((path, handler) -> server.createContext(path, admission.guard(handler)));
+            server.start();
+        }
 
-        System.out.println("Smart Hostel Server running on http://localhost:" + port);
+        System.out.println("Smart Hostel Server running on http://localhost:" + port + " (" + engine + " engine)");
         System.out.println("Web root: " + webRoot.toAbsolutePath());
-        server.start();
+    }
+
+    // -----------------------------
+    // NIO engine (optional, -Dhostel.engine=nio)
+    // -----------------------------
+    /**
+     * Dependency-free HTTP/1.1 server:
+     * - One selector loop per core; loops only read, parse and write
+     * - Handlers run on the admission controller's workers, as with the JDK
+     *   engine, so a slow handler (or disk write) never stalls a loop
+     * - Pooled direct buffers for socket reads and writes
+     * - Keep-alive and pipelining: requests on one connection are served one
+     *   at a time, in order, while later ones wait in the read buffer
+     * - Streamed bodies are pulled: the next piece is fetched only once the
+     *   socket has taken the previous one, so a slow reader holds one piece
+     * - Dispatches into the same HttpHandlers through {@link NioExchange}
+     */
+    static class NioHttpServer {
+        private static final int BUFFER_SIZE = 16 * 1024;
+        private static final int MAX_BODY = 1024 * 1024;
+        private static final long IDLE_TIMEOUT_MS = 30_000;
+        private static final byte[] CRLF = "\r\n".getBytes(StandardCharsets.ISO_8859_1);
+        private static final byte[] LAST_CHUNK = "0\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1);
+
+        private final Map<String, HttpHandler> routes;
+        private final AdmissionController admission;
+        private final SelectorLoop[] loops;
+        private ServerSocketChannel serverChannel;
+
+        NioHttpServer(Map<String, HttpHandler> routes, AdmissionController admission, int selectors) {
+            this.routes = routes;
+            this.admission = admission;
+            this.loops = new SelectorLoop[Math.max(1, selectors)];
+        }
+
+        void start(InetSocketAddress address, int backlog) throws IOException {
+            for (int i = 0; i < loops.length; i++) {
+                loops[i] = new SelectorLoop(i);
+                Thread t = new Thread(loops[i], "nio-loop-" + i);
+                t.setDaemon(false);
+                t.start();
+            }
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.bind(address, backlog);
+            Thread acceptor = new Thread(this::acceptLoop, "nio-acceptor");
+            acceptor.start();
+        }
+
+        private void acceptLoop() {
+            int next = 0;
+            while (serverChannel.isOpen()) {
+                try {
+                    SocketChannel ch = serverChannel.accept();
+                    ch.configureBlocking(false);
+                    ch.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                    loops[next].register(ch);
+                    next = (next + 1) % loops.length;
+                } catch (IOException e) {
+                    if (!serverChannel.isOpen()) return;
+                }
+            }
+        }
+
+        /** Longest-prefix match, same rule as HttpServer contexts. */
+        private HttpHandler route(String path) {
+            HttpHandler best = null;
+            int bestLen = -1;
+            for (Map.Entry<String, HttpHandler> e : routes.entrySet()) {
+                String prefix = e.getKey();
+                if (path.startsWith(prefix) && prefix.length() > bestLen) {
+                    best = e.getValue();
+                    bestLen = prefix.length();
+                }
+            }
+            return best;
+        }
+
+        /** Direct buffers recycled by a single loop thread (no locking). */
+        static class BufferPool {
+            private final ArrayDeque<ByteBuffer> free = new ArrayDeque<>();
+
+            ByteBuffer acquire() {
+                ByteBuffer b = free.pollFirst();
+                return b != null ? b.clear() : ByteBuffer.allocateDirect(BUFFER_SIZE);
+            }
+
+            void release(ByteBuffer b) {
+                if (b != null && free.size() < 1024) free.addFirst(b);
+            }
+        }
+
+        final class SelectorLoop implements Runnable {
+            private final Selector selector;
+            private final Queue<SocketChannel> pending = new ConcurrentLinkedQueue<>();
+            // finished responses handed back by worker threads
+            private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+            private final BufferPool pool = new BufferPool();
+            private long lastSweep = System.currentTimeMillis();
+
+            SelectorLoop(int id) throws IOException {
+                this.selector = Selector.open();
+            }
+
+            void register(SocketChannel ch) {
+                pending.add(ch);
+                selector.wakeup();
+            }
+
+            /** Runs {@code task} on this loop's thread. */
+            void execute(Runnable task) {
+                tasks.add(task);
+                selector.wakeup();
+            }
+
+            @Override
+            public void run() {
+                while (true) {
+                    try {
+                        selector.select(1000);
+                        SocketChannel ch;
+                        while ((ch = pending.poll()) != null) {
+                            try {
+                                Connection c = new Connection(ch, this);
+                                c.key = ch.register(selector, SelectionKey.OP_READ, c);
+                            } catch (IOException e) {
+                                ch.close();
+                            }
+                        }
+                        Runnable task;
+                        while ((task = tasks.poll()) != null) {
+                            task.run();
+                        }
+                        Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                        while (it.hasNext()) {
+                            SelectionKey key = it.next();
+                            it.remove();
+                            Connection c = (Connection) key.attachment();
+                            try {
+                                if (key.isValid() && key.isWritable()) c.onWritable();
+                                if (key.isValid() && key.isReadable()) c.onReadable();
+                            } catch (IOException | RuntimeException e) {
+                                c.close();
+                            }
+                        }
+                        sweepIdle();
+                    } catch (IOException e) {
+                        // keep the loop alive; individual connections are closed above
+                    }
+                }
+            }
+
+            private void sweepIdle() {
+                long now = System.currentTimeMillis();
+                if (now - lastSweep < 1000) return;
+                lastSweep = now;
+                for (SelectionKey key : selector.keys()) {
+                    Connection c = (Connection) key.attachment();
+                    // a stream counts as idle once the client stops taking pieces
+                    if (c != null && (!c.busy || c.source != null) && now - c.lastActive > IDLE_TIMEOUT_MS) c.close();
+                }
+            }
+        }
+
+        /** Per-socket state; only touched by its owning loop thread. */
+        final class Connection {
+            private final SocketChannel channel;
+            private final SelectorLoop loop;
+            private final InetSocketAddress remoteAddress;
+            private final InetSocketAddress localAddress;
+            private final ArrayDeque<ByteBuffer> writes = new ArrayDeque<>();
+            private SelectionKey key;
+            // read buffer, kept in write mode between events
+            private ByteBuffer in;
+            private long lastActive = System.currentTimeMillis();
+            private boolean closeAfterWrite;
+            private boolean closed;
+            // a handler is working on the current request
+            private boolean busy;
+
+            // streamed response body, see stream()
+            private BodySource source;
+            private boolean chunked;
+            private boolean streamKeepAlive;
+            private Runnable streamDone;
+            // a worker is reading the source's next piece
+            private boolean pulling;
+
+            // request currently being read
+            private String method;
+            private URI uri;
+            private String protocol;
+            private List<String> headerLines;
+            private byte[] body;
+            private int bodyFilled;
+
+            Connection(SocketChannel channel, SelectorLoop loop) throws IOException {
+                this.channel = channel;
+                this.loop = loop;
+                this.remoteAddress = (InetSocketAddress) channel.getRemoteAddress();
+                this.localAddress = (InetSocketAddress) channel.getLocalAddress();
+                this.in = loop.pool.acquire();
+            }
+
+            InetSocketAddress remoteAddress() {
+                return remoteAddress;
+            }
+
+            InetSocketAddress localAddress() {
+                return localAddress;
+            }
+
+            void onReadable() throws IOException {
+                int n = channel.read(in);
+                if (n < 0) {
+                    close();
+                    return;
+                }
+                lastActive = System.currentTimeMillis();
+                serveBuffered();
+                flush();
+            }
+
+            void onWritable() throws IOException {
+                flush();
+            }
+
+            /** Starts the next complete request in the read buffer, unless one is already being handled. */
+            private void serveBuffered() {
+                in.flip();
+                boolean ready = !busy && !closeAfterWrite && parseNext();
+                in.compact();
+                if (ready) {
+                    dispatch();
+                } else if (!busy && in.position() == in.capacity() && method == null) {
+                    // headers do not fit into one buffer
+                    enqueue(simpleResponse(431, "Request Header Fields Too Large"));
+                    closeAfterWrite = true;
+                }
+            }
+
+            /** Returns true once the current request (headers + body) is complete. */
+            private boolean parseNext() {
+                if (method == null) {
+                    int end = indexOfHeaderEnd(in);
+                    if (end < 0) return false;
+                    byte[] head = new byte[end - in.position()];
+                    in.get(head);
+                    in.position(in.position() + 4);
+                    String[] lines = new String(head, StandardCharsets.ISO_8859_1).split("\r\n");
+                    String[] requestLine = lines[0].split(" ");
+                    if (requestLine.length != 3) {
+                        return fail(400, "Bad Request");
+                    }
+                    try {
+                        uri = URI.create(requestLine[1]);
+                    } catch (IllegalArgumentException e) {
+                        return fail(400, "Bad Request");
+                    }
+                    method = requestLine[0];
+                    protocol = requestLine[2];
+                    headerLines = Arrays.asList(lines).subList(1, lines.length);
+                    long len = parseContentLength(headerLines);
+                    if (len < 0 || len > MAX_BODY || headerValue(headerLines, "Transfer-Encoding") != null) {
+                        return fail(len > MAX_BODY ? 413 : 400, "Unsupported request body");
+                    }
+                    String expect = headerValue(headerLines, "Expect");
+                    if (expect != null) {
+                        if (!expect.equalsIgnoreCase("100-continue")) {
+                            return fail(417, "Expectation Failed");
+                        }
+                        // The client waits for this before sending the body
+                        if (len > in.remaining() && "HTTP/1.1".equals(protocol)) {
+                            enqueue("HTTP/1.1 100 Continue\r\n\r\n".getBytes(StandardCharsets.ISO_8859_1));
+                        }
+                    }
+                    body = new byte[(int) len];
+                    bodyFilled = 0;
+                }
+                int take = Math.min(in.remaining(), body.length - bodyFilled);
+                in.get(body, bodyFilled, take);
+                bodyFilled += take;
+                return bodyFilled == body.length;
+            }
+
+            private boolean fail(int status, String text) {
+                enqueue(simpleResponse(status, text));
+                closeAfterWrite = true;
+                method = null;
+                return false;
+            }
+
+            /** Admits the request and hands it to a worker, or answers 503 right here. */
+            private void dispatch() {
+                String connection = headerValue(headerLines, "Connection");
+                boolean keepAlive = "HTTP/1.1".equals(protocol)
+                        ? !"close".equalsIgnoreCase(connection)
+                        : "keep-alive".equalsIgnoreCase(connection);
+                NioExchange ex = new NioExchange(this, method, uri, protocol, headerLines, body, keepAlive);
+                method = null;
+                headerLines = null;
+                body = null;
+                busy = true;
+
+                HttpHandler handler = route(ex.getRequestURI().getPath());
+                AdmissionController.Ticket ticket = handler == null ? null : admission.tryAdmit(AdmissionController.classify(ex));
+                if (ticket == null) {
+                    // No handler, or shed: both answers are cheap enough for the loop
+                    try {
+                        if (handler == null) {
+                            sendPlain(ex, 404, "Not Found");
+                        } else {
+                            AdmissionController.reject(ex);
+                        }
+                    } catch (IOException e) {
+                        ex.close();
+                    }
+                    return;
+                }
+                // A streamed response keeps its ticket until the last piece is out
+                ex.onComplete(() -> admission.complete(ticket));
+                admission.workers().execute(() -> {
+                    try {
+                        handler.handle(ex);
+                    } catch (Exception e) {
+                        if (!ex.headersSent()) {
+                            try {
+                                sendPlain(ex, 500, "Internal Server Error");
+                            } catch (IOException ignored) {
+                            }
+                        }
+                    } finally {
+                        ex.close();
+                    }
+                });
+            }
+
+            /** Called from any thread once the exchange is complete. */
+            void respond(byte[] response, boolean keepAlive) {
+                loop.execute(() -> {
+                    if (closed) return;
+                    busy = false;
+                    lastActive = System.currentTimeMillis();
+                    enqueue(response);
+                    if (!keepAlive) closeAfterWrite = true;
+                    serveBuffered();
+                    try {
+                        flush();
+                    } catch (IOException e) {
+                        close();
+                    }
+                });
+            }
+
+            /**
+             * Called from any thread: sends {@code head} and then the body
+             * from {@code source}, one piece per drained write queue.
+             */
+            void stream(byte[] head, BodySource source, boolean chunked, boolean keepAlive, Runnable done) {
+                loop.execute(() -> {
+                    this.source = source;
+                    this.chunked = chunked;
+                    this.streamKeepAlive = keepAlive;
+                    this.streamDone = done;
+                    if (closed) {
+                        endStream();
+                        return;
+                    }
+                    lastActive = System.currentTimeMillis();
+                    enqueue(head);
+                    try {
+                        flush();
+                    } catch (IOException e) {
+                        close();
+                    }
+                });
+            }
+
+            /** Reads the next piece on a worker; the loop itself never touches the source. */
+            private void pull() {
+                if (pulling) return;
+                pulling = true;
+                BodySource s = source;
+                admission.workers().execute(() -> {
+                    byte[] piece;
+                    boolean failed = false;
+                    try {
+                        piece = s.next();
+                    } catch (IOException | RuntimeException e) {
+                        piece = null;
+                        failed = true;
+                    }
+                    byte[] p = piece;
+                    boolean f = failed;
+                    loop.execute(() -> pulled(p, f));
+                });
+            }
+
+            private void pulled(byte[] piece, boolean failed) {
+                pulling = false;
+                if (closed) {
+                    endStream();
+                    return;
+                }
+                if (failed) {
+                    // Too late for an error status; cutting the body short tells the client
+                    close();
+                    return;
+                }
+                lastActive = System.currentTimeMillis();
+                if (piece != null) {
+                    if (chunked) enqueue((Integer.toHexString(piece.length) + "\r\n").getBytes(StandardCharsets.ISO_8859_1));
+                    enqueue(piece);
+                    if (chunked) enqueue(CRLF);
+                } else {
+                    if (chunked) enqueue(LAST_CHUNK);
+                    if (!streamKeepAlive) closeAfterWrite = true;
+                    endStream();
+                    busy = false;
+                    serveBuffered();
+                }
+                try {
+                    flush();
+                } catch (IOException e) {
+                    close();
+                }
+            }
+
+            /** Closes the source and releases the request's ticket; runs once per stream. */
+            private void endStream() {
+                BodySource s = source;
+                Runnable done = streamDone;
+                source = null;
+                streamDone = null;
+                try {
+                    s.close();
+                } catch (IOException | RuntimeException ignored) {
+                }
+                if (done != null) done.run();
+            }
+
+            private void enqueue(byte[] bytes) {
+                int off = 0;
+                while (off < bytes.length) {
+                    ByteBuffer b = writes.peekLast();
+                    if (b == null || !b.hasRemaining()) {
+                        b = loop.pool.acquire();
+                        writes.addLast(b);
+                    }
+                    int n = Math.min(b.remaining(), bytes.length - off);
+                    b.put(bytes, off, n);
+                    off += n;
+                }
+            }
+
+            private void flush() throws IOException {
+                while (!writes.isEmpty()) {
+                    ByteBuffer b = writes.peekFirst();
+                    b.flip();
+                    channel.write(b);
+                    if (b.hasRemaining()) {
+                        b.compact();
+                        updateInterest();
+                        return;
+                    }
+                    loop.pool.release(writes.pollFirst());
+                }
+                if (source != null) {
+                    // The socket took everything so far; fetch the next piece
+                    pull();
+                }
+                if (closeAfterWrite && !busy) {
+                    close();
+                } else {
+                    updateInterest();
+                }
+            }
+
+            private void updateInterest() {
+                int ops = 0;
+                if (!writes.isEmpty()) ops |= SelectionKey.OP_WRITE;
+                // A full buffer behind a busy request waits until the response is out
+                if (!closeAfterWrite && in.hasRemaining()) ops |= SelectionKey.OP_READ;
+                key.interestOps(ops);
+            }
+
+            void close() {
+                if (closed) return;
+                closed = true;
+                // a piece in flight ends the stream when it comes back
+                if (source != null && !pulling) endStream();
+                key.cancel();
+                try {
+                    channel.close();
+                } catch (IOException ignored) {
+                }
+                loop.pool.release(in);
+                in = null;
+                ByteBuffer b;
+                while ((b = writes.pollFirst()) != null) loop.pool.release(b);
+            }
+
+            private byte[] simpleResponse(int status, String text) {
+                return ("HTTP/1.1 " + status + " " + text + "\r\nContent-Length: 0\r\nConnection: close\r\n\r\n")
+                        .getBytes(StandardCharsets.ISO_8859_1);
+            }
+        }
+
+        private static int indexOfHeaderEnd(ByteBuffer b) {
+            for (int i = b.position(); i + 3 < b.limit(); i++) {
+                if (b.get(i) == '\r' && b.get(i + 1) == '\n' && b.get(i + 2) == '\r' && b.get(i + 3) == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        private static String headerValue(List<String> lines, String name) {
+            for (String line : lines) {
+                int idx = line.indexOf(':');
+                if (idx > 0 && line.regionMatches(true, 0, name, 0, name.length()) && idx == name.length()) {
+                    return line.substring(idx + 1).trim();
+                }
+            }
+            return null;
+        }
+
+        private static long parseContentLength(List<String> lines) {
+            String v = headerValue(lines, "Content-Length");
+            if (v == null) return 0;
+            try {
+                return Long.parseLong(v);
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+    }
+
+    /** A response body produced a piece at a time, for {@link NioExchange#stream}. */
+    interface BodySource extends Closeable {
+        /** The next non-empty piece, or null once the body is complete. */
+        byte[] next() throws IOException;
+    }
+
+    /**
+     * Adapter that lets HttpHandlers run on the NIO engine. Built on the loop
+     * thread, used by one worker. The response is buffered and handed to the
+     * connection's loop when the exchange is closed; a body of unknown length
+     * (sendResponseHeaders with 0) is sent with its length once known. Bodies
+     * too large to buffer go through {@link #stream} instead.
+     * Request headers are only copied into a {@link Headers} map on demand.
+     */
+    static class NioExchange extends HttpExchange {
+        private final NioHttpServer.Connection connection;
+        private final String method;
+        private final URI uri;
+        private final String protocol;
+        private final List<String> headerLines;
+        private final byte[] requestBody;
+        private final boolean keepAlive;
+        private final Headers responseHeaders = new Headers();
+        private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        private final Map<String, Object> attributes = new HashMap<>();
+        private Headers requestHeaders;
+        private InputStream requestStream;
+        private OutputStream responseStream;
+        private int status = -1;
+        private boolean noBody;
+        private boolean finished;
+        // releases the admission ticket once the response is handed over (or fully streamed)
+        private Runnable onComplete;
+
+        NioExchange(NioHttpServer.Connection connection, String method, URI uri, String protocol,
+                    List<String> headerLines, byte[] requestBody, boolean keepAlive) {
+            this.connection = connection;
+            this.method = method;
+            this.uri = uri;
+            this.protocol = protocol;
+            this.headerLines = headerLines;
+            this.requestBody = requestBody;
+            this.keepAlive = keepAlive;
+        }
+
+        boolean headersSent() {
+            return status >= 0;
+        }
+
+        void onComplete(Runnable action) {
+            this.onComplete = action;
+        }
+
+        /**
+         * Sends the status and headers now and the body as the connection
+         * pulls it: the next piece is read from {@code source} on a worker
+         * each time the socket has taken the previous one. Chunked on
+         * HTTP/1.1; HTTP/1.0 gets the raw body and the connection is closed.
+         * The source is closed when the body ends or the client goes away.
+         */
+        void stream(int rCode, BodySource source) {
+            if (status >= 0) throw new IllegalStateException("headers already sent");
+            status = rCode;
+            finished = true;
+            boolean chunked = "HTTP/1.1".equals(protocol);
+            Runnable done = onComplete;
+            onComplete = null;
+            connection.stream(head(chunked ? "Transfer-Encoding: chunked" : null, chunked && keepAlive),
+                    source, chunked, chunked && keepAlive, done);
+        }
+
+        @Override
+        public Headers getRequestHeaders() {
+            if (requestHeaders == null) {
+                requestHeaders = new Headers();
+                for (String line : headerLines) {
+                    int idx = line.indexOf(':');
+                    if (idx > 0) requestHeaders.add(line.substring(0, idx).trim(), line.substring(idx + 1).trim());
+                }
+            }
+            return requestHeaders;
+        }
+
+        @Override
+        public Headers getResponseHeaders() {
+            return responseHeaders;
+        }
+
+        @Override
+        public URI getRequestURI() {
+            return uri;
+        }
+
+        @Override
+        public String getRequestMethod() {
+            return method;
+        }
+
+        @Override
+        public HttpContext getHttpContext() {
+            return null;
+        }
+
+        @Override
+        public void close() {
+            if (finished) return;
+            finished = true;
+            if (status < 0) status = 500;
+            byte[] head = head("Content-Length: " + (noBody ? 0 : out.size()), keepAlive);
+            if (noBody || out.size() == 0) {
+                connection.respond(head, keepAlive);
+            } else {
+                byte[] response = Arrays.copyOf(head, head.length + out.size());
+                System.arraycopy(out.toByteArray(), 0, response, head.length, out.size());
+                connection.respond(response, keepAlive);
+            }
+            if (onComplete != null) onComplete.run();
+        }
+
+        /** Status line and headers; {@code framing} may be null for a body that ends with the connection. */
+        private byte[] head(String framing, boolean keepAlive) {
+            StringBuilder head = new StringBuilder(128);
+            head.append("HTTP/1.1 ").append(status).append(' ').append(reason(status)).append("\r\n");
+            for (Map.Entry<String, List<String>> e : responseHeaders.entrySet()) {
+                for (String v : e.getValue()) {
+                    head.append(e.getKey()).append(": ").append(v).append("\r\n");
+                }
+            }
+            if (framing != null) head.append(framing).append("\r\n");
+            head.append("Connection: ").append(keepAlive ? "keep-alive" : "close").append("\r\n\r\n");
+            return head.toString().getBytes(StandardCharsets.ISO_8859_1);
+        }
+
+        @Override
+        public InputStream getRequestBody() {
+            if (requestStream == null) {
+                requestStream = new ByteArrayInputStream(requestBody);
+            }
+            return requestStream;
+        }
+
+        @Override
+        public OutputStream getResponseBody() {
+            if (responseStream == null) {
+                responseStream = new FilterOutputStream(out) {
+                    @Override
+                    public void write(byte[] b, int off, int len) {
+                        NioExchange.this.out.write(b, off, len);
+                    }
+
+                    @Override
+                    public void close() {
+                        NioExchange.this.close();
+                    }
+                };
+            }
+            return responseStream;
+        }
+
+        @Override
+        public void sendResponseHeaders(int rCode, long responseLength) {
+            if (status >= 0) throw new IllegalStateException("headers already sent");
+            status = rCode;
+            noBody = responseLength == -1;
+        }
+
+        @Override
+        public InetSocketAddress getRemoteAddress() {
+            return connection.remoteAddress();
+        }
+
+        @Override
+        public int getResponseCode() {
+            return status;
+        }
+
+        @Override
+        public InetSocketAddress getLocalAddress() {
+            return connection.localAddress();
+        }
+
+        @Override
+        public String getProtocol() {
+            return protocol;
+        }
+
+        @Override
+        public Object getAttribute(String name) {
+            return attributes.get(name);
+        }
+
+        @Override
+        public void setAttribute(String name, Object value) {
+            attributes.put(name, value);
+        }
+
+        /** As in HttpServer: filters may wrap the streams; null keeps the current one. */
+        @Override
+        public void setStreams(InputStream i, OutputStream o) {
+            if (i != null) requestStream = i;
+            if (o != null) responseStream = o;
+        }
+
+        @Override
+        public HttpPrincipal getPrincipal() {
+            return null;
+        }
+
+        private static String reason(int status) {
+            switch (status) {
+                case 200: return "OK";
+                case 201: return "Created";
+                case 204: return "No Content";
+                case 400: return "Bad Request";
+                case 403: return "Forbidden";
+                case 404: return "Not Found";
+                case 405: return "Method Not Allowed";
+                case 409: return "Conflict";
+                case 503: return "Service Unavailable";
+                default: return status >= 500 ? "Server Error" : "Status";
+            }
+        }
     }
 
     // -----------------------------
@@ -210,12 +1466,111 @@ public class SmartHostelServer {
             if (minCapacity < 1) minCapacity = 1;
 
             List<Room> rooms = manager.searchRooms(minCapacity, needsAC, needsWashroom);
-            sendJson(ex, 200, toJsonArray(rooms));
+            sendRooms(ex, rooms, false);
         } catch (Exception e) {
             sendJson(ex, 500, "{\"message\":\"Internal server error\"}");
         }
     }
 
+    private void handleLookup(HttpExchange ex) throws IOException {
+        try {
+            if ("OPTIONS".equalsIgnoreCase(ex.getRequestMethod())) {
+                sendEmpty(ex, 204);
+                return;
+            }
+            if (!"GET".equalsIgnoreCase(ex.getRequestMethod())) {
+                sendJson(ex, 405, "{\"message\":\"Method not allowed\"}");
+                return;
+            }
+            Map<String, String> q = parseQuery(ex.getRequestURI().getRawQuery());
+            int limit = Math.max(1, Math.min(20, parseIntSafe(q.get("limit"), 10)));
+            sendJson(ex, 200, toJsonArray(manager.lookupRooms(q.getOrDefault("prefix", ""), limit)));
+        } catch (Exception e) {
+            sendJson(ex, 500, "{\"message\":\"Internal server error\"}");
+        }
+    }
+
+    /**
+     * Full catalogue as NDJSON, streamed with chunked transfer (gzip if the
+     * client accepts it). Rooms are copied a page at a time under the lock
+     * and encoded outside it, so memory stays flat however many rooms there are.
+     * On the NIO engine the connection pulls each page once the socket has
+     * taken the previous one; here the worker writes them in turn.
+     */
+    private void handleExport(HttpExchange ex) throws IOException {
+        if ("OPTIONS".equalsIgnoreCase(ex.getRequestMethod())) {
+            sendEmpty(ex, 204);
+            return;
+        }
+        if (!"GET".equalsIgnoreCase(ex.getRequestMethod())) {
+            sendJson(ex, 405, "{\"message\":\"Method not allowed\"}");
+            return;
+        }
+        boolean gzip = acceptsGzip(ex.getRequestHeaders().getFirst("Accept-Encoding"));
+        Headers h = ex.getResponseHeaders();
+        addCorsHeaders(h);
+        h.set("Content-Type", "application/x-ndjson; charset=utf-8");
+        h.set("Cache-Control", "no-store");
+        h.set("Vary", "Accept-Encoding");
+        if (gzip) h.set("Content-Encoding", "gzip");
+
+        ExportSource export = new ExportSource(gzip);
+        if (ex instanceof NioExchange) {
+            ((NioExchange) ex).stream(200, export);
+            return;
+        }
+        try {
+            ex.sendResponseHeaders(200, 0); // 0 = chunked
+            OutputStream body = ex.getResponseBody();
+            byte[] piece;
+            while ((piece = export.next()) != null) {
+                body.write(piece);
+            }
+        } finally {
+            export.close();
+            ex.close();
+        }
+    }
+
+    /** Encoded export body, produced a page of rooms at a time; closing it ends the export. */
+    private final class ExportSource implements BodySource {
+        private final HostelManager.ExportCursor cursor = manager.openExport();
+        private final ByteArrayOutputStream buf = new ByteArrayOutputStream(32 * 1024);
+        private final OutputStream out;
+        private boolean done;
+
+        ExportSource(boolean gzip) throws IOException {
+            this.out = gzip ? new GZIPOutputStream(buf, 8192) : buf;
+        }
+
+        @Override
+        public byte[] next() throws IOException {
+            // gzip may hold a whole page back, so read on until it yields bytes
+            while (!done) {
+                List<Room> page = manager.nextExportPage(cursor, EXPORT_PAGE);
+                if (page.isEmpty()) {
+                    done = true;
+                    out.close();
+                }
+                for (Room r : page) {
+                    out.write(toJson(r).getBytes(StandardCharsets.UTF_8));
+                    out.write('\n');
+                }
+                if (buf.size() > 0) {
+                    byte[] piece = buf.toByteArray();
+                    buf.reset();
+                    return piece;
+                }
+            }
+            return null;
+        }
+
+        @Override
+        public void close() {
+            manager.closeExport(cursor);
+        }
+    }
+
     private void handleAllocate(HttpExchange ex) throws IOException {
         try {
             if ("OPTIONS".equalsIgnoreCase(ex.getRequestMethod())) {
@@ -242,7 +1597,52 @@ public class SmartHostelServer {
                 sendJson(ex, 404, "{\"message\":\"No room available\"}");
                 return;
             }
-            sendJson(ex, 200, toJson(allocated));
+            sendRooms(ex, List.of(allocated), true);
+        } catch (Exception e) {
+            sendJson(ex, 500, "{\"message\":\"Internal server error\"}");
+        }
+    }
+
+    private void handleRelease(HttpExchange ex) throws IOException {
+        try {
+            if ("OPTIONS".equalsIgnoreCase(ex.getRequestMethod())) {
+                sendEmpty(ex, 204);
+                return;
+            }
+            if (!"POST".equalsIgnoreCase(ex.getRequestMethod())) {
+                sendJson(ex, 405, "{\"message\":\"Method not allowed\"}");
+                return;
+            }
+            Map<String, String> json = parseFlatJsonObject(readBody(ex));
+            String roomNo = json.getOrDefault("roomNo", "").trim();
+            int students = parseIntSafe(json.get("students"), -1);
+            if (roomNo.isEmpty() || students < 1) {
+                sendJson(ex, 400, "{\"message\":\"roomNo is required and students must be >= 1\"}");
+                return;
+            }
+
+            Room released = manager.releaseBeds(roomNo, students);
+            if (released == null) {
+                sendJson(ex, 409, "{\"message\":\"Room not found (or fewer beds occupied).\"}");
+                return;
+            }
+            sendJson(ex, 200, toJson(released));
+        } catch (Exception e) {
+            sendJson(ex, 500, "{\"message\":\"Internal server error\"}");
+        }
+    }
+
+    private void handleStats(HttpExchange ex) throws IOException {
+        try {
+            if ("OPTIONS".equalsIgnoreCase(ex.getRequestMethod())) {
+                sendEmpty(ex, 204);
+                return;
+            }
+            if (!"GET".equalsIgnoreCase(ex.getRequestMethod())) {
+                sendJson(ex, 405, "{\"message\":\"Method not allowed\"}");
+                return;
+            }
+            sendJson(ex, 200, manager.statsJson());
         } catch (Exception e) {
             sendJson(ex, 500, "{\"message\":\"Internal server error\"}");
         }
@@ -307,10 +1707,26 @@ public class SmartHostelServer {
     }
 
     private static void sendJson(HttpExchange ex, int status, String json) throws IOException {
-        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        sendBody(ex, status, "application/json; charset=utf-8", json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 200 with the rooms as JSON (with {@code single}, the one room as an
+     * object), or in the binary encoding if Accept prefers it. Errors stay JSON.
+     */
+    private static void sendRooms(HttpExchange ex, List<Room> rooms, boolean single) throws IOException {
+        ex.getResponseHeaders().set("Vary", "Accept");
+        if (prefersBinary(ex.getRequestHeaders().getFirst("Accept"))) {
+            sendBody(ex, 200, ROOMS_MEDIA_TYPE, encodeRooms(rooms));
+        } else {
+            sendJson(ex, 200, single ? toJson(rooms.get(0)) : toJsonArray(rooms));
+        }
+    }
+
+    private static void sendBody(HttpExchange ex, int status, String contentType, byte[] bytes) throws IOException {
         Headers h = ex.getResponseHeaders();
         addCorsHeaders(h);
-        h.set("Content-Type", "application/json; charset=utf-8");
+        h.set("Content-Type", contentType);
         h.set("Cache-Control", "no-store");
         h.set("X-Server-Time", Instant.now().toString());
         ex.sendResponseHeaders(status, bytes.length);
@@ -337,6 +1753,76 @@ public class SmartHostelServer {
         ex.close();
     }
 
+    /** True if the Accept-Encoding header lists gzip (or *) without q=0. */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) return false;
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) continue;
+            boolean refused = false;
+            for (int i = 1; i < params.length; i++) {
+                if (params[i].trim().matches("[qQ]\\s*=\\s*0(\\.0*)?")) refused = true;
+            }
+            if (!refused) return true;
+        }
+        return false;
+    }
+
+    /** True if Accept asks for the binary room encoding with a q-value at least as high as JSON's. */
+    private static boolean prefersBinary(String accept) {
+        if (accept == null) return false;
+        double binary = 0;
+        double json = 0;
+        for (String part : accept.split(",")) {
+            String[] params = part.trim().split(";");
+            String type = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (!param.startsWith("q=") && !param.startsWith("Q=")) continue;
+                try {
+                    q = Double.parseDouble(param.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    q = 0;
+                }
+            }
+            if (type.equals(ROOMS_MEDIA_TYPE)) {
+                binary = Math.max(binary, q);
+            } else if (type.equals("application/json") || type.equals("application/*") || type.equals("*/*")) {
+                json = Math.max(json, q);
+            }
+        }
+        return binary > 0 && binary >= json;
+    }
+
+    /**
+     * Varint count, then per room: varint capacity, varint occupied, flags
+     * byte (1 = AC, 2 = attached washroom) and the varint-length-prefixed
+     * UTF-8 room number. The Spring app's RoomCodec documents the format.
+     */
+    private static byte[] encodeRooms(List<Room> rooms) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(16 + 12 * rooms.size());
+        writeVarint(out, rooms.size());
+        for (Room r : rooms) {
+            byte[] roomNo = r.roomNo.getBytes(StandardCharsets.UTF_8);
+            writeVarint(out, r.capacity);
+            writeVarint(out, r.occupied);
+            out.write((r.hasAC ? 1 : 0) | (r.hasAttachedWashroom ? 2 : 0));
+            writeVarint(out, roomNo.length);
+            out.write(roomNo, 0, roomNo.length);
+        }
+        return out.toByteArray();
+    }
+
+    private static void writeVarint(ByteArrayOutputStream out, int n) {
+        while ((n & ~0x7F) != 0) {
+            out.write((n & 0x7F) | 0x80);
+            n >>>= 7;
+        }
+        out.write(n);
+    }
+
     private static void addCorsHeaders(Headers h) {
         // Allow browser requests from file:// and other origins (local dev)
         h.set("Access-Control-Allow-Origin", "*");
@@ -350,7 +1836,8 @@ public class SmartHostelServer {
                 + "\"roomNo\":\"" + jsonEscape(r.roomNo) + "\","
                 + "\"capacity\":" + r.capacity + ","
                 + "\"hasAC\":" + r.hasAC + ","
-                + "\"hasAttachedWashroom\":" + r.hasAttachedWashroom
+                + "\"hasAttachedWashroom\":" + r.hasAttachedWashroom + ","
+                + "\"occupied\":" + r.occupied
                 + "}";
     }
 
@@ -383,6 +1870,11 @@ public class SmartHostelServer {
                 if (c == '}') braceDepth--;
             }
             cur.append(c);
+            if (!inQuotes && braceDepth == 0 && c == ',') {
+                // separator between two objects
+                cur.setLength(0);
+                continue;
+            }
             if (!inQuotes && braceDepth == 0 && c == '}') {
                 objs.add(cur.toString().trim());
                 cur.setLength(0);
@@ -396,8 +1888,11 @@ public class SmartHostelServer {
             int capacity = parseIntSafe(m.get("capacity"), -1);
             boolean hasAC = parseBoolSafe(m.get("hasAC"), false);
             boolean hasWashroom = parseBoolSafe(m.get("hasAttachedWashroom"), false);
+            int occupied = parseIntSafe(m.get("occupied"), 0);
             if (!roomNo.isEmpty() && capacity > 0) {
-                rooms.add(new Room(roomNo, capacity, hasAC, hasWashroom));
+                Room room = new Room(roomNo, capacity, hasAC, hasWashroom);
+                room.occupied = Math.max(0, Math.min(capacity, occupied));
+                rooms.add(room);
             }
         }
         return rooms;
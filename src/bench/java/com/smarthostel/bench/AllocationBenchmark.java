@@ -0,0 +1,63 @@
+package com.smarthostel.bench;
+
+import com.smarthostel.model.Room;
+import com.smarthostel.service.HostelService;
+
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Allocate/release throughput with one thread per block, for 1..N blocks.
+ * Each thread works only in its own block, so with per-block locks the
+ * throughput should grow with the block count (up to the number of cores).
+ *
+ * Run:
+ *   mvn -Pbench compile
+ *   java -cp target/classes com.smarthostel.bench.AllocationBenchmark [maxBlocks] [roomsPerBlock] [seconds]
+ */
+public class AllocationBenchmark {
+    public static void main(String[] args) throws InterruptedException {
+        int maxBlocks = args.length > 0 ? Integer.parseInt(args[0]) : Runtime.getRuntime().availableProcessors();
+        int roomsPerBlock = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int seconds = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+
+        System.out.printf("%-7s %-8s %15s%n", "blocks", "threads", "allocs/s");
+        for (int blocks = 1; blocks <= maxBlocks; blocks *= 2) {
+            System.out.printf("%-7d %-8d %,15d%n", blocks, blocks, run(blocks, roomsPerBlock, seconds));
+        }
+    }
+
+    private static long run(int blocks, int roomsPerBlock, int seconds) throws InterruptedException {
+        HostelService hostel = new HostelService();
+        for (int b = 0; b < blocks; b++) {
+            for (int i = 0; i < roomsPerBlock; i++) {
+                hostel.addRoom("Block" + b, b + "-" + i, 1 + i % 6, i % 3 == 0, i % 2 == 0);
+            }
+        }
+
+        AtomicLong allocations = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(blocks);
+        long deadline = System.nanoTime() + seconds * 1_000_000_000L;
+        for (int b = 0; b < blocks; b++) {
+            String block = "Block" + b;
+            Thread t = new Thread(() -> {
+                long n = 0;
+                int students = 1;
+                while (System.nanoTime() < deadline) {
+                    Optional<Room> room = hostel.allocateRoom(block, students, false, students % 2 == 0);
+                    if (room.isPresent()) {
+                        hostel.releaseBeds(room.get().getRoomNo(), students);
+                        n++;
+                    }
+                    students = students % 4 + 1;
+                }
+                allocations.addAndGet(n);
+                done.countDown();
+            });
+            t.start();
+        }
+        done.await();
+        return allocations.get() / seconds;
+    }
+}
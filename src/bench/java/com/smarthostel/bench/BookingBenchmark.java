@@ -0,0 +1,110 @@
+package com.smarthostel.bench;
+
+import com.smarthostel.model.Room;
+import com.smarthostel.service.BookingService;
+import com.smarthostel.service.HostelService;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Loads a million historical bookings and measures date-ranged availability
+ * search against the per-room booking index, with a naive scan over every
+ * booking as the reference.
+ *
+ * Run:
+ *   mvn -Pbench compile
+ *   java -cp target/classes com.smarthostel.bench.BookingBenchmark [bookings] [rooms]
+ */
+public class BookingBenchmark {
+    public static void main(String[] args) {
+        int bookingCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int roomCount = args.length > 1 ? Integer.parseInt(args[1]) : 2_000;
+        Random rnd = new Random(42);
+
+        HostelService hostel = new HostelService();
+        for (int i = 0; i < roomCount; i++) {
+            hostel.addRoom("B" + i, 1 + rnd.nextInt(6), rnd.nextBoolean(), rnd.nextBoolean());
+        }
+        BookingService bookings = new BookingService(hostel);
+        List<Room> rooms = hostel.getAllRooms();
+
+        // ten years of short and long stays
+        LocalDate start = LocalDate.of(2016, 1, 1);
+        List<long[]> raw = new ArrayList<>(bookingCount);
+        long t0 = System.nanoTime();
+        int placed = 0;
+        for (int i = 0; i < bookingCount; i++) {
+            int r = rnd.nextInt(rooms.size());
+            Room room = rooms.get(r);
+            LocalDate in = start.plusDays(rnd.nextInt(3650));
+            LocalDate out = in.plusDays(1 + rnd.nextInt(rnd.nextInt(10) == 0 ? 150 : 7));
+            if (bookings.book(room.getRoomNo(), 1, false, false, in, out).isPresent()) {
+                raw.add(new long[]{r, in.toEpochDay(), out.toEpochDay()});
+                placed++;
+            }
+        }
+        long loadNanos = System.nanoTime() - t0;
+        System.out.printf("loaded %,d bookings into %,d rooms in %.1f s (%.2f us/booking)%n",
+                placed, roomCount, loadNanos / 1e9, loadNanos / 1e3 / bookingCount);
+
+        int queries = 200;
+        LocalDate[] from = new LocalDate[queries];
+        LocalDate[] to = new LocalDate[queries];
+        for (int i = 0; i < queries; i++) {
+            from[i] = start.plusDays(rnd.nextInt(3650));
+            to[i] = from[i].plusDays(1 + rnd.nextInt(120));
+        }
+
+        // warm-up
+        for (int i = 0; i < queries; i++) {
+            bookings.searchAvailable(null, 2, false, false, from[i], to[i]);
+        }
+        long found = 0;
+        t0 = System.nanoTime();
+        for (int i = 0; i < queries; i++) {
+            found += bookings.searchAvailable(null, 2, false, false, from[i], to[i]).size();
+        }
+        long indexed = System.nanoTime() - t0;
+        System.out.printf("indexed search: %.2f ms/query (%d rooms matched on average)%n",
+                indexed / 1e6 / queries, found / queries);
+
+        // naive: one pass over every booking per query, then a per-room peak
+        int naiveQueries = 20;
+        long naiveFound = 0;
+        long indexedFound = 0;
+        t0 = System.nanoTime();
+        for (int i = 0; i < naiveQueries; i++) {
+            naiveFound += naiveSearch(rooms, raw, 2, from[i].toEpochDay(), to[i].toEpochDay());
+        }
+        long naive = System.nanoTime() - t0;
+        for (int i = 0; i < naiveQueries; i++) {
+            indexedFound += bookings.searchAvailable(null, 2, false, false, from[i], to[i]).size();
+        }
+        System.out.printf("naive scan:     %.2f ms/query (results %s)%n", naive / 1e6 / naiveQueries,
+                naiveFound == indexedFound ? "match" : "DIFFER: " + naiveFound + " vs " + indexedFound);
+    }
+
+    private static int naiveSearch(List<Room> rooms, List<long[]> raw, int beds, long from, long to) {
+        int days = (int) (to - from);
+        int[][] diff = new int[rooms.size()][days + 1];
+        for (long[] b : raw) {
+            if (b[2] <= from || b[1] >= to) continue;
+            diff[(int) b[0]][(int) (Math.max(from, b[1]) - from)]++;
+            diff[(int) b[0]][(int) (Math.min(to, b[2]) - from)]--;
+        }
+        int matched = 0;
+        for (int r = 0; r < rooms.size(); r++) {
+            int peak = 0;
+            int running = 0;
+            for (int d = 0; d < days; d++) {
+                running += diff[r][d];
+                peak = Math.max(peak, running);
+            }
+            if (rooms.get(r).getCapacity() >= beds && rooms.get(r).getCapacity() - peak >= beds) matched++;
+        }
+        return matched;
+    }
+}
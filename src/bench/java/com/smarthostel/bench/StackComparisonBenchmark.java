@@ -0,0 +1,186 @@
+package com.smarthostel.bench;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Servlet (Tomcat) against reactive (WebFlux/Netty) build under the same
+ * open-loop load: each stack is started fresh, warmed up, then driven by
+ * HostelLoadGenerator at every rate in turn, with as many connections as
+ * the rate. One row per stack and rate: throughput, corrected p99/p99.9,
+ * 503s and other failures, and the server's peak thread count (Linux only).
+ *
+ * Both profiles build target/smart-hostel-1.0.0.jar, so keep a copy of each:
+ *   mvn package                (then copy the jar into target/servlet/)
+ *   mvn -Preactive package     (then copy the jar into target/reactive/)
+ *   mvn -Pbench compile
+ *
+ * Run from the repository root (HostelLoadGenerator.java is launched from there):
+ *   java -cp target/classes com.smarthostel.bench.StackComparisonBenchmark [seconds] [rates] [name=command ...]
+ * e.g. 60 1000,2000,4000. Stacks whose artifact is missing are skipped.
+ */
+public class StackComparisonBenchmark {
+    private static final int PORT = 8080;
+    private static final int WARMUP_SECONDS = 15;
+    private static final String MIX = "list=20,search=50,allocate=25,add=5";
+
+    private static final Pattern REQUESTS = Pattern.compile("Requests: .*\\(([\\d.]+) req/s\\)");
+    private static final Pattern RESPONSES = Pattern.compile(
+            "Responses: +(\\d+) ok, (\\d+) 4xx, (\\d+) rejected \\(503\\), (\\d+) other 5xx, (\\d+) I/O errors");
+    private static final Pattern LATENCY = Pattern.compile("^ +p(99|99\\.9) +([\\d.]+) ");
+
+    public static void main(String[] args) throws Exception {
+        int seconds = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        int[] rates = Arrays.stream((args.length > 1 ? args[1] : "1000,2000,4000").split(","))
+                .mapToInt(Integer::parseInt).toArray();
+        Map<String, String> stacks = new LinkedHashMap<>();
+        if (args.length > 2) {
+            for (String arg : Arrays.copyOfRange(args, 2, args.length)) {
+                int idx = arg.indexOf('=');
+                stacks.put(arg.substring(0, idx), arg.substring(idx + 1));
+            }
+        } else {
+            stacks.put("servlet", "java -jar target/servlet/smart-hostel-1.0.0.jar");
+            stacks.put("reactive", "java -jar target/reactive/smart-hostel-1.0.0.jar --spring.profiles.active=reactive");
+        }
+
+        System.out.printf("%-10s %7s %10s %10s %10s %8s %8s %8s%n",
+                "stack", "rate", "req/s", "p99 ms", "p99.9 ms", "503", "failed", "threads");
+        for (Map.Entry<String, String> stack : stacks.entrySet()) {
+            if (!artifactExists(stack.getValue())) {
+                System.out.printf("%-10s skipped (not built)%n", stack.getKey());
+                continue;
+            }
+            Process server = start(stack.getValue());
+            try {
+                load(rates[0], WARMUP_SECONDS, server.pid());
+                for (int rate : rates) {
+                    Result r = load(rate, seconds, server.pid());
+                    System.out.printf("%-10s %7d %10.1f %10.2f %10.2f %8d %8d %8s%n", stack.getKey(), rate,
+                            r.throughput, r.p99, r.p999, r.rejected, r.failed, r.peakThreads < 0 ? "-" : r.peakThreads);
+                }
+            } finally {
+                server.destroy();
+                server.waitFor();
+            }
+        }
+    }
+
+    private record Result(double throughput, double p99, double p999, long rejected, long failed, int peakThreads) {
+    }
+
+    private static Process start(String command) throws Exception {
+        List<String> cmd = new ArrayList<>(Arrays.asList(command.split(" ")));
+        cmd.add("--server.port=" + PORT);
+        Process process = new ProcessBuilder(cmd).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        HttpRequest stats = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/api/rooms/stats")).build();
+        long deadline = System.nanoTime() + Duration.ofMinutes(2).toNanos();
+        while (System.nanoTime() < deadline) {
+            if (!process.isAlive()) {
+                throw new IllegalStateException("process exited with " + process.exitValue() + ": " + command);
+            }
+            try {
+                if (client.send(stats, HttpResponse.BodyHandlers.discarding()).statusCode() == 200) {
+                    return process;
+                }
+            } catch (java.io.IOException notUpYet) {
+                // connection refused while the server is starting
+            }
+            Thread.sleep(50);
+        }
+        process.destroy();
+        throw new IllegalStateException("not up after 2 minutes: " + command);
+    }
+
+    /** Runs HostelLoadGenerator in its own JVM, so the client never shares a heap or JIT with the bench. */
+    private static Result load(int rate, int seconds, long serverPid) throws Exception {
+        Process generator = new ProcessBuilder("java", "HostelLoadGenerator.java",
+                "--target", "http://localhost:" + PORT, "--rate", Integer.toString(rate),
+                "--duration", Integer.toString(seconds), "--workers", Integer.toString(rate), "--mix", MIX)
+                .redirectErrorStream(true).start();
+        int[] peakThreads = {threads(serverPid)};
+        Thread sampler = new Thread(() -> {
+            while (generator.isAlive()) {
+                peakThreads[0] = Math.max(peakThreads[0], threads(serverPid));
+                try {
+                    Thread.sleep(500);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }, "thread-sampler");
+        sampler.setDaemon(true);
+        sampler.start();
+
+        double throughput = 0;
+        double p99 = 0;
+        double p999 = 0;
+        long rejected = 0;
+        long failed = 0;
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(generator.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                Matcher m;
+                if ((m = REQUESTS.matcher(line)).find()) {
+                    throughput = Double.parseDouble(m.group(1));
+                } else if ((m = RESPONSES.matcher(line)).find()) {
+                    rejected = Long.parseLong(m.group(3));
+                    failed = Long.parseLong(m.group(4)) + Long.parseLong(m.group(5));
+                } else if ((m = LATENCY.matcher(line)).find()) {
+                    if (m.group(1).equals("99")) {
+                        p99 = Double.parseDouble(m.group(2));
+                    } else {
+                        p999 = Double.parseDouble(m.group(2));
+                    }
+                }
+            }
+        }
+        if (generator.waitFor() != 0) {
+            throw new IllegalStateException("HostelLoadGenerator exited with " + generator.exitValue());
+        }
+        sampler.join();
+        return new Result(throughput, p99, p999, rejected, failed, peakThreads[0]);
+    }
+
+    /** Live threads of a process from /proc, or -1 where that is not available. */
+    private static int threads(long pid) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", Long.toString(pid), "status"))) {
+                if (line.startsWith("Threads:")) {
+                    return Integer.parseInt(line.substring("Threads:".length()).trim());
+                }
+            }
+        } catch (Exception e) {
+            // not Linux, or the process is gone
+        }
+        return -1;
+    }
+
+    private static boolean artifactExists(String command) {
+        for (String part : command.split(" ")) {
+            if (part.startsWith("target/") && !part.contains("=")) {
+                return new File(part).exists();
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,103 @@
+package com.smarthostel.bench;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time from process launch to the first successful POST /api/rooms/allocate,
+ * per startup mode. Modes whose artifact has not been built are skipped.
+ *
+ * Build the artifacts first:
+ *   mvn -Pappcds package      (target/cds: plain JVM and AOT + AppCDS)
+ *   mvn -Pnative package      (target/smart-hostel)
+ *   mvn -Pbench compile
+ *
+ * Run:
+ *   java -cp target/classes com.smarthostel.bench.StartupBenchmark [runs] [name=command ...]
+ */
+public class StartupBenchmark {
+    private static final String JAR = "target/cds/smart-hostel-1.0.0.jar";
+
+    public static void main(String[] args) throws Exception {
+        int runs = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        Map<String, String> modes = new LinkedHashMap<>();
+        if (args.length > 1) {
+            for (String arg : Arrays.copyOfRange(args, 1, args.length)) {
+                int idx = arg.indexOf('=');
+                modes.put(arg.substring(0, idx), arg.substring(idx + 1));
+            }
+        } else {
+            modes.put("jvm", "java -jar " + JAR);
+            modes.put("jvm-aot-appcds", "java -XX:SharedArchiveFile=target/cds/application.jsa"
+                    + " -Dspring.aot.enabled=true -jar " + JAR);
+            modes.put("native", "target/smart-hostel");
+        }
+
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(200)).build();
+        int port = 18080;
+        for (Map.Entry<String, String> mode : modes.entrySet()) {
+            if (!artifactExists(mode.getValue())) {
+                System.out.printf("%-16s skipped (not built)%n", mode.getKey());
+                continue;
+            }
+            List<Long> samples = new ArrayList<>();
+            for (int i = 0; i < runs; i++) {
+                samples.add(timeToFirstAllocation(client, mode.getValue(), port++));
+            }
+            Collections.sort(samples);
+            System.out.printf("%-16s median %5d ms   min %5d ms   max %5d ms%n",
+                    mode.getKey(), samples.get(samples.size() / 2), samples.get(0), samples.get(samples.size() - 1));
+        }
+    }
+
+    private static long timeToFirstAllocation(HttpClient client, String command, int port) throws Exception {
+        List<String> cmd = new ArrayList<>(Arrays.asList(command.split(" ")));
+        cmd.add("--server.port=" + port);
+        HttpRequest allocate = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/rooms/allocate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"students\":1}"))
+                .build();
+
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(cmd).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+        try {
+            while (true) {
+                if (!process.isAlive()) {
+                    throw new IllegalStateException("process exited with " + process.exitValue() + ": " + command);
+                }
+                try {
+                    HttpResponse<Void> res = client.send(allocate, HttpResponse.BodyHandlers.discarding());
+                    if (res.statusCode() == 200) {
+                        return (System.nanoTime() - start) / 1_000_000;
+                    }
+                } catch (java.io.IOException notUpYet) {
+                    // connection refused while the server is starting
+                }
+                Thread.sleep(5);
+            }
+        } finally {
+            process.destroy();
+            process.waitFor();
+        }
+    }
+
+    private static boolean artifactExists(String command) {
+        for (String part : command.split(" ")) {
+            if (part.startsWith("target/") && !part.contains("=")) {
+                return new File(part).exists();
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,54 @@
+package com.smarthostel;
+
+import com.smarthostel.dto.AddRoomRequest;
+import com.smarthostel.dto.AllocateRequest;
+import com.smarthostel.dto.BookingRequest;
+import com.smarthostel.dto.CapacityPlan;
+import com.smarthostel.dto.CapacityPlanRequest;
+import com.smarthostel.dto.GroupAllocation;
+import com.smarthostel.dto.GroupPreference;
+import com.smarthostel.dto.IntakeShape;
+import com.smarthostel.dto.MatchingRequest;
+import com.smarthostel.dto.MatchingResult;
+import com.smarthostel.dto.ReleaseRequest;
+import com.smarthostel.dto.RoomStats;
+import com.smarthostel.model.AuditEvent;
+import com.smarthostel.model.Booking;
+import com.smarthostel.model.DefragProposal;
+import com.smarthostel.model.Hold;
+import com.smarthostel.model.Job;
+import com.smarthostel.model.Room;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection hints for native images. Most endpoints return
+ * {@code ResponseEntity<?>}, so AOT cannot infer the JSON types from the
+ * controller signatures; register them for Jackson binding here.
+ */
+public class HostelRuntimeHints implements RuntimeHintsRegistrar {
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                Room.class,
+                Booking.class,
+                Hold.class,
+                AuditEvent.class,
+                RoomStats.class,
+                AddRoomRequest.class,
+                AllocateRequest.class,
+                GroupAllocation.class,
+                ReleaseRequest.class,
+                BookingRequest.class,
+                Job.class,
+                DefragProposal.class,
+                DefragProposal.Move.class,
+                MatchingRequest.class,
+                GroupPreference.class,
+                MatchingResult.class,
+                CapacityPlanRequest.class,
+                IntakeShape.class,
+                CapacityPlan.class);
+    }
+}
@@ -2,8 +2,10 @@ package com.smarthostel;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.annotation.ImportRuntimeHints;
 
 @SpringBootApplication
+@ImportRuntimeHints(HostelRuntimeHints.class)
 public class SmartHostelApplication {
     public static void main(String[] args) {
         SpringApplication.run(SmartHostelApplication.class, args);
@@ -0,0 +1,45 @@
+package com.smarthostel.api;
+
+import com.smarthostel.model.AuditEvent;
+import com.smarthostel.service.AuditLog;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/audit")
+@Validated
+public class AuditController {
+    /** Request header naming the warden/operator; recorded as the actor of audited actions. */
+    public static final String ACTOR_HEADER = "X-Actor";
+
+    private final AuditLog auditLog;
+
+    public AuditController(AuditLog auditLog) {
+        this.auditLog = auditLog;
+    }
+
+    /** e.g. GET /api/audit?from=2026-07-01T00:00:00Z&to=2026-07-02T00:00:00Z&roomNo=101 */
+    @GetMapping
+    public ResponseEntity<?> query(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) String roomNo,
+            @RequestParam(defaultValue = "1000") @Min(1) @Max(10000) int limit
+    ) {
+        Instant start = from == null ? Instant.EPOCH : from;
+        Instant end = to == null ? Instant.now() : to;
+        if (!end.isAfter(start)) {
+            return ResponseEntity.badRequest().body(Map.of("message", "to must be after from"));
+        }
+        List<AuditEvent> events = auditLog.query(start, end, roomNo, limit);
+        return ResponseEntity.ok(events);
+    }
+}
@@ -0,0 +1,64 @@
+package com.smarthostel.api;
+
+import com.smarthostel.dto.BookingRequest;
+import com.smarthostel.model.AuditEvent;
+import com.smarthostel.model.Booking;
+import com.smarthostel.service.AuditLog;
+import com.smarthostel.service.BookingService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/bookings")
+public class BookingController {
+    private final BookingService bookingService;
+    private final AuditLog auditLog;
+
+    public BookingController(BookingService bookingService, AuditLog auditLog) {
+        this.bookingService = bookingService;
+        this.auditLog = auditLog;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> book(@Valid @RequestBody BookingRequest req,
+                                  @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        if (!req.getCheckOut().isAfter(req.getCheckIn())) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "checkOut must be after checkIn"));
+        }
+        Optional<Booking> booking = bookingService.book(req.getRoomNo(), req.getStudents(), req.isNeedsAC(),
+                req.isNeedsWashroom(), req.getCheckIn(), req.getCheckOut());
+        auditLog.record(actor, AuditEvent.Action.BOOK, booking.map(Booking::getRoomNo).orElse(req.getRoomNo()),
+                req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom(), booking.isPresent());
+        return booking
+                .<ResponseEntity<?>>map(b -> ResponseEntity.status(HttpStatus.CREATED).body(b))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "No room available for these dates")));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> get(@PathVariable long id) {
+        return bookingService.getBooking(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "Booking not found")));
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable long id,
+                                    @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        Optional<Booking> booking = bookingService.cancel(id);
+        auditLog.record(actor, AuditEvent.Action.UNBOOK, booking.map(Booking::getRoomNo).orElse(null),
+                booking.map(Booking::getStudents).orElse(0), false, false, booking.isPresent());
+        if (booking.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "Booking not found"));
+        }
+        return ResponseEntity.ok(Map.of("message", "Booking cancelled."));
+    }
+}
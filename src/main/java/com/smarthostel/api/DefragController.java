@@ -0,0 +1,58 @@
+package com.smarthostel.api;
+
+import com.smarthostel.model.DefragProposal;
+import com.smarthostel.service.DefragService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/defrag")
+public class DefragController {
+    private final DefragService defragService;
+
+    public DefragController(DefragService defragService) {
+        this.defragService = defragService;
+    }
+
+    @GetMapping("/proposals")
+    public List<DefragProposal> proposals() {
+        return defragService.getProposals();
+    }
+
+    @GetMapping("/history")
+    public List<DefragProposal> history() {
+        return defragService.getHistory();
+    }
+
+    /** Runs one planning slice now instead of waiting for the next interval. */
+    @PostMapping("/run")
+    public List<DefragProposal> run() {
+        return defragService.runOnce();
+    }
+
+    @PostMapping("/proposals/{id}/approve")
+    public ResponseEntity<?> approve(@PathVariable String id,
+                                     @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        return defragService.approve(id, actor)
+                .<ResponseEntity<?>>map(p -> p.getStatus() == DefragProposal.Status.APPLIED
+                        ? ResponseEntity.ok(p)
+                        : ResponseEntity.status(HttpStatus.CONFLICT).body(p))
+                .orElseGet(DefragController::notFound);
+    }
+
+    @DeleteMapping("/proposals/{id}")
+    public ResponseEntity<?> reject(@PathVariable String id) {
+        return defragService.reject(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(DefragController::notFound);
+    }
+
+    private static ResponseEntity<?> notFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", "Proposal not found (or already resolved)."));
+    }
+}
@@ -0,0 +1,73 @@
+package com.smarthostel.api;
+
+import com.smarthostel.dto.AllocateRequest;
+import com.smarthostel.model.AuditEvent;
+import com.smarthostel.model.Hold;
+import com.smarthostel.service.AuditLog;
+import com.smarthostel.service.HoldService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/holds")
+public class HoldController {
+    private final HoldService holdService;
+    private final AuditLog auditLog;
+
+    public HoldController(HoldService holdService, AuditLog auditLog) {
+        this.holdService = holdService;
+        this.auditLog = auditLog;
+    }
+
+    @PostMapping
+    public ResponseEntity<?> hold(@Valid @RequestBody AllocateRequest req,
+                                  @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        Optional<Hold> hold = holdService.hold(req.getBlock(), req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom());
+        auditLog.record(actor, AuditEvent.Action.HOLD, hold.map(Hold::getRoomNo).orElse(null),
+                req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom(), hold.isPresent());
+        return hold
+                .<ResponseEntity<?>>map(h -> ResponseEntity.status(HttpStatus.CREATED).body(h))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "No room available")));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> get(@PathVariable String id) {
+        return holdService.getHold(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(HoldController::notFound);
+    }
+
+    @PostMapping("/{id}/confirm")
+    public ResponseEntity<?> confirm(@PathVariable String id,
+                                     @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        return audited(actor, AuditEvent.Action.CONFIRM, holdService.confirm(id))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(HoldController::notFound);
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancel(@PathVariable String id,
+                                    @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        return audited(actor, AuditEvent.Action.CANCEL, holdService.cancel(id))
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(HoldController::notFound);
+    }
+
+    private Optional<Hold> audited(String actor, AuditEvent.Action action, Optional<Hold> hold) {
+        // Unknown/resolved holds have no room to attribute; failed attempts are still recorded
+        auditLog.record(actor, action, hold.map(Hold::getRoomNo).orElse(null),
+                hold.map(Hold::getStudents).orElse(0), false, false, hold.isPresent());
+        return hold;
+    }
+
+    private static ResponseEntity<?> notFound() {
+        return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                .body(Map.of("message", "Hold not found (or already confirmed, cancelled or expired)."));
+    }
+}
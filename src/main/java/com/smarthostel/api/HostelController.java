@@ -1,35 +1,76 @@
 package com.smarthostel.api;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarthostel.client.RoomCodec;
 import com.smarthostel.dto.AddRoomRequest;
 import com.smarthostel.dto.AllocateRequest;
+import com.smarthostel.dto.GroupAllocation;
+import com.smarthostel.dto.ReleaseRequest;
+import com.smarthostel.dto.RoomStats;
+import com.smarthostel.model.AuditEvent;
 import com.smarthostel.model.Room;
+import com.smarthostel.service.AuditLog;
+import com.smarthostel.service.BookingService;
+import com.smarthostel.service.CatalogueSnapshot;
+import com.smarthostel.service.DefragService;
 import com.smarthostel.service.HostelService;
+import com.smarthostel.service.SearchCoalescer;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.zip.GZIPOutputStream;
 
+/** Servlet stack; ReactiveHostelController (src/main/reactive) serves the same API on WebFlux. */
 @RestController
 @RequestMapping("/api")
 @Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class HostelController {
+    private static final MediaType ROOMS_BINARY = MediaType.parseMediaType(RoomCodec.MEDIA_TYPE);
+
     private final HostelService hostelService;
+    private final SearchCoalescer searchCoalescer;
+    private final BookingService bookingService;
+    private final AuditLog auditLog;
+    private final DefragService defragService;
+    private final ObjectMapper objectMapper;
 
-    public HostelController(HostelService hostelService) {
+    public HostelController(HostelService hostelService, SearchCoalescer searchCoalescer,
+                            BookingService bookingService, AuditLog auditLog, DefragService defragService,
+                            ObjectMapper objectMapper) {
         this.hostelService = hostelService;
+        this.searchCoalescer = searchCoalescer;
+        this.bookingService = bookingService;
+        this.auditLog = auditLog;
+        this.defragService = defragService;
+        this.objectMapper = objectMapper;
     }
 
     @PostMapping("/rooms")
     public ResponseEntity<?> addRoom(@Valid @RequestBody AddRoomRequest req) {
-        boolean ok = hostelService.addRoom(req.getRoomNo(), req.getCapacity(), req.isHasAC(), req.isHasAttachedWashroom());
+        if ((req.getFloor() == null) != (req.getPosition() == null)) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "floor and position must be given together"));
+        }
+        boolean ok = hostelService.addRoom(req.getBlock(), req.getRoomNo(), req.getCapacity(), req.isHasAC(),
+                req.isHasAttachedWashroom(), req.getFloor(), req.getPosition());
         if (!ok) {
             return ResponseEntity.status(HttpStatus.CONFLICT)
-                    .body(Map.of("message", "Room number already exists (or invalid)."));
+                    .body(Map.of("message", "Room number, or floor and position in this block, already taken (or invalid)."));
         }
         return ResponseEntity.status(HttpStatus.CREATED).body(Map.of("message", "Room added."));
     }
@@ -39,21 +80,174 @@ public class HostelController {
         return hostelService.getAllRooms();
     }
 
+    /**
+     * The whole catalogue as NDJSON (one room per line) for bulk consumers.
+     * Streamed with chunked transfer from a snapshot opened when writing
+     * starts, so neither the rooms nor the response are held in memory;
+     * gzip-compressed if the client accepts it.
+     */
+    @GetMapping("/rooms/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestHeader(value = "Accept-Encoding", defaultValue = "") String acceptEncoding) {
+        boolean gzip = acceptsGzip(acceptEncoding);
+        StreamingResponseBody body = out -> {
+            GZIPOutputStream zip = gzip ? new GZIPOutputStream(out, 8192) : null;
+            OutputStream os = zip != null ? zip : out;
+            try (CatalogueSnapshot snapshot = hostelService.openSnapshot()) {
+                while (snapshot.hasNext()) {
+                    os.write(objectMapper.writeValueAsBytes(snapshot.next()));
+                    os.write('\n');
+                }
+            }
+            if (zip != null) {
+                zip.finish();
+            }
+        };
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Vary", "Accept-Encoding");
+        if (gzip) {
+            response.header("Content-Encoding", "gzip");
+        }
+        return response.body(body);
+    }
+
+    /** Autocomplete by room number: up to {@code limit} rooms whose number starts with {@code prefix}. */
+    @GetMapping("/rooms/lookup")
+    public List<Room> lookup(@RequestParam String prefix,
+                             @RequestParam(defaultValue = "10") @Min(1) @Max(HostelService.LOOKUP_LIMIT) int limit) {
+        return hostelService.lookupRooms(prefix, limit);
+    }
+
+    @GetMapping("/rooms/stats")
+    public RoomStats stats(@RequestParam(required = false) String block) {
+        return hostelService.getStats(block);
+    }
+
+    @GetMapping("/blocks")
+    public List<String> blocks() {
+        return hostelService.getBlocks();
+    }
+
+    /**
+     * With {@code from} and {@code to}, only rooms that have minCapacity free
+     * beds on every day of [from, to) are returned. {@code block} limits the
+     * search to one block. Clients that send Accept: {@value RoomCodec#MEDIA_TYPE}
+     * get the rooms in that compact encoding instead of JSON.
+     */
     @GetMapping("/rooms/search")
-    public List<Room> searchRooms(
+    public ResponseEntity<?> searchRooms(
             @RequestParam(defaultValue = "1") @Min(1) int minCapacity,
             @RequestParam(defaultValue = "false") boolean needsAC,
-            @RequestParam(defaultValue = "false") boolean needsWashroom
+            @RequestParam(defaultValue = "false") boolean needsWashroom,
+            @RequestParam(required = false) String block,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = "Accept", defaultValue = "") String accept
     ) {
-        return hostelService.searchRooms(minCapacity, needsAC, needsWashroom);
+        if (from == null && to == null) {
+            List<Room> rooms = searchCoalescer.searchRooms(block, minCapacity, needsAC, needsWashroom);
+            return negotiate(accept, rooms, rooms);
+        }
+        if (from == null || to == null || !to.isAfter(from)) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("message", "from and to are both required and to must be after from"));
+        }
+        List<Room> rooms = bookingService.searchAvailable(block, minCapacity, needsAC, needsWashroom, from, to);
+        return negotiate(accept, rooms, rooms);
+    }
+
+    @GetMapping("/rooms/search/stats")
+    public Map<String, Long> searchStats() {
+        return Map.of(
+                "executions", searchCoalescer.getExecutions(),
+                "coalesced", searchCoalescer.getCoalesced());
     }
 
+    /** Answers with the room, or a one-room list in the binary encoding if Accept asks for it. */
     @PostMapping("/rooms/allocate")
-    public ResponseEntity<?> allocate(@Valid @RequestBody AllocateRequest req) {
-        return hostelService.allocateRoom(req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom())
-                .<ResponseEntity<?>>map(ResponseEntity::ok)
+    public ResponseEntity<?> allocate(@Valid @RequestBody AllocateRequest req,
+                                      @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor,
+                                      @RequestHeader(value = "Accept", defaultValue = "") String accept) {
+        Optional<Room> room = hostelService.allocateRoom(req.getBlock(), req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom());
+        auditLog.record(actor, AuditEvent.Action.ALLOCATE, room.map(Room::getRoomNo).orElse(null),
+                req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom(), room.isPresent());
+        if (room.isEmpty()) {
+            defragService.recordUnmet(req.getBlock(), req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom());
+        }
+        return room
+                .<ResponseEntity<?>>map(r -> negotiate(accept, List.of(r), r))
                 .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
                         .body(Map.of("message", "No room available")));
     }
-}
 
+    /**
+     * Allocates a group across neighbouring rooms on one floor, for groups
+     * larger than any single room. The whole set is occupied at once.
+     */
+    @PostMapping("/rooms/allocate-group")
+    public ResponseEntity<?> allocateGroup(@Valid @RequestBody AllocateRequest req,
+                                           @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        Optional<GroupAllocation> group = hostelService.allocateGroup(req.getBlock(), req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom());
+        if (group.isEmpty()) {
+            auditLog.record(actor, AuditEvent.Action.ALLOCATE, null,
+                    req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom(), false);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(Map.of("message", "No set of neighbouring rooms can take the group"));
+        }
+        for (GroupAllocation.Placement p : group.get().getPlacements()) {
+            auditLog.record(actor, AuditEvent.Action.ALLOCATE, p.getRoom().getRoomNo(),
+                    p.getStudents(), req.isNeedsAC(), req.isNeedsWashroom(), true);
+        }
+        return ResponseEntity.ok(group.get());
+    }
+
+    @PostMapping("/rooms/release")
+    public ResponseEntity<?> release(@Valid @RequestBody ReleaseRequest req,
+                                     @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        Optional<Room> room = hostelService.releaseBeds(req.getRoomNo(), req.getStudents());
+        auditLog.record(actor, AuditEvent.Action.RELEASE, req.getRoomNo(), req.getStudents(),
+                false, false, room.isPresent());
+        return room
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT)
+                        .body(Map.of("message", "Room not found (or fewer beds occupied).")));
+    }
+
+    /**
+     * 200 with {@code rooms} in the binary encoding if the client prefers it,
+     * else with {@code json}. Error bodies elsewhere stay JSON with an explicit
+     * content type, so binary-only clients still get their message instead of a 406.
+     */
+    private static ResponseEntity<?> negotiate(String accept, List<Room> rooms, Object json) {
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok().header("Vary", "Accept");
+        if (RoomCodec.preferredBy(accept)) {
+            return ok.contentType(ROOMS_BINARY).body(RoomCodec.encode(rooms));
+        }
+        return ok.body(json);
+    }
+
+    /** True if the Accept-Encoding header lists gzip (or *) without q=0. */
+    static boolean acceptsGzip(String acceptEncoding) {
+        for (String part : acceptEncoding.split(",")) {
+            String[] params = part.trim().split(";");
+            String coding = params[0].trim();
+            if (!coding.equalsIgnoreCase("gzip") && !coding.equals("*")) {
+                continue;
+            }
+            boolean refused = false;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.matches("[qQ]\\s*=\\s*0(\\.0*)?")) {
+                    refused = true;
+                }
+            }
+            if (!refused) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,45 @@
+package com.smarthostel.api;
+
+import com.smarthostel.dto.GroupPreference;
+import com.smarthostel.dto.MatchingRequest;
+import com.smarthostel.service.MatchingService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/matching")
+public class MatchingController {
+    private final MatchingService matchingService;
+
+    public MatchingController(MatchingService matchingService) {
+        this.matchingService = matchingService;
+    }
+
+    /** Starts a matching job; poll GET /api/matching/{id} for progress and the result. */
+    @PostMapping
+    public ResponseEntity<?> start(@Valid @RequestBody MatchingRequest req,
+                                   @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        Set<String> ids = new HashSet<>();
+        for (GroupPreference g : req.getGroups()) {
+            if (!ids.add(g.getGroupId())) {
+                return ResponseEntity.badRequest()
+                        .body(Map.of("message", "Duplicate groupId: " + g.getGroupId()));
+            }
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(matchingService.submit(req, actor));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> get(@PathVariable String id) {
+        return matchingService.getJob(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "Matching job not found (or expired).")));
+    }
+}
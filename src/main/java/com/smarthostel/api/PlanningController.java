@@ -0,0 +1,38 @@
+package com.smarthostel.api;
+
+import com.smarthostel.dto.CapacityPlanRequest;
+import com.smarthostel.service.CapacityPlanningService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/planning")
+public class PlanningController {
+    private final CapacityPlanningService planningService;
+
+    public PlanningController(CapacityPlanningService planningService) {
+        this.planningService = planningService;
+    }
+
+    /** Starts a capacity simulation job; poll GET /api/planning/{id} for progress and the result. */
+    @PostMapping
+    public ResponseEntity<?> start(@Valid @RequestBody CapacityPlanRequest req) {
+        if ((long) req.getSimulations() * req.getArrivals() > CapacityPlanningService.MAX_WORK) {
+            return ResponseEntity.badRequest()
+                    .body(Map.of("message", "simulations x arrivals must be at most " + CapacityPlanningService.MAX_WORK));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(planningService.submit(req));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<?> get(@PathVariable String id) {
+        return planningService.getJob(id)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "Planning job not found (or expired).")));
+    }
+}
@@ -0,0 +1,117 @@
+package com.smarthostel.client;
+
+import com.smarthostel.model.Room;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Small client for integrations that search and allocate at high volume.
+ * Responses come in the {@link RoomCodec} encoding instead of JSON; works
+ * against the Spring app and SmartHostelServer alike. Thread-safe.
+ */
+public final class HostelClient {
+    private final HttpClient http;
+    private final String baseUrl;
+    private final Duration timeout;
+
+    public HostelClient(String baseUrl) {
+        this(HttpClient.newHttpClient(), baseUrl, Duration.ofSeconds(10));
+    }
+
+    public HostelClient(HttpClient http, String baseUrl, Duration timeout) {
+        this.http = http;
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.timeout = timeout;
+    }
+
+    /** Rooms with a capacity of at least {@code minCapacity}, even if full; {@code block} null means all blocks. */
+    public List<Room> searchRooms(String block, int minCapacity, boolean needsAC, boolean needsWashroom)
+            throws IOException, InterruptedException {
+        StringBuilder uri = new StringBuilder(baseUrl).append("/api/rooms/search?minCapacity=").append(minCapacity)
+                .append("&needsAC=").append(needsAC)
+                .append("&needsWashroom=").append(needsWashroom);
+        if (block != null) {
+            uri.append("&block=").append(URLEncoder.encode(block, StandardCharsets.UTF_8));
+        }
+        HttpResponse<byte[]> res = send(request(uri.toString()).GET());
+        if (res.statusCode() != 200) {
+            throw failure(res);
+        }
+        return decode(res);
+    }
+
+    /** The room the group was placed in, or empty if no room could take it. */
+    public Optional<Room> allocate(String block, int students, boolean needsAC, boolean needsWashroom)
+            throws IOException, InterruptedException {
+        String body = "{\"students\":" + students
+                + ",\"needsAC\":" + needsAC
+                + ",\"needsWashroom\":" + needsWashroom
+                + (block == null ? "" : ",\"block\":\"" + jsonEscape(block) + "\"")
+                + "}";
+        HttpResponse<byte[]> res = send(request(baseUrl + "/api/rooms/allocate")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body)));
+        if (res.statusCode() == 404) {
+            return Optional.empty();
+        }
+        if (res.statusCode() != 200) {
+            throw failure(res);
+        }
+        List<Room> rooms = decode(res);
+        if (rooms.size() != 1) {
+            throw new IOException("Expected one allocated room, got " + rooms.size());
+        }
+        return Optional.of(rooms.get(0));
+    }
+
+    private HttpRequest.Builder request(String uri) {
+        return HttpRequest.newBuilder(URI.create(uri))
+                .timeout(timeout)
+                .header("Accept", RoomCodec.MEDIA_TYPE);
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+    }
+
+    private static List<Room> decode(HttpResponse<byte[]> res) throws IOException {
+        String type = res.headers().firstValue("Content-Type").orElse("");
+        if (!type.startsWith(RoomCodec.MEDIA_TYPE)) {
+            throw new IOException("Server answered " + type + " instead of " + RoomCodec.MEDIA_TYPE);
+        }
+        try {
+            return RoomCodec.decode(res.body());
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Malformed room list: " + e.getMessage(), e);
+        }
+    }
+
+    private static IOException failure(HttpResponse<byte[]> res) {
+        // Errors stay JSON ({"message": ...})
+        return new IOException("HTTP " + res.statusCode() + ": " + new String(res.body(), StandardCharsets.UTF_8));
+    }
+
+    private static String jsonEscape(String s) {
+        StringBuilder sb = new StringBuilder(s.length() + 8);
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
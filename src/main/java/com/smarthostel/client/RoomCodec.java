@@ -0,0 +1,216 @@
+package com.smarthostel.client;
+
+import com.smarthostel.model.Room;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compact binary encoding of room lists for high-volume clients, chosen with
+ * {@code Accept: application/vnd.smarthostel.rooms}. A body is a varint room
+ * count followed by one record per room:
+ *
+ * <pre>
+ *   varint   capacity
+ *   varint   occupied
+ *   byte     flags: 1 = AC, 2 = attached washroom, 4 = block follows, 8 = floor and position follow
+ *   varint   length of the room number, then its UTF-8 bytes
+ *   [varint  length of the block, then its UTF-8 bytes]
+ *   [zigzag  floor, zigzag position]
+ * </pre>
+ *
+ * Varints are unsigned LEB128 (7 bits per byte, low bits first); zigzag
+ * varints also carry negative numbers in few bytes. A typical room is about
+ * a dozen bytes. Fields are written and read one by one, without reflection.
+ * SmartHostelServer writes the same encoding (without blocks or layout).
+ */
+public final class RoomCodec {
+    public static final String MEDIA_TYPE = "application/vnd.smarthostel.rooms";
+
+    private static final int AC = 1;
+    private static final int WASHROOM = 2;
+    private static final int BLOCK = 4;
+    private static final int LAYOUT = 8;
+
+    private RoomCodec() {
+    }
+
+    /**
+     * True if an Accept header asks for this encoding, with a q-value at
+     * least as high as it gives JSON. Wildcards never select it.
+     */
+    public static boolean preferredBy(String accept) {
+        if (accept == null) {
+            return false;
+        }
+        double binary = 0;
+        double json = 0;
+        for (String part : accept.split(",")) {
+            String[] params = part.trim().split(";");
+            String type = params[0].trim().toLowerCase(Locale.ROOT);
+            double q = 1;
+            for (int i = 1; i < params.length; i++) {
+                String param = params[i].trim();
+                if (param.startsWith("q=") || param.startsWith("Q=")) {
+                    try {
+                        q = Double.parseDouble(param.substring(2).trim());
+                    } catch (NumberFormatException e) {
+                        q = 0;
+                    }
+                }
+            }
+            if (type.equals(MEDIA_TYPE)) {
+                binary = Math.max(binary, q);
+            } else if (type.equals("application/json") || type.equals("application/*") || type.equals("*/*")) {
+                json = Math.max(json, q);
+            }
+        }
+        return binary > 0 && binary >= json;
+    }
+
+    public static byte[] encode(List<Room> rooms) {
+        Writer out = new Writer(16 + 16 * rooms.size());
+        out.varint(rooms.size());
+        for (Room r : rooms) {
+            boolean layout = r.getFloor() != null && r.getPosition() != null;
+            int flags = (r.isHasAC() ? AC : 0)
+                    | (r.isHasAttachedWashroom() ? WASHROOM : 0)
+                    | (r.getBlock() != null ? BLOCK : 0)
+                    | (layout ? LAYOUT : 0);
+            out.varint(r.getCapacity());
+            out.varint(r.getOccupied());
+            out.write(flags);
+            out.string(r.getRoomNo());
+            if (r.getBlock() != null) {
+                out.string(r.getBlock());
+            }
+            if (layout) {
+                out.varint(zigzag(r.getFloor()));
+                out.varint(zigzag(r.getPosition()));
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /** @throws IllegalArgumentException if the data is truncated or malformed */
+    public static List<Room> decode(byte[] data) {
+        Reader in = new Reader(data);
+        int count = in.varint();
+        // Every record takes at least four bytes; don't trust a count the data cannot hold
+        if (count < 0 || count > (data.length - in.pos) / 4) {
+            throw new IllegalArgumentException("Bad room count: " + count);
+        }
+        List<Room> rooms = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Room r = new Room();
+            r.setCapacity(in.varint());
+            r.setOccupied(in.varint());
+            int flags = in.read();
+            r.setHasAC((flags & AC) != 0);
+            r.setHasAttachedWashroom((flags & WASHROOM) != 0);
+            r.setRoomNo(in.string());
+            if ((flags & BLOCK) != 0) {
+                r.setBlock(in.string());
+            }
+            if ((flags & LAYOUT) != 0) {
+                r.setFloor(unzigzag(in.varint()));
+                r.setPosition(unzigzag(in.varint()));
+            }
+            rooms.add(r);
+        }
+        if (in.pos != data.length) {
+            throw new IllegalArgumentException("Trailing bytes after " + count + " rooms");
+        }
+        return rooms;
+    }
+
+    private static int zigzag(int n) {
+        return (n << 1) ^ (n >> 31);
+    }
+
+    private static int unzigzag(int n) {
+        return (n >>> 1) ^ -(n & 1);
+    }
+
+    private static final class Writer {
+        private byte[] buf;
+        private int pos;
+
+        Writer(int size) {
+            buf = new byte[size];
+        }
+
+        void write(int b) {
+            ensure(1);
+            buf[pos++] = (byte) b;
+        }
+
+        void varint(int n) {
+            ensure(5);
+            while ((n & ~0x7F) != 0) {
+                buf[pos++] = (byte) ((n & 0x7F) | 0x80);
+                n >>>= 7;
+            }
+            buf[pos++] = (byte) n;
+        }
+
+        void string(String s) {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            varint(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        private void ensure(int n) {
+            if (pos + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(pos + n, buf.length * 2));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int pos;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int read() {
+            if (pos >= data.length) {
+                throw new IllegalArgumentException("Truncated room list");
+            }
+            return data[pos++] & 0xFF;
+        }
+
+        int varint() {
+            int n = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = read();
+                n |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return n;
+                }
+            }
+            throw new IllegalArgumentException("Varint longer than 5 bytes");
+        }
+
+        String string() {
+            int len = varint();
+            if (len < 0 || len > data.length - pos) {
+                throw new IllegalArgumentException("Truncated room list");
+            }
+            String s = new String(data, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            return s;
+        }
+    }
+}
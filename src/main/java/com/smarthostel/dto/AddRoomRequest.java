@@ -1,18 +1,33 @@
 package com.smarthostel.dto;
 
+import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 
 public class AddRoomRequest {
     @NotBlank
     private String roomNo;
 
     @Min(1)
+    @Max(1000)
     private int capacity;
 
     private boolean hasAC;
     private boolean hasAttachedWashroom;
 
+    // Optional; rooms without a block go to the default block
+    @Size(max = 32)
+    private String block;
+
+    // Optional, but both or neither; position is the room's place along the floor's corridor
+    @Min(-100)
+    @Max(1000)
+    private Integer floor;
+    @Min(0)
+    @Max(1_000_000)
+    private Integer position;
+
     public String getRoomNo() {
         return roomNo;
     }
@@ -44,5 +59,28 @@ public class AddRoomRequest {
     public void setHasAttachedWashroom(boolean hasAttachedWashroom) {
         this.hasAttachedWashroom = hasAttachedWashroom;
     }
-}
 
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+
+    public Integer getFloor() {
+        return floor;
+    }
+
+    public void setFloor(Integer floor) {
+        this.floor = floor;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+}
@@ -1,6 +1,7 @@
 package com.smarthostel.dto;
 
 import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Size;
 
 public class AllocateRequest {
     @Min(1)
@@ -9,6 +10,10 @@ public class AllocateRequest {
     private boolean needsAC;
     private boolean needsWashroom;
 
+    // Optional; limits the allocation to one block
+    @Size(max = 32)
+    private String block;
+
     public int getStudents() {
         return students;
     }
@@ -32,5 +37,12 @@ public class AllocateRequest {
     public void setNeedsWashroom(boolean needsWashroom) {
         this.needsWashroom = needsWashroom;
     }
-}
 
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+}
@@ -0,0 +1,71 @@
+package com.smarthostel.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.LocalDate;
+
+public class BookingRequest {
+    @Min(1)
+    private int students;
+
+    private boolean needsAC;
+    private boolean needsWashroom;
+
+    // Optional: book this room instead of the smallest fit
+    private String roomNo;
+
+    @NotNull
+    private LocalDate checkIn;
+
+    @NotNull
+    private LocalDate checkOut;
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public boolean isNeedsAC() {
+        return needsAC;
+    }
+
+    public void setNeedsAC(boolean needsAC) {
+        this.needsAC = needsAC;
+    }
+
+    public boolean isNeedsWashroom() {
+        return needsWashroom;
+    }
+
+    public void setNeedsWashroom(boolean needsWashroom) {
+        this.needsWashroom = needsWashroom;
+    }
+
+    public String getRoomNo() {
+        return roomNo;
+    }
+
+    public void setRoomNo(String roomNo) {
+        this.roomNo = roomNo;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public void setCheckIn(LocalDate checkIn) {
+        this.checkIn = checkIn;
+    }
+
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+
+    public void setCheckOut(LocalDate checkOut) {
+        this.checkOut = checkOut;
+    }
+}
@@ -0,0 +1,154 @@
+package com.smarthostel.dto;
+
+import java.util.List;
+
+/** Unmet demand over many simulated intakes against one snapshot of the catalogue. */
+public class CapacityPlan {
+    private final int simulations;
+    private final int arrivals;
+    private final long seed;
+    private final int rooms;
+    private final long freeBeds;
+    private final Outcome total;
+    private final List<Outcome> byFacilities;
+    private final long elapsedMillis;
+
+    public CapacityPlan(int simulations, int arrivals, long seed, int rooms, long freeBeds,
+                        Outcome total, List<Outcome> byFacilities, long elapsedMillis) {
+        this.simulations = simulations;
+        this.arrivals = arrivals;
+        this.seed = seed;
+        this.rooms = rooms;
+        this.freeBeds = freeBeds;
+        this.total = total;
+        this.byFacilities = byFacilities;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public int getSimulations() {
+        return simulations;
+    }
+
+    public int getArrivals() {
+        return arrivals;
+    }
+
+    /** Pass this seed back to repeat the run. */
+    public long getSeed() {
+        return seed;
+    }
+
+    /** Rooms in the snapshot the simulations started from. */
+    public int getRooms() {
+        return rooms;
+    }
+
+    public long getFreeBeds() {
+        return freeBeds;
+    }
+
+    /** All requests, whatever facilities they needed. */
+    public Outcome getTotal() {
+        return total;
+    }
+
+    /** One entry per facility combination that appears in the mix. */
+    public List<Outcome> getByFacilities() {
+        return byFacilities;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /** Per-intake counts for one kind of request, as distributions over the simulations. */
+    public static class Outcome {
+        private final Boolean needsAC;
+        private final Boolean needsWashroom;
+        private final Distribution requests;
+        private final Distribution unmetRequests;
+        private final Distribution unmetStudents;
+        private final double shortfallProbability;
+
+        public Outcome(Boolean needsAC, Boolean needsWashroom, Distribution requests,
+                       Distribution unmetRequests, Distribution unmetStudents, double shortfallProbability) {
+            this.needsAC = needsAC;
+            this.needsWashroom = needsWashroom;
+            this.requests = requests;
+            this.unmetRequests = unmetRequests;
+            this.unmetStudents = unmetStudents;
+            this.shortfallProbability = shortfallProbability;
+        }
+
+        /** Null for the total. */
+        public Boolean getNeedsAC() {
+            return needsAC;
+        }
+
+        /** Null for the total. */
+        public Boolean getNeedsWashroom() {
+            return needsWashroom;
+        }
+
+        public Distribution getRequests() {
+            return requests;
+        }
+
+        /** Requests that allocateRoom could not place. */
+        public Distribution getUnmetRequests() {
+            return unmetRequests;
+        }
+
+        /** Students in those requests. */
+        public Distribution getUnmetStudents() {
+            return unmetStudents;
+        }
+
+        /** Share of simulated intakes in which at least one request went unmet. */
+        public double getShortfallProbability() {
+            return shortfallProbability;
+        }
+    }
+
+    public static class Distribution {
+        private final double mean;
+        private final int min;
+        private final int p50;
+        private final int p90;
+        private final int p99;
+        private final int max;
+
+        public Distribution(double mean, int min, int p50, int p90, int p99, int max) {
+            this.mean = mean;
+            this.min = min;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p99 = p99;
+            this.max = max;
+        }
+
+        public double getMean() {
+            return mean;
+        }
+
+        public int getMin() {
+            return min;
+        }
+
+        public int getP50() {
+            return p50;
+        }
+
+        public int getP90() {
+            return p90;
+        }
+
+        public int getP99() {
+            return p99;
+        }
+
+        public int getMax() {
+            return max;
+        }
+    }
+}
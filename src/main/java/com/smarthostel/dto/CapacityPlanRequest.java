@@ -0,0 +1,60 @@
+package com.smarthostel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public class CapacityPlanRequest {
+    @NotEmpty
+    @Size(max = 1000)
+    @Valid
+    private List<IntakeShape> mix;
+
+    // Requests per simulated intake, each drawn from the mix
+    @Min(1)
+    @Max(1_000_000)
+    private int arrivals;
+
+    @Min(1)
+    @Max(100_000)
+    private int simulations = 1000;
+
+    // Same seed, catalogue and request give the same plan; random when omitted
+    private Long seed;
+
+    public List<IntakeShape> getMix() {
+        return mix;
+    }
+
+    public void setMix(List<IntakeShape> mix) {
+        this.mix = mix;
+    }
+
+    public int getArrivals() {
+        return arrivals;
+    }
+
+    public void setArrivals(int arrivals) {
+        this.arrivals = arrivals;
+    }
+
+    public int getSimulations() {
+        return simulations;
+    }
+
+    public void setSimulations(int simulations) {
+        this.simulations = simulations;
+    }
+
+    public Long getSeed() {
+        return seed;
+    }
+
+    public void setSeed(Long seed) {
+        this.seed = seed;
+    }
+}
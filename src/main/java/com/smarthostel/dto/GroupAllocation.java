@@ -0,0 +1,63 @@
+package com.smarthostel.dto;
+
+import com.smarthostel.model.Room;
+
+import java.util.List;
+
+/** One group placed across neighbouring rooms on a single floor. */
+public class GroupAllocation {
+    private final String block;
+    private final int floor;
+    private final long span;
+    private final int students;
+    private final List<Placement> placements;
+
+    public GroupAllocation(String block, int floor, long span, int students, List<Placement> placements) {
+        this.block = block;
+        this.floor = floor;
+        this.span = span;
+        this.students = students;
+        this.placements = placements;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public int getFloor() {
+        return floor;
+    }
+
+    /** Distance between the first and last room, in corridor positions. */
+    public long getSpan() {
+        return span;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    /** In corridor order. */
+    public List<Placement> getPlacements() {
+        return placements;
+    }
+
+    public static class Placement {
+        private final Room room;
+        private final int students;
+
+        public Placement(Room room, int students) {
+            this.room = room;
+            this.students = students;
+        }
+
+        /** The room after the group moved in. */
+        public Room getRoom() {
+            return room;
+        }
+
+        public int getStudents() {
+            return students;
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.smarthostel.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/** One student group for cohort matching: hard requirements plus ranked wishes. */
+public class GroupPreference {
+    @NotBlank
+    private String groupId;
+
+    @Min(1)
+    private int students;
+
+    // Hard requirements
+    private boolean needsAC;
+    private boolean needsWashroom;
+
+    // Nice to have
+    private boolean prefersAC;
+    private boolean prefersWashroom;
+
+    // Room numbers, most wanted first
+    @Size(max = 50)
+    private List<String> roomPreferences;
+
+    // Blocks, most wanted first
+    @Size(max = 20)
+    private List<String> blockPreferences;
+
+    // Higher wins contested rooms (e.g. seniority); ties go to the earlier group in the request
+    private int priority;
+
+    public String getGroupId() {
+        return groupId;
+    }
+
+    public void setGroupId(String groupId) {
+        this.groupId = groupId;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public boolean isNeedsAC() {
+        return needsAC;
+    }
+
+    public void setNeedsAC(boolean needsAC) {
+        this.needsAC = needsAC;
+    }
+
+    public boolean isNeedsWashroom() {
+        return needsWashroom;
+    }
+
+    public void setNeedsWashroom(boolean needsWashroom) {
+        this.needsWashroom = needsWashroom;
+    }
+
+    public boolean isPrefersAC() {
+        return prefersAC;
+    }
+
+    public void setPrefersAC(boolean prefersAC) {
+        this.prefersAC = prefersAC;
+    }
+
+    public boolean isPrefersWashroom() {
+        return prefersWashroom;
+    }
+
+    public void setPrefersWashroom(boolean prefersWashroom) {
+        this.prefersWashroom = prefersWashroom;
+    }
+
+    public List<String> getRoomPreferences() {
+        return roomPreferences;
+    }
+
+    public void setRoomPreferences(List<String> roomPreferences) {
+        this.roomPreferences = roomPreferences;
+    }
+
+    public List<String> getBlockPreferences() {
+        return blockPreferences;
+    }
+
+    public void setBlockPreferences(List<String> blockPreferences) {
+        this.blockPreferences = blockPreferences;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public void setPriority(int priority) {
+        this.priority = priority;
+    }
+}
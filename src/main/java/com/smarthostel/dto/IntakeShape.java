@@ -0,0 +1,66 @@
+package com.smarthostel.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/** One kind of allocation request expected in an intake, and how common it is. */
+public class IntakeShape {
+    // No room has more beds (HostelService.MAX_CAPACITY); also keeps a simulation's unmet students
+    // (at most arrivals times students) within an int
+    @Min(1)
+    @Max(1000)
+    private int students;
+
+    private boolean needsAC;
+    private boolean needsWashroom;
+
+    // Optional; the request only considers this block, as in POST /api/rooms/allocate
+    @Size(max = 32)
+    private String block;
+
+    // Relative share of arrivals; weights need not add up to anything
+    @Positive
+    private double weight = 1;
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public boolean isNeedsAC() {
+        return needsAC;
+    }
+
+    public void setNeedsAC(boolean needsAC) {
+        this.needsAC = needsAC;
+    }
+
+    public boolean isNeedsWashroom() {
+        return needsWashroom;
+    }
+
+    public void setNeedsWashroom(boolean needsWashroom) {
+        this.needsWashroom = needsWashroom;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+
+    public double getWeight() {
+        return weight;
+    }
+
+    public void setWeight(double weight) {
+        this.weight = weight;
+    }
+}
@@ -0,0 +1,46 @@
+package com.smarthostel.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class MatchingRequest {
+    @NotEmpty
+    @Valid
+    private List<GroupPreference> groups;
+
+    // Rooms each group ranks, best first; longer lists find more matches but cost memory
+    @Min(1)
+    @Max(1000)
+    private int maxChoices = 100;
+
+    // Occupy the matched beds once the job finishes
+    private boolean apply;
+
+    public List<GroupPreference> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<GroupPreference> groups) {
+        this.groups = groups;
+    }
+
+    public int getMaxChoices() {
+        return maxChoices;
+    }
+
+    public void setMaxChoices(int maxChoices) {
+        this.maxChoices = maxChoices;
+    }
+
+    public boolean isApply() {
+        return apply;
+    }
+
+    public void setApply(boolean apply) {
+        this.apply = apply;
+    }
+}
@@ -0,0 +1,109 @@
+package com.smarthostel.dto;
+
+import java.util.List;
+
+public class MatchingResult {
+    private List<Assignment> assignments;
+    private List<String> unmatched;
+    private int matchedStudents;
+    private int firstChoice;
+    private boolean applied;
+    private List<String> conflicts;
+    private long elapsedMillis;
+
+    public List<Assignment> getAssignments() {
+        return assignments;
+    }
+
+    public void setAssignments(List<Assignment> assignments) {
+        this.assignments = assignments;
+    }
+
+    /** Groups that none of their ranked rooms could take. */
+    public List<String> getUnmatched() {
+        return unmatched;
+    }
+
+    public void setUnmatched(List<String> unmatched) {
+        this.unmatched = unmatched;
+    }
+
+    public int getMatchedStudents() {
+        return matchedStudents;
+    }
+
+    public void setMatchedStudents(int matchedStudents) {
+        this.matchedStudents = matchedStudents;
+    }
+
+    /** Groups placed in the room they ranked highest. */
+    public int getFirstChoice() {
+        return firstChoice;
+    }
+
+    public void setFirstChoice(int firstChoice) {
+        this.firstChoice = firstChoice;
+    }
+
+    public boolean isApplied() {
+        return applied;
+    }
+
+    public void setApplied(boolean applied) {
+        this.applied = applied;
+    }
+
+    /** With apply: groups whose room filled up between matching and applying. */
+    public List<String> getConflicts() {
+        return conflicts;
+    }
+
+    public void setConflicts(List<String> conflicts) {
+        this.conflicts = conflicts;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    public void setElapsedMillis(long elapsedMillis) {
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    public static class Assignment {
+        private final String groupId;
+        private final String roomNo;
+        private final String block;
+        private final int students;
+        private final int rank;
+
+        public Assignment(String groupId, String roomNo, String block, int students, int rank) {
+            this.groupId = groupId;
+            this.roomNo = roomNo;
+            this.block = block;
+            this.students = students;
+            this.rank = rank;
+        }
+
+        public String getGroupId() {
+            return groupId;
+        }
+
+        public String getRoomNo() {
+            return roomNo;
+        }
+
+        public String getBlock() {
+            return block;
+        }
+
+        public int getStudents() {
+            return students;
+        }
+
+        /** Position of the room in the group's preference list, 1 = first choice. */
+        public int getRank() {
+            return rank;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.smarthostel.dto;
+
+import java.util.List;
+import java.util.Map;
+
+public class RoomStats {
+    private int totalRooms;
+    private long totalBeds;
+    private long freeBeds;
+    private int largestAvailable;
+    private List<FacilityStats> byFacilities;
+    private List<CapacityStats> byCapacity;
+    private Map<Integer, Integer> freeBedsHistogram;
+
+    public int getTotalRooms() {
+        return totalRooms;
+    }
+
+    public void setTotalRooms(int totalRooms) {
+        this.totalRooms = totalRooms;
+    }
+
+    public long getTotalBeds() {
+        return totalBeds;
+    }
+
+    public void setTotalBeds(long totalBeds) {
+        this.totalBeds = totalBeds;
+    }
+
+    public long getFreeBeds() {
+        return freeBeds;
+    }
+
+    public void setFreeBeds(long freeBeds) {
+        this.freeBeds = freeBeds;
+    }
+
+    /** Most free beds available in any single room. */
+    public int getLargestAvailable() {
+        return largestAvailable;
+    }
+
+    public void setLargestAvailable(int largestAvailable) {
+        this.largestAvailable = largestAvailable;
+    }
+
+    public List<FacilityStats> getByFacilities() {
+        return byFacilities;
+    }
+
+    public void setByFacilities(List<FacilityStats> byFacilities) {
+        this.byFacilities = byFacilities;
+    }
+
+    public List<CapacityStats> getByCapacity() {
+        return byCapacity;
+    }
+
+    public void setByCapacity(List<CapacityStats> byCapacity) {
+        this.byCapacity = byCapacity;
+    }
+
+    /** Free beds in a room -> number of rooms with exactly that many free beds. */
+    public Map<Integer, Integer> getFreeBedsHistogram() {
+        return freeBedsHistogram;
+    }
+
+    public void setFreeBedsHistogram(Map<Integer, Integer> freeBedsHistogram) {
+        this.freeBedsHistogram = freeBedsHistogram;
+    }
+
+    public static class FacilityStats {
+        private final boolean hasAC;
+        private final boolean hasAttachedWashroom;
+        private final int rooms;
+        private final long freeBeds;
+
+        public FacilityStats(boolean hasAC, boolean hasAttachedWashroom, int rooms, long freeBeds) {
+            this.hasAC = hasAC;
+            this.hasAttachedWashroom = hasAttachedWashroom;
+            this.rooms = rooms;
+            this.freeBeds = freeBeds;
+        }
+
+        public boolean isHasAC() {
+            return hasAC;
+        }
+
+        public boolean isHasAttachedWashroom() {
+            return hasAttachedWashroom;
+        }
+
+        public int getRooms() {
+            return rooms;
+        }
+
+        public long getFreeBeds() {
+            return freeBeds;
+        }
+    }
+
+    public static class CapacityStats {
+        private final int capacity;
+        private final int rooms;
+        private final long freeBeds;
+
+        public CapacityStats(int capacity, int rooms, long freeBeds) {
+            this.capacity = capacity;
+            this.rooms = rooms;
+            this.freeBeds = freeBeds;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public int getRooms() {
+            return rooms;
+        }
+
+        public long getFreeBeds() {
+            return freeBeds;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.smarthostel.model;
+
+import java.time.Instant;
+
+public class AuditEvent {
+    public enum Action { ALLOCATE, RELEASE, HOLD, CONFIRM, CANCEL, EXPIRE, BOOK, UNBOOK }
+
+    private Instant time;
+    private String actor;
+    private Action action;
+    private String roomNo;
+    private int students;
+    private boolean needsAC;
+    private boolean needsWashroom;
+    private boolean success;
+
+    public AuditEvent() {
+        // For Jackson
+    }
+
+    public AuditEvent(Instant time, String actor, Action action, String roomNo, int students,
+                      boolean needsAC, boolean needsWashroom, boolean success) {
+        this.time = time;
+        this.actor = actor;
+        this.action = action;
+        this.roomNo = roomNo;
+        this.students = students;
+        this.needsAC = needsAC;
+        this.needsWashroom = needsWashroom;
+        this.success = success;
+    }
+
+    public Instant getTime() {
+        return time;
+    }
+
+    public void setTime(Instant time) {
+        this.time = time;
+    }
+
+    public String getActor() {
+        return actor;
+    }
+
+    public void setActor(String actor) {
+        this.actor = actor;
+    }
+
+    public Action getAction() {
+        return action;
+    }
+
+    public void setAction(Action action) {
+        this.action = action;
+    }
+
+    public String getRoomNo() {
+        return roomNo;
+    }
+
+    public void setRoomNo(String roomNo) {
+        this.roomNo = roomNo;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public boolean isNeedsAC() {
+        return needsAC;
+    }
+
+    public void setNeedsAC(boolean needsAC) {
+        this.needsAC = needsAC;
+    }
+
+    public boolean isNeedsWashroom() {
+        return needsWashroom;
+    }
+
+    public void setNeedsWashroom(boolean needsWashroom) {
+        this.needsWashroom = needsWashroom;
+    }
+
+    public boolean isSuccess() {
+        return success;
+    }
+
+    public void setSuccess(boolean success) {
+        this.success = success;
+    }
+}
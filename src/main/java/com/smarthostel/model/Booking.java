@@ -0,0 +1,64 @@
+package com.smarthostel.model;
+
+import java.time.LocalDate;
+
+public class Booking {
+    private long id;
+    private String roomNo;
+    private int students;
+    private LocalDate checkIn;
+    private LocalDate checkOut;
+
+    public Booking() {
+        // For Jackson
+    }
+
+    public Booking(long id, String roomNo, int students, LocalDate checkIn, LocalDate checkOut) {
+        this.id = id;
+        this.roomNo = roomNo;
+        this.students = students;
+        this.checkIn = checkIn;
+        this.checkOut = checkOut;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public String getRoomNo() {
+        return roomNo;
+    }
+
+    public void setRoomNo(String roomNo) {
+        this.roomNo = roomNo;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public LocalDate getCheckIn() {
+        return checkIn;
+    }
+
+    public void setCheckIn(LocalDate checkIn) {
+        this.checkIn = checkIn;
+    }
+
+    /** Exclusive: the room is free again on this day. */
+    public LocalDate getCheckOut() {
+        return checkOut;
+    }
+
+    public void setCheckOut(LocalDate checkOut) {
+        this.checkOut = checkOut;
+    }
+}
@@ -0,0 +1,168 @@
+package com.smarthostel.model;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Moves that free one room for a waiting request. Proposals are only
+ * applied once approved.
+ */
+public class DefragProposal {
+    public enum Status {
+        PENDING,
+        APPLIED,
+        REJECTED,
+        STALE
+    }
+
+    private String id;
+    private Instant createdAt;
+    private String block;
+    private String roomNo;
+    private int students;
+    private boolean needsAC;
+    private boolean needsWashroom;
+    private List<Move> moves;
+    private Status status;
+    // Set once APPLIED: the hold keeping the freed beds for the waiting group
+    private String holdId;
+
+    public DefragProposal() {
+        // For Jackson
+    }
+
+    public DefragProposal(String id, Instant createdAt, String block, String roomNo, int students,
+                          boolean needsAC, boolean needsWashroom, List<Move> moves, Status status) {
+        this.id = id;
+        this.createdAt = createdAt;
+        this.block = block;
+        this.roomNo = roomNo;
+        this.students = students;
+        this.needsAC = needsAC;
+        this.needsWashroom = needsWashroom;
+        this.moves = moves;
+        this.status = status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public Instant getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(Instant createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+
+    /** The room that ends up with enough free beds for the waiting request. */
+    public String getRoomNo() {
+        return roomNo;
+    }
+
+    public void setRoomNo(String roomNo) {
+        this.roomNo = roomNo;
+    }
+
+    /** Size of the waiting request this proposal makes room for. */
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public boolean isNeedsAC() {
+        return needsAC;
+    }
+
+    public void setNeedsAC(boolean needsAC) {
+        this.needsAC = needsAC;
+    }
+
+    public boolean isNeedsWashroom() {
+        return needsWashroom;
+    }
+
+    public void setNeedsWashroom(boolean needsWashroom) {
+        this.needsWashroom = needsWashroom;
+    }
+
+    public List<Move> getMoves() {
+        return moves;
+    }
+
+    public void setMoves(List<Move> moves) {
+        this.moves = moves;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    public String getHoldId() {
+        return holdId;
+    }
+
+    public void setHoldId(String holdId) {
+        this.holdId = holdId;
+    }
+
+    public static class Move {
+        private String fromRoom;
+        private String toRoom;
+        private int students;
+
+        public Move() {
+            // For Jackson
+        }
+
+        public Move(String fromRoom, String toRoom, int students) {
+            this.fromRoom = fromRoom;
+            this.toRoom = toRoom;
+            this.students = students;
+        }
+
+        public String getFromRoom() {
+            return fromRoom;
+        }
+
+        public void setFromRoom(String fromRoom) {
+            this.fromRoom = fromRoom;
+        }
+
+        public String getToRoom() {
+            return toRoom;
+        }
+
+        public void setToRoom(String toRoom) {
+            this.toRoom = toRoom;
+        }
+
+        public int getStudents() {
+            return students;
+        }
+
+        public void setStudents(int students) {
+            this.students = students;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.smarthostel.model;
+
+import java.time.Instant;
+
+public class Hold {
+    public enum Status {
+        HELD,
+        CONFIRMED,
+        CANCELLED,
+        EXPIRED
+    }
+
+    private String id;
+    private String roomNo;
+    private int students;
+    private Instant expiresAt;
+    private Status status;
+
+    public Hold() {
+        // For Jackson
+    }
+
+    public Hold(String id, String roomNo, int students, Instant expiresAt, Status status) {
+        this.id = id;
+        this.roomNo = roomNo;
+        this.students = students;
+        this.expiresAt = expiresAt;
+        this.status = status;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getRoomNo() {
+        return roomNo;
+    }
+
+    public void setRoomNo(String roomNo) {
+        this.roomNo = roomNo;
+    }
+
+    public int getStudents() {
+        return students;
+    }
+
+    public void setStudents(int students) {
+        this.students = students;
+    }
+
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+
+    public void setExpiresAt(Instant expiresAt) {
+        this.expiresAt = expiresAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+}
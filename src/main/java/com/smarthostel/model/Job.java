@@ -0,0 +1,105 @@
+package com.smarthostel.model;
+
+import java.time.Instant;
+
+/** Status of a long-running background job (matching, planning, ...). */
+public class Job {
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private String id;
+    private String type;
+    private Status status;
+    private double progress;
+    private String message;
+    private Instant submittedAt;
+    private Instant finishedAt;
+    private Object result;
+
+    public Job() {
+        // For Jackson
+    }
+
+    public Job(String id, String type, Status status, double progress, String message,
+               Instant submittedAt, Instant finishedAt, Object result) {
+        this.id = id;
+        this.type = type;
+        this.status = status;
+        this.progress = progress;
+        this.message = message;
+        this.submittedAt = submittedAt;
+        this.finishedAt = finishedAt;
+        this.result = result;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public void setId(String id) {
+        this.id = id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public void setStatus(Status status) {
+        this.status = status;
+    }
+
+    /** Fraction done, 0.0 to 1.0. */
+    public double getProgress() {
+        return progress;
+    }
+
+    public void setProgress(double progress) {
+        this.progress = progress;
+    }
+
+    /** Current phase while running; the error message if the job failed. */
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public void setSubmittedAt(Instant submittedAt) {
+        this.submittedAt = submittedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    /** Set once the job has succeeded. */
+    public Object getResult() {
+        return result;
+    }
+
+    public void setResult(Object result) {
+        this.result = result;
+    }
+}
@@ -5,6 +5,11 @@ public class Room {
     private int capacity;
     private boolean hasAC;
     private boolean hasAttachedWashroom;
+    private int occupied;
+    private String block;
+    // Optional layout: rooms on the same floor are neighbours in position order
+    private Integer floor;
+    private Integer position;
 
     public Room() {
         // For Jackson
@@ -48,5 +53,40 @@ public class Room {
     public void setHasAttachedWashroom(boolean hasAttachedWashroom) {
         this.hasAttachedWashroom = hasAttachedWashroom;
     }
-}
 
+    public int getOccupied() {
+        return occupied;
+    }
+
+    public void setOccupied(int occupied) {
+        this.occupied = occupied;
+    }
+
+    public String getBlock() {
+        return block;
+    }
+
+    public void setBlock(String block) {
+        this.block = block;
+    }
+
+    public Integer getFloor() {
+        return floor;
+    }
+
+    public void setFloor(Integer floor) {
+        this.floor = floor;
+    }
+
+    public Integer getPosition() {
+        return position;
+    }
+
+    public void setPosition(Integer position) {
+        this.position = position;
+    }
+
+    public int freeBeds() {
+        return capacity - occupied;
+    }
+}
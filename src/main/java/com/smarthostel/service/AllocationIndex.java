@@ -0,0 +1,100 @@
+package com.smarthostel.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Smallest-fit lookup for one {@link RoomStore}: rows with free beds are
+ * bucketed by capacity, facility combination and free-bed count, each bucket
+ * ordered by room number. "Free" is what the owning partition says a new
+ * allocation may take, which excludes beds held for future bookings.
+ * Only non-empty buckets exist. Finding the smallest room that fits visits
+ * at most a handful of buckets per distinct capacity instead of every row.
+ *
+ * Not thread-safe; used under the owning partition's lock.
+ */
+class AllocationIndex {
+    private final RoomStore store;
+    private final Comparator<Integer> byRoomNo;
+    // capacity -> per facility combination, free beds -> rows; only non-empty buckets are kept,
+    // so memory follows the rows indexed rather than the capacity values
+    private final TreeMap<Integer, List<TreeMap<Integer, TreeSet<Integer>>>> byCapacity = new TreeMap<>();
+
+    AllocationIndex(RoomStore store) {
+        this.store = store;
+        this.byRoomNo = (a, b) -> store.roomNo(a).compareTo(store.roomNo(b));
+    }
+
+    /** Indexes a row that was just added to the store. */
+    void added(int row, int free) {
+        bucketAdd(row, free);
+    }
+
+    /** Moves a row whose free beds changed. */
+    void freeChanged(int row, int oldFree, int newFree) {
+        if (oldFree != newFree) {
+            bucketRemove(row, oldFree);
+            bucketAdd(row, newFree);
+        }
+    }
+
+    /**
+     * Row of the smallest room (then lowest room number) with at least
+     * {@code students} free beds and the required facilities, or -1.
+     */
+    int best(int students, boolean requireAC, boolean requireWashroom) {
+        int required = AvailabilityStats.facilities(requireAC, requireWashroom);
+        for (List<TreeMap<Integer, TreeSet<Integer>>> byFacilities : byCapacity.tailMap(students, true).values()) {
+            Integer best = null;
+            for (int f = 0; f < 4; f++) {
+                if ((f & required) != required) {
+                    continue;
+                }
+                for (TreeSet<Integer> bucket : byFacilities.get(f).tailMap(students, true).values()) {
+                    Integer first = bucket.first();
+                    if (best == null || byRoomNo.compare(first, best) < 0) {
+                        best = first;
+                    }
+                }
+            }
+            if (best != null) {
+                return best;
+            }
+        }
+        return -1;
+    }
+
+    private void bucketAdd(int row, int free) {
+        // Full rooms can never be picked, so they are left out entirely
+        if (free <= 0) {
+            return;
+        }
+        List<TreeMap<Integer, TreeSet<Integer>>> byFacilities = byCapacity.computeIfAbsent(store.capacity(row), c -> {
+            List<TreeMap<Integer, TreeSet<Integer>>> maps = new ArrayList<>(4);
+            for (int f = 0; f < 4; f++) {
+                maps.add(new TreeMap<>());
+            }
+            return maps;
+        });
+        byFacilities.get(facilities(row)).computeIfAbsent(free, k -> new TreeSet<>(byRoomNo)).add(row);
+    }
+
+    private void bucketRemove(int row, int free) {
+        if (free <= 0) {
+            return;
+        }
+        TreeMap<Integer, TreeSet<Integer>> byFree = byCapacity.get(store.capacity(row)).get(facilities(row));
+        TreeSet<Integer> bucket = byFree.get(free);
+        bucket.remove(row);
+        if (bucket.isEmpty()) {
+            byFree.remove(free);
+        }
+    }
+
+    private int facilities(int row) {
+        return AvailabilityStats.facilities(store.hasAC(row), store.hasWashroom(row));
+    }
+}
@@ -0,0 +1,330 @@
+package com.smarthostel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarthostel.model.AuditEvent;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+import java.util.zip.DataFormatException;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Audit trail of allocations, releases and holds.
+ *
+ * Request threads only copy the event into {@link AuditRingBuffer}; a single
+ * writer thread drains it in batches into gzip-compressed NDJSON segments
+ * named {@code audit-<start millis>.ndjson.gz}. Each batch ends with a sync
+ * flush, so the open segment can be read back while it is still growing:
+ * segments are read with a raw {@link Inflater} that stops cleanly wherever
+ * the compressed data ends, trailer or not.
+ * A segment is closed once it holds segment-size bytes of NDJSON or is older
+ * than segment-age.
+ */
+@Service
+public class AuditLog {
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+    private static final int BATCH = 1024;
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".ndjson.gz";
+    // Producers read the clock before claiming a slot, so timestamps can be slightly out of order
+    private static final long CLOCK_SLACK_MILLIS = 1000;
+
+    private final AuditRingBuffer ring;
+    private final Path dir;
+    private final long segmentBytes;
+    private final long segmentAgeMillis;
+    private final ObjectMapper objectMapper;
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    // Writer-thread state
+    private final StringBuilder batch = new StringBuilder(BATCH * 160);
+    private OutputStream segment;
+    private long segmentStart;
+    private long segmentWritten;
+    private long batchFirstMillis = -1;
+
+    public AuditLog(ObjectMapper objectMapper,
+                    @Value("${hostel.audit.dir:data/audit}") Path dir,
+                    @Value("${hostel.audit.buffer-size:65536}") int bufferSize,
+                    @Value("${hostel.audit.segment-size:16MB}") DataSize segmentSize,
+                    @Value("${hostel.audit.segment-age:1h}") Duration segmentAge) {
+        this.objectMapper = objectMapper;
+        this.ring = new AuditRingBuffer(bufferSize);
+        this.dir = dir;
+        this.segmentBytes = segmentSize.toBytes();
+        this.segmentAgeMillis = segmentAge.toMillis();
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create audit directory " + dir, e);
+        }
+        this.writer = new Thread(this::writeLoop, "audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /** Records one event. Lock-free and allocation-free; safe to call from any thread. */
+    public void record(String actor, AuditEvent.Action action, String roomNo, int students,
+                       boolean needsAC, boolean needsWashroom, boolean success) {
+        ring.publish(System.currentTimeMillis(), actor, action, roomNo, students, needsAC, needsWashroom, success);
+    }
+
+    /**
+     * Events with {@code from <= time < to}, oldest first, optionally only for
+     * one room. Events still in the ring (not yet flushed) are not included.
+     */
+    public List<AuditEvent> query(Instant from, Instant to, String roomNo, int limit) {
+        long fromMillis = from.toEpochMilli();
+        long toMillis = to.toEpochMilli();
+        String room = roomNo == null ? null : HostelService.normalizeRoomNo(roomNo);
+        List<Path> segments = listSegments();
+        List<AuditEvent> result = new ArrayList<>();
+        for (int i = 0; i < segments.size() && result.size() < limit; i++) {
+            boolean last = i + 1 == segments.size();
+            if (segmentStart(segments.get(i)) - CLOCK_SLACK_MILLIS >= toMillis
+                    || (!last && segmentStart(segments.get(i + 1)) + CLOCK_SLACK_MILLIS <= fromMillis)) {
+                continue;
+            }
+            scanSegment(segments.get(i), fromMillis, toMillis, room, limit, result);
+        }
+        return result;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void scanSegment(Path file, long fromMillis, long toMillis, String room, int limit,
+                             List<AuditEvent> out) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new SegmentInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            String line;
+            while (out.size() < limit && (line = reader.readLine()) != null) {
+                AuditEvent e;
+                try {
+                    e = objectMapper.readValue(line, AuditEvent.class);
+                } catch (IOException partialLine) {
+                    // tail of the segment that is still being written
+                    break;
+                }
+                long t = e.getTime().toEpochMilli();
+                if (t >= fromMillis && t < toMillis
+                        && (room == null || room.equals(HostelService.normalizeRoomNo(e.getRoomNo())))) {
+                    out.add(e);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Cannot read audit segment {}: {}", file.getFileName(), e.toString());
+        }
+    }
+
+    private List<Path> listSegments() {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(p -> p.getFileName().toString().startsWith(PREFIX)
+                            && p.getFileName().toString().endsWith(SUFFIX))
+                    .sorted((a, b) -> Long.compare(segmentStart(a), segmentStart(b)))
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static long segmentStart(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    private void writeLoop() {
+        while (true) {
+            boolean stopping = !running;
+            int n = ring.drain(this::append, BATCH);
+            if (n > 0) {
+                flushBatch();
+            } else if (stopping) {
+                break;
+            } else {
+                if (segment != null && System.currentTimeMillis() - segmentStart >= segmentAgeMillis) {
+                    closeSegment();
+                }
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+            }
+        }
+        closeSegment();
+    }
+
+    private void append(AuditRingBuffer.Slot s) {
+        if (batchFirstMillis < 0) {
+            batchFirstMillis = s.timeMillis;
+        }
+        batch.append("{\"time\":\"").append(Instant.ofEpochMilli(s.timeMillis))
+                .append("\",\"actor\":");
+        appendString(s.actor);
+        batch.append(",\"action\":\"").append(s.action.name()).append("\",\"roomNo\":");
+        appendString(s.roomNo);
+        batch.append(",\"students\":").append(s.students)
+                .append(",\"needsAC\":").append(s.needsAC)
+                .append(",\"needsWashroom\":").append(s.needsWashroom)
+                .append(",\"success\":").append(s.success)
+                .append("}\n");
+    }
+
+    private void appendString(String value) {
+        if (value == null) {
+            batch.append("null");
+            return;
+        }
+        batch.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                batch.append('\\').append(c);
+            } else if (c < 0x20) {
+                batch.append(String.format("\\u%04x", (int) c));
+            } else {
+                batch.append(c);
+            }
+        }
+        batch.append('"');
+    }
+
+    private void flushBatch() {
+        byte[] bytes = batch.toString().getBytes(StandardCharsets.UTF_8);
+        batch.setLength(0);
+        long firstMillis = batchFirstMillis;
+        batchFirstMillis = -1;
+        try {
+            if (segment == null) {
+                // Named after its first event; kept unique if a segment filled up within one millisecond
+                segmentStart = Math.max(firstMillis, segmentStart + 1);
+                segmentWritten = 0;
+                segment = new GZIPOutputStream(
+                        Files.newOutputStream(dir.resolve(PREFIX + segmentStart + SUFFIX)), 64 * 1024, true);
+            }
+            segment.write(bytes);
+            segment.flush();
+            segmentWritten += bytes.length;
+            if (segmentWritten >= segmentBytes || System.currentTimeMillis() - segmentStart >= segmentAgeMillis) {
+                closeSegment();
+            }
+        } catch (IOException e) {
+            // Keep draining so producers never block on a broken disk; the batch is lost
+            log.error("Audit write failed, batch dropped: {}", e.toString());
+            closeSegment();
+        }
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+        } catch (IOException e) {
+            log.warn("Audit segment close failed: {}", e.toString());
+        }
+        segment = null;
+    }
+
+    /**
+     * Decompressed contents of a segment written by this class. Unlike
+     * GZIPInputStream, which fails at the end of a segment that has no
+     * trailer yet (dropping lines it had already inflated), this ends the
+     * stream quietly after the last complete flush. A batch being written
+     * at the same time may show up as a torn last line.
+     */
+    private static final class SegmentInputStream extends InputStream {
+        private final InputStream in;
+        private final Inflater inflater = new Inflater(true);
+        private final byte[] input = new byte[8192];
+        private final byte[] one = new byte[1];
+        private boolean headerRead;
+
+        SegmentInputStream(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return read(one, 0, 1) < 0 ? -1 : one[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (!headerRead) {
+                if (!readHeader()) {
+                    return -1;
+                }
+                headerRead = true;
+            }
+            if (len == 0) {
+                return 0;
+            }
+            try {
+                while (true) {
+                    int n = inflater.inflate(b, off, len);
+                    if (n > 0) {
+                        return n;
+                    }
+                    if (inflater.finished() || inflater.needsDictionary()) {
+                        return -1; // the trailer is not needed: every line is already checked as JSON
+                    }
+                    if (inflater.needsInput()) {
+                        int read = in.read(input);
+                        if (read < 0) {
+                            return -1; // open segment: nothing was flushed past this point yet
+                        }
+                        inflater.setInput(input, 0, read);
+                    }
+                }
+            } catch (DataFormatException e) {
+                throw new IOException("Corrupt audit segment", e);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            inflater.end();
+            in.close();
+        }
+
+        /**
+         * GZIPOutputStream always writes the fixed ten-byte header with no
+         * optional fields. False if the segment was only just created.
+         */
+        private boolean readHeader() throws IOException {
+            byte[] header = in.readNBytes(10);
+            if (header.length < 10) {
+                return false;
+            }
+            if ((header[0] & 0xFF) != 0x1F || (header[1] & 0xFF) != 0x8B || header[2] != 8 || header[3] != 0) {
+                throw new IOException("Not an audit segment");
+            }
+            return true;
+        }
+    }
+}
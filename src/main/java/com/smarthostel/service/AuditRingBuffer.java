@@ -0,0 +1,100 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.AuditEvent;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Multi-producer, single-consumer ring of preallocated audit slots.
+ *
+ * A producer claims a sequence number with one atomic increment, fills the
+ * slot's fields in place and marks it published, so publishing never
+ * allocates or takes a lock. The consumer walks the sequence in order and
+ * stops at the first slot that is not yet published. Producers only wait
+ * when the consumer has fallen a whole ring behind.
+ */
+final class AuditRingBuffer {
+    static final class Slot {
+        long timeMillis;
+        String actor;
+        AuditEvent.Action action;
+        String roomNo;
+        int students;
+        boolean needsAC;
+        boolean needsWashroom;
+        boolean success;
+    }
+
+    /** Receives published slots in sequence order; the slot is reused once this returns. */
+    interface SlotHandler {
+        void onSlot(Slot slot);
+    }
+
+    private final Slot[] slots;
+    private final int mask;
+    // published.get(i) == sequence once the producer holding that sequence is done writing slot i
+    private final AtomicLongArray published;
+    private final AtomicLong claimed = new AtomicLong();
+    private volatile long consumed;
+
+    AuditRingBuffer(int capacity) {
+        if (capacity < 2 || Integer.bitCount(capacity) != 1) {
+            throw new IllegalArgumentException("capacity must be a power of two: " + capacity);
+        }
+        slots = new Slot[capacity];
+        published = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new Slot();
+            published.set(i, -1);
+        }
+        mask = capacity - 1;
+    }
+
+    void publish(long timeMillis, String actor, AuditEvent.Action action, String roomNo, int students,
+                 boolean needsAC, boolean needsWashroom, boolean success) {
+        long seq = claimed.getAndIncrement();
+        while (seq - consumed >= slots.length) {
+            // Consumer is a full ring behind (disk stalled): back-pressure rather than drop
+            Thread.onSpinWait();
+            Thread.yield();
+        }
+        int idx = (int) seq & mask;
+        Slot s = slots[idx];
+        s.timeMillis = timeMillis;
+        s.actor = actor;
+        s.action = action;
+        s.roomNo = roomNo;
+        s.students = students;
+        s.needsAC = needsAC;
+        s.needsWashroom = needsWashroom;
+        s.success = success;
+        published.lazySet(idx, seq);
+    }
+
+    /**
+     * Hands up to {@code max} consecutive published slots to the handler and
+     * frees them for reuse. Only the single consumer thread may call this.
+     *
+     * @return number of slots drained
+     */
+    int drain(SlotHandler handler, int max) {
+        long next = consumed;
+        int n = 0;
+        while (n < max && published.get((int) (next + n) & mask) == next + n) {
+            Slot s = slots[(int) (next + n) & mask];
+            handler.onSlot(s);
+            s.actor = null;
+            s.roomNo = null;
+            n++;
+        }
+        if (n > 0) {
+            consumed = next + n;
+        }
+        return n;
+    }
+
+    long pending() {
+        return claimed.get() - consumed;
+    }
+}
@@ -0,0 +1,104 @@
+package com.smarthostel.service;
+
+import com.smarthostel.dto.RoomStats;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Availability aggregates kept up to date on every add/allocate/release, so
+ * reading them never scans the catalogue. Not thread-safe: callers update and
+ * read it under the same lock that guards the rooms (one instance per block).
+ */
+class AvailabilityStats {
+    private final int[] roomsByFacilities = new int[4];
+    private final long[] freeBedsByFacilities = new long[4];
+    // capacity -> {rooms, freeBeds}
+    private final TreeMap<Integer, long[]> byCapacity = new TreeMap<>();
+    // free beds in a room -> rooms with exactly that many free beds
+    private final TreeMap<Integer, Integer> freeBedsHistogram = new TreeMap<>();
+    private int totalRooms;
+    private long totalBeds;
+    private long freeBeds;
+
+    void roomAdded(int capacity, int occupied, boolean ac, boolean washroom) {
+        int free = capacity - occupied;
+        int f = facilities(ac, washroom);
+        roomsByFacilities[f]++;
+        freeBedsByFacilities[f] += free;
+        long[] c = byCapacity.computeIfAbsent(capacity, k -> new long[2]);
+        c[0]++;
+        c[1] += free;
+        histogramAdd(free, 1);
+        totalRooms++;
+        totalBeds += capacity;
+        freeBeds += free;
+    }
+
+    void occupancyChanged(int capacity, boolean ac, boolean washroom, int oldOccupied, int newOccupied) {
+        int delta = oldOccupied - newOccupied;
+        if (delta == 0) {
+            return;
+        }
+        freeBedsByFacilities[facilities(ac, washroom)] += delta;
+        byCapacity.get(capacity)[1] += delta;
+        histogramAdd(capacity - oldOccupied, -1);
+        histogramAdd(capacity - newOccupied, 1);
+        freeBeds += delta;
+    }
+
+    /** Adds these aggregates into {@code total} (used to combine per-block stats). */
+    void addTo(AvailabilityStats total) {
+        for (int f = 0; f < 4; f++) {
+            total.roomsByFacilities[f] += roomsByFacilities[f];
+            total.freeBedsByFacilities[f] += freeBedsByFacilities[f];
+        }
+        byCapacity.forEach((capacity, c) -> {
+            long[] t = total.byCapacity.computeIfAbsent(capacity, k -> new long[2]);
+            t[0] += c[0];
+            t[1] += c[1];
+        });
+        freeBedsHistogram.forEach((free, rooms) -> total.freeBedsHistogram.merge(free, rooms, Integer::sum));
+        total.totalRooms += totalRooms;
+        total.totalBeds += totalBeds;
+        total.freeBeds += freeBeds;
+    }
+
+    RoomStats snapshot() {
+        RoomStats s = new RoomStats();
+        s.setTotalRooms(totalRooms);
+        s.setTotalBeds(totalBeds);
+        s.setFreeBeds(freeBeds);
+        s.setLargestAvailable(freeBedsHistogram.isEmpty() ? 0 : freeBedsHistogram.lastKey());
+
+        List<RoomStats.FacilityStats> facilities = new ArrayList<>(4);
+        for (int f = 0; f < 4; f++) {
+            facilities.add(new RoomStats.FacilityStats((f & 2) != 0, (f & 1) != 0,
+                    roomsByFacilities[f], freeBedsByFacilities[f]));
+        }
+        s.setByFacilities(facilities);
+
+        List<RoomStats.CapacityStats> capacities = new ArrayList<>(byCapacity.size());
+        for (Map.Entry<Integer, long[]> e : byCapacity.entrySet()) {
+            capacities.add(new RoomStats.CapacityStats(e.getKey(), (int) e.getValue()[0], e.getValue()[1]));
+        }
+        s.setByCapacity(capacities);
+        s.setFreeBedsHistogram(new LinkedHashMap<>(freeBedsHistogram));
+        return s;
+    }
+
+    private void histogramAdd(int free, int delta) {
+        // fully occupied rooms are not "available", keep them out of the histogram
+        if (free <= 0) {
+            return;
+        }
+        freeBedsHistogram.merge(free, delta, (a, b) -> a + b == 0 ? null : a + b);
+    }
+
+    static int facilities(boolean ac, boolean washroom) {
+        return (ac ? 2 : 0) | (washroom ? 1 : 0);
+    }
+}
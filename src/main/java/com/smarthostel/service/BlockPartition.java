@@ -0,0 +1,350 @@
+package com.smarthostel.service;
+
+import com.smarthostel.dto.GroupAllocation;
+import com.smarthostel.model.DefragProposal;
+import com.smarthostel.model.Room;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * One block (building) of the hostel: its own store, availability stats,
+ * allocation index, bookings and lock. Operations on different blocks never
+ * contend.
+ *
+ * Occupied beds have no end date, so they count against every booking.
+ * Booked beds are held back from anything that occupies beds: a room only
+ * takes more students if the beds stay free on every booked day from today
+ * on. Both checks run under this partition's lock.
+ */
+final class BlockPartition {
+    /** The partition's current smallest fit, as seen at peek time. */
+    record Candidate(int capacity, String roomNo) {
+        boolean betterThan(Candidate other) {
+            return other == null || capacity < other.capacity
+                    || (capacity == other.capacity && roomNo.compareTo(other.roomNo) < 0);
+        }
+    }
+
+    /** Read position of an open {@link CatalogueSnapshot} in this block. */
+    static final class SnapshotCursor {
+        // rows added after the snapshot opened are not part of it
+        final int end;
+        int position;
+        // row -> occupancy when the snapshot opened, for unread rows changed since
+        final Map<Integer, Integer> before = new HashMap<>();
+
+        SnapshotCursor(int end) {
+            this.end = end;
+        }
+    }
+
+    private final String name;
+    private final RoomStore store;
+    private final AvailabilityStats stats = new AvailabilityStats();
+    private final AllocationIndex index;
+    private final FloorIndex floors;
+    // row -> booked beds over time; only rows that were ever booked
+    private final Map<Integer, BookingTimeline> bookings = new HashMap<>();
+    // row -> most beds booked on any day from reservedAsOf on
+    private int[] reserved = new int[0];
+    private long reservedAsOf = LocalDate.now().toEpochDay();
+    // Only written under the lock; HostelService sums these into the catalogue version
+    private volatile long version;
+    // Guarded by this
+    private final List<SnapshotCursor> cursors = new ArrayList<>();
+
+    BlockPartition(String name, RoomStore store) {
+        this.name = name;
+        this.store = store;
+        this.index = new AllocationIndex(store);
+        this.floors = new FloorIndex(store);
+    }
+
+    /**
+     * A partition over a store that already holds rooms, such as a simulation
+     * copy of the catalogue. The rooms get no floor layout and no bookings.
+     */
+    static BlockPartition over(String name, RoomStore store) {
+        BlockPartition p = new BlockPartition(name, store);
+        for (int row = 0; row < store.size(); row++) {
+            p.index.added(row, p.free(row));
+            p.stats.roomAdded(store.capacity(row), store.occupied(row), store.hasAC(row), store.hasWashroom(row));
+        }
+        return p;
+    }
+
+    String name() {
+        return name;
+    }
+
+    long version() {
+        return version;
+    }
+
+    /**
+     * Caller has already claimed the room number across all blocks. False,
+     * and nothing added, if another room already has this floor and position.
+     */
+    synchronized boolean add(String roomNo, int capacity, boolean ac, boolean washroom, Integer floor, Integer position) {
+        if (floor != null && position != null && floors.isTaken(floor, position)) {
+            return false;
+        }
+        int row = store.add(roomNo, capacity, ac, washroom);
+        index.added(row, free(row));
+        if (floor != null && position != null) {
+            floors.added(row, floor, position);
+        }
+        stats.roomAdded(capacity, 0, ac, washroom);
+        version++;
+        return true;
+    }
+
+    synchronized Optional<Room> find(String normalizedRoomNo) {
+        int row = store.find(normalizedRoomNo);
+        return row < 0 ? Optional.empty() : Optional.of(materialize(row));
+    }
+
+    synchronized void collectAll(List<Room> out) {
+        for (int row = 0; row < store.size(); row++) {
+            out.add(materialize(row));
+        }
+    }
+
+    /** Appends up to {@code limit} rooms starting at row {@code offset}; rows are never reordered. */
+    synchronized void collect(int offset, int limit, List<Room> out) {
+        int end = (int) Math.min(store.size(), (long) offset + limit);
+        for (int row = offset; row < end; row++) {
+            out.add(materialize(row));
+        }
+    }
+
+    synchronized SnapshotCursor openCursor() {
+        SnapshotCursor c = new SnapshotCursor(store.size());
+        cursors.add(c);
+        return c;
+    }
+
+    /** Appends the cursor's next rooms as of when it opened; false once it has read them all. */
+    synchronized boolean readPage(SnapshotCursor c, int max, Collection<Room> out) {
+        int end = Math.min(c.end, c.position + max);
+        if (c.position >= end) {
+            return false;
+        }
+        for (; c.position < end; c.position++) {
+            Room room = materialize(c.position);
+            Integer before = c.before.remove(c.position);
+            if (before != null) {
+                room.setOccupied(before);
+            }
+            out.add(room);
+        }
+        return true;
+    }
+
+    synchronized void closeCursor(SnapshotCursor c) {
+        cursors.remove(c);
+    }
+
+    synchronized void search(int minCapacity, boolean requireAC, boolean requireWashroom, List<Room> out) {
+        for (int row : store.scan(minCapacity, 0, requireAC, requireWashroom)) {
+            out.add(materialize(row));
+        }
+    }
+
+    synchronized Candidate peekBest(int students, boolean needsAC, boolean needsWashroom) {
+        rollDay();
+        int row = index.best(students, needsAC, needsWashroom);
+        return row < 0 ? null : new Candidate(store.capacity(row), store.roomNo(row));
+    }
+
+    synchronized Optional<Room> allocateBest(int students, boolean needsAC, boolean needsWashroom) {
+        rollDay();
+        int row = index.best(students, needsAC, needsWashroom);
+        if (row < 0) {
+            return Optional.empty();
+        }
+        setOccupied(row, store.occupied(row) + students);
+        return Optional.of(materialize(row));
+    }
+
+    synchronized FloorIndex.Plan peekGroup(int students, boolean needsAC, boolean needsWashroom) {
+        rollDay();
+        return floors.plan(students, needsAC, needsWashroom, this::free);
+    }
+
+    /** Places the group in this block's best run of neighbouring rooms, all or nothing. */
+    synchronized Optional<GroupAllocation> allocateGroup(int students, boolean needsAC, boolean needsWashroom) {
+        rollDay();
+        FloorIndex.Plan plan = floors.plan(students, needsAC, needsWashroom, this::free);
+        if (plan == null) {
+            return Optional.empty();
+        }
+        List<GroupAllocation.Placement> placements = new ArrayList<>(plan.rows().length);
+        for (int i = 0; i < plan.rows().length; i++) {
+            int row = plan.rows()[i];
+            setOccupied(row, store.occupied(row) + plan.students()[i]);
+            placements.add(new GroupAllocation.Placement(materialize(row), plan.students()[i]));
+        }
+        return Optional.of(new GroupAllocation(name, plan.floor(), plan.span(), students, placements));
+    }
+
+    synchronized Optional<Room> occupy(String normalizedRoomNo, int students) {
+        rollDay();
+        int row = store.find(normalizedRoomNo);
+        if (row < 0 || students < 1 || students > free(row)) {
+            return Optional.empty();
+        }
+        setOccupied(row, store.occupied(row) + students);
+        return Optional.of(materialize(row));
+    }
+
+    synchronized Optional<Room> release(String normalizedRoomNo, int students) {
+        int row = store.find(normalizedRoomNo);
+        if (row < 0 || students < 1 || students > store.occupied(row)) {
+            return Optional.empty();
+        }
+        setOccupied(row, store.occupied(row) - students);
+        return Optional.of(materialize(row));
+    }
+
+    /**
+     * Performs the moves in order and then occupies {@code students} beds in
+     * the room they freed, all in one step under the lock. Empty, with
+     * nothing changed, if any move or the final occupation no longer fits.
+     */
+    synchronized Optional<Room> applyMoves(List<DefragProposal.Move> moves, String normalizedRoomNo, int students) {
+        rollDay();
+        int target = store.find(normalizedRoomNo);
+        if (target < 0 || students < 1) {
+            return Optional.empty();
+        }
+        Map<Integer, Integer> delta = new HashMap<>();
+        for (DefragProposal.Move m : moves) {
+            int from = store.find(HostelService.normalizeRoomNo(m.getFromRoom()));
+            int to = store.find(HostelService.normalizeRoomNo(m.getToRoom()));
+            int n = m.getStudents();
+            if (from < 0 || to < 0 || from == to || n < 1
+                    || store.occupied(from) + delta.getOrDefault(from, 0) < n
+                    || free(to) - delta.getOrDefault(to, 0) < n) {
+                return Optional.empty();
+            }
+            delta.merge(from, -n, Integer::sum);
+            delta.merge(to, n, Integer::sum);
+        }
+        if (free(target) - delta.getOrDefault(target, 0) < students) {
+            return Optional.empty();
+        }
+        delta.merge(target, students, Integer::sum);
+        delta.forEach((row, d) -> {
+            if (d != 0) {
+                setOccupied(row, store.occupied(row) + d);
+            }
+        });
+        return Optional.of(materialize(target));
+    }
+
+    /** Rooms with at least {@code students} beds neither occupied nor booked on any day of [fromDay, toDay). */
+    synchronized void searchAvailable(int students, boolean requireAC, boolean requireWashroom,
+                                      long fromDay, long toDay, List<Room> out) {
+        for (int row : store.scan(students, students, requireAC, requireWashroom)) {
+            if (freeBetween(row, fromDay, toDay) >= students) {
+                out.add(materialize(row));
+            }
+        }
+    }
+
+    /** Books beds in the room for [fromDay, toDay) if they are free on every one of those days. */
+    synchronized boolean book(String normalizedRoomNo, int students, long fromDay, long toDay) {
+        int row = store.find(normalizedRoomNo);
+        if (row < 0 || students < 1 || fromDay >= toDay || freeBetween(row, fromDay, toDay) < students) {
+            return false;
+        }
+        bookings.computeIfAbsent(row, r -> new BookingTimeline()).add(fromDay, toDay, students);
+        bookingsChanged(row);
+        return true;
+    }
+
+    /** Undoes {@link #book}; the caller only passes bookings that were made. */
+    synchronized void unbook(String normalizedRoomNo, int students, long fromDay, long toDay) {
+        int row = store.find(normalizedRoomNo);
+        BookingTimeline timeline = row < 0 ? null : bookings.get(row);
+        if (timeline != null) {
+            timeline.add(fromDay, toDay, -students);
+            bookingsChanged(row);
+        }
+    }
+
+    /** Releases the store; the partition must not be used afterwards. */
+    synchronized void close() {
+        store.close();
+    }
+
+    /** Sets a row's occupancy directly, e.g. to put a simulation copy back to its snapshot. */
+    synchronized void restore(int row, int occupied) {
+        setOccupied(row, occupied);
+    }
+
+    synchronized void addStatsTo(AvailabilityStats total) {
+        stats.addTo(total);
+    }
+
+    /** Beds a new open-ended occupant may take: not occupied and not booked on any day from today on. */
+    private int free(int row) {
+        return store.capacity(row) - store.occupied(row) - (row < reserved.length ? reserved[row] : 0);
+    }
+
+    private int freeBetween(int row, long fromDay, long toDay) {
+        BookingTimeline timeline = bookings.get(row);
+        return store.capacity(row) - store.occupied(row) - (timeline == null ? 0 : timeline.maxBooked(fromDay, toDay));
+    }
+
+    private void bookingsChanged(int row) {
+        if (row >= reserved.length) {
+            reserved = Arrays.copyOf(reserved, Math.max(row + 1, reserved.length * 2));
+        }
+        int old = free(row);
+        reserved[row] = bookings.get(row).maxBooked(reservedAsOf, Long.MAX_VALUE);
+        index.freeChanged(row, old, free(row));
+        version++;
+    }
+
+    /** Once a day, stops holding back beds for days that have passed. */
+    private void rollDay() {
+        long today = LocalDate.now().toEpochDay();
+        if (today != reservedAsOf) {
+            reservedAsOf = today;
+            bookings.keySet().forEach(this::bookingsChanged);
+        }
+    }
+
+    private void setOccupied(int row, int occupied) {
+        int old = store.occupied(row);
+        int oldFree = free(row);
+        for (SnapshotCursor c : cursors) {
+            if (row >= c.position && row < c.end) {
+                c.before.putIfAbsent(row, old);
+            }
+        }
+        stats.occupancyChanged(store.capacity(row), store.hasAC(row), store.hasWashroom(row), old, occupied);
+        store.setOccupied(row, occupied);
+        index.freeChanged(row, oldFree, free(row));
+        version++;
+    }
+
+    private Room materialize(int row) {
+        Room room = store.materialize(row);
+        room.setBlock(name);
+        if (floors.isPlaced(row)) {
+            room.setFloor(floors.floor(row));
+            room.setPosition(floors.position(row));
+        }
+        return room;
+    }
+}
@@ -0,0 +1,82 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Booking;
+import com.smarthostel.model.Room;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Date-ranged bookings on top of the room catalogue. Booked beds are kept
+ * per room in the room's block (see {@link HostelService#bookBeds}), where
+ * an availability check for [from, to) costs O(log n) in the room's bookings.
+ *
+ * Beds occupied through {@link HostelService#allocateRoom} have no end date
+ * and count against every range; in turn, booked beds are never handed out
+ * by allocations, holds, matching or defragmentation.
+ */
+@Service
+public class BookingService {
+    private final HostelService hostelService;
+    private final Map<Long, Booking> bookings = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong(1);
+
+    public BookingService(HostelService hostelService) {
+        this.hostelService = hostelService;
+    }
+
+    /**
+     * Rooms with at least {@code students} free beds on every day of
+     * [from, to), in {@code block} or in any block when it is null.
+     */
+    public List<Room> searchAvailable(String block, int students, boolean requireAC, boolean requireWashroom,
+                                      LocalDate from, LocalDate to) {
+        return hostelService.searchAvailable(block, students, requireAC, requireWashroom, from, to);
+    }
+
+    /**
+     * Books the given room, or the smallest room that fits when roomNo is
+     * blank. Empty if nothing has enough free beds for the whole stay.
+     */
+    public Optional<Booking> book(String roomNo, int students, boolean needsAC, boolean needsWashroom,
+                                  LocalDate checkIn, LocalDate checkOut) {
+        List<Room> candidates = HostelService.normalizeRoomNo(roomNo).isEmpty()
+                ? hostelService.searchRooms(students, needsAC, needsWashroom)
+                : hostelService.findRoom(roomNo)
+                        .filter(r -> r.getCapacity() >= students)
+                        .filter(r -> !needsAC || r.isHasAC())
+                        .filter(r -> !needsWashroom || r.isHasAttachedWashroom())
+                        .stream().collect(Collectors.toList());
+        for (Room room : candidates) {
+            // The candidate list may be stale; the block re-checks free beds under its lock
+            if (!hostelService.bookBeds(room.getRoomNo(), students, checkIn, checkOut)) {
+                continue;
+            }
+            Booking booking = new Booking(nextId.getAndIncrement(), room.getRoomNo(), students, checkIn, checkOut);
+            bookings.put(booking.getId(), booking);
+            return Optional.of(booking);
+        }
+        return Optional.empty();
+    }
+
+    public Optional<Booking> getBooking(long id) {
+        return Optional.ofNullable(bookings.get(id));
+    }
+
+    /** The cancelled booking, or empty if there was none with this id. */
+    public Optional<Booking> cancel(long id) {
+        Booking booking = bookings.remove(id);
+        if (booking == null) {
+            return Optional.empty();
+        }
+        hostelService.cancelBooking(booking.getRoomNo(), booking.getStudents(),
+                booking.getCheckIn(), booking.getCheckOut());
+        return Optional.of(booking);
+    }
+}
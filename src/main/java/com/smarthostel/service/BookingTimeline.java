@@ -0,0 +1,221 @@
+package com.smarthostel.service;
+
+/**
+ * Booked beds of one room over time, as a step function: each breakpoint day
+ * carries the number of booked beds from that day until the next breakpoint.
+ *
+ * Breakpoints live in a treap augmented with the subtree maximum and a lazy
+ * "add" tag, so both booking a range and asking for the peak of a range cost
+ * O(log n) in the number of breakpoints, independent of how many bookings
+ * overlap the range. Days are epoch days; ranges are half-open [from, to).
+ */
+public class BookingTimeline {
+    private static final class Node {
+        final long day;
+        final int priority;
+        int value;
+        int max;
+        int lazy;
+        Node left;
+        Node right;
+
+        Node(long day, int value) {
+            this.day = day;
+            this.value = value;
+            this.max = value;
+            // deterministic priorities keep the shape stable across split/merge
+            long z = day * 0x9E3779B97F4A7C15L;
+            z = (z ^ (z >>> 31)) * 0xBF58476D1CE4E5B9L;
+            this.priority = (int) (z ^ (z >>> 29));
+        }
+    }
+
+    private Node root;
+    private int breakpoints;
+
+    /** Adds {@code beds} (may be negative) to every day in [from, to). */
+    public synchronized void add(long from, long to, int beds) {
+        if (from >= to || beds == 0) {
+            return;
+        }
+        ensureBreakpoint(from);
+        ensureBreakpoint(to);
+        Node[] lr = split(root, from);
+        Node[] mr = split(lr[1], to);
+        apply(mr[0], beds);
+        root = merge(lr[0], merge(mr[0], mr[1]));
+    }
+
+    /** Highest number of beds booked on any day in [from, to). */
+    public synchronized int maxBooked(long from, long to) {
+        if (from >= to) {
+            return 0;
+        }
+        return Math.max(valueAt(from), rangeMax(root, from + 1, to, 0));
+    }
+
+    public synchronized int getBreakpoints() {
+        return breakpoints;
+    }
+
+    private int valueAt(long day) {
+        int value = 0;
+        int pending = 0;
+        Node n = root;
+        while (n != null) {
+            if (n.day <= day) {
+                value = n.value + pending;
+                if (n.day == day) {
+                    break;
+                }
+                pending += n.lazy;
+                n = n.right;
+            } else {
+                pending += n.lazy;
+                n = n.left;
+            }
+        }
+        return value;
+    }
+
+    /** Max value over breakpoints in [lo, hi); read-only, no allocation. */
+    private static int rangeMax(Node n, long lo, long hi, int pending) {
+        while (n != null) {
+            int below = pending + n.lazy;
+            if (n.day < lo) {
+                n = n.right;
+            } else if (n.day >= hi) {
+                n = n.left;
+            } else {
+                int max = n.value + pending;
+                max = Math.max(max, suffixMax(n.left, lo, below));
+                return Math.max(max, prefixMax(n.right, hi, below));
+            }
+            pending = below;
+        }
+        return 0;
+    }
+
+    /** Max over nodes with day >= lo. */
+    private static int suffixMax(Node n, long lo, int pending) {
+        int max = 0;
+        while (n != null) {
+            int below = pending + n.lazy;
+            if (n.day >= lo) {
+                max = Math.max(max, n.value + pending);
+                if (n.right != null) {
+                    max = Math.max(max, n.right.max + below);
+                }
+                n = n.left;
+            } else {
+                n = n.right;
+            }
+            pending = below;
+        }
+        return max;
+    }
+
+    /** Max over nodes with day < hi. */
+    private static int prefixMax(Node n, long hi, int pending) {
+        int max = 0;
+        while (n != null) {
+            int below = pending + n.lazy;
+            if (n.day < hi) {
+                max = Math.max(max, n.value + pending);
+                if (n.left != null) {
+                    max = Math.max(max, n.left.max + below);
+                }
+                n = n.right;
+            } else {
+                n = n.left;
+            }
+            pending = below;
+        }
+        return max;
+    }
+
+    private void ensureBreakpoint(long day) {
+        Node[] lr = split(root, day);
+        Node[] mr = split(lr[1], day + 1);
+        if (mr[0] == null) {
+            mr[0] = new Node(day, lr[0] == null ? 0 : rightmostValue(lr[0]));
+            breakpoints++;
+        }
+        root = merge(lr[0], merge(mr[0], mr[1]));
+    }
+
+    private static int rightmostValue(Node n) {
+        int pending = 0;
+        while (n.right != null) {
+            pending += n.lazy;
+            n = n.right;
+        }
+        return n.value + pending;
+    }
+
+    /** Splits into (days < key, days >= key). */
+    private static Node[] split(Node n, long key) {
+        if (n == null) {
+            return new Node[2];
+        }
+        push(n);
+        if (n.day < key) {
+            Node[] r = split(n.right, key);
+            n.right = r[0];
+            pull(n);
+            r[0] = n;
+            return r;
+        }
+        Node[] l = split(n.left, key);
+        n.left = l[1];
+        pull(n);
+        l[1] = n;
+        return l;
+    }
+
+    private static Node merge(Node a, Node b) {
+        if (a == null) {
+            return b;
+        }
+        if (b == null) {
+            return a;
+        }
+        if (a.priority > b.priority) {
+            push(a);
+            a.right = merge(a.right, b);
+            pull(a);
+            return a;
+        }
+        push(b);
+        b.left = merge(a, b.left);
+        pull(b);
+        return b;
+    }
+
+    private static void apply(Node n, int delta) {
+        if (n != null) {
+            n.value += delta;
+            n.max += delta;
+            n.lazy += delta;
+        }
+    }
+
+    private static void push(Node n) {
+        if (n.lazy != 0) {
+            apply(n.left, n.lazy);
+            apply(n.right, n.lazy);
+            n.lazy = 0;
+        }
+    }
+
+    private static void pull(Node n) {
+        int max = n.value;
+        if (n.left != null) {
+            max = Math.max(max, n.left.max);
+        }
+        if (n.right != null) {
+            max = Math.max(max, n.right.max);
+        }
+        n.max = max;
+    }
+}
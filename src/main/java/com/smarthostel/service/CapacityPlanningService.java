@@ -0,0 +1,116 @@
+package com.smarthostel.service;
+
+import com.smarthostel.dto.CapacityPlan;
+import com.smarthostel.dto.CapacityPlanRequest;
+import com.smarthostel.dto.IntakeShape;
+import com.smarthostel.model.Job;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Capacity planning for an upcoming intake as a background job: how many
+ * requests allocateRoom would fail to serve under an expected mix of group
+ * sizes and facility needs. The catalogue is read once through a
+ * {@link CatalogueSnapshot}, and every simulation runs on its own copy, so
+ * the live catalogue is never changed and its locks are only held while
+ * the snapshot is read.
+ */
+@Service
+public class CapacityPlanningService {
+    static final String JOB_TYPE = "capacity-plan";
+    /** Most simulated arrivals (simulations times arrivals) one job may run. */
+    public static final long MAX_WORK = 1_000_000_000L;
+
+    private final HostelService hostelService;
+    private final JobRegistry jobs;
+
+    public CapacityPlanningService(HostelService hostelService, JobRegistry jobs) {
+        this.hostelService = hostelService;
+        this.jobs = jobs;
+    }
+
+    public Job submit(CapacityPlanRequest request) {
+        List<CapacitySimulator.Shape> shapes = new ArrayList<>();
+        for (IntakeShape s : request.getMix()) {
+            shapes.add(new CapacitySimulator.Shape(s.getBlock(), s.getStudents(), s.isNeedsAC(),
+                    s.isNeedsWashroom(), s.getWeight()));
+        }
+        int arrivals = request.getArrivals();
+        int simulations = request.getSimulations();
+        long seed = request.getSeed() != null ? request.getSeed() : ThreadLocalRandom.current().nextLong();
+        return jobs.submit(JOB_TYPE, progress -> plan(shapes, arrivals, simulations, seed, progress));
+    }
+
+    public Optional<Job> getJob(String id) {
+        return jobs.get(id).filter(j -> JOB_TYPE.equals(j.getType()));
+    }
+
+    CapacityPlan plan(List<CapacitySimulator.Shape> shapes, int arrivals, int simulations, long seed,
+                      JobRegistry.Progress progress) {
+        long start = System.nanoTime();
+        progress.update(0.0, "Reading catalogue");
+        CapacitySimulator simulator;
+        try (CatalogueSnapshot snapshot = hostelService.openSnapshot()) {
+            simulator = new CapacitySimulator(snapshot);
+        }
+        CapacitySimulator.Counts counts = simulator.run(shapes, arrivals, simulations, seed, progress, 0.05, 0.98);
+
+        progress.update(0.98, "Summarizing");
+        boolean[] inMix = new boolean[4];
+        for (CapacitySimulator.Shape s : shapes) {
+            inMix[AvailabilityStats.facilities(s.needsAC(), s.needsWashroom())] = true;
+        }
+        int[] requests = new int[simulations];
+        int[] unmetRequests = new int[simulations];
+        int[] unmetStudents = new int[simulations];
+        List<CapacityPlan.Outcome> byFacilities = new ArrayList<>();
+        for (int f = 0; f < 4; f++) {
+            for (int sim = 0; sim < simulations; sim++) {
+                requests[sim] += counts.requests()[f][sim];
+                unmetRequests[sim] += counts.unmetRequests()[f][sim];
+                unmetStudents[sim] += counts.unmetStudents()[f][sim];
+            }
+            if (inMix[f]) {
+                byFacilities.add(outcome((f & 2) != 0, (f & 1) != 0, counts.requests()[f],
+                        counts.unmetRequests()[f], counts.unmetStudents()[f]));
+            }
+        }
+        return new CapacityPlan(simulations, arrivals, seed, simulator.rooms(), simulator.freeBeds(),
+                outcome(null, null, requests, unmetRequests, unmetStudents), byFacilities,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static CapacityPlan.Outcome outcome(Boolean needsAC, Boolean needsWashroom,
+                                                int[] requests, int[] unmetRequests, int[] unmetStudents) {
+        int shortfalls = 0;
+        for (int n : unmetRequests) {
+            if (n > 0) {
+                shortfalls++;
+            }
+        }
+        return new CapacityPlan.Outcome(needsAC, needsWashroom, distribution(requests),
+                distribution(unmetRequests), distribution(unmetStudents), (double) shortfalls / unmetRequests.length);
+    }
+
+    private static CapacityPlan.Distribution distribution(int[] values) {
+        int[] sorted = values.clone();
+        Arrays.sort(sorted);
+        long sum = 0;
+        for (int v : sorted) {
+            sum += v;
+        }
+        return new CapacityPlan.Distribution((double) sum / sorted.length, sorted[0],
+                percentile(sorted, 50), percentile(sorted, 90), percentile(sorted, 99), sorted[sorted.length - 1]);
+    }
+
+    /** Nearest-rank percentile of sorted values. */
+    private static int percentile(int[] sorted, double p) {
+        int rank = (int) Math.ceil(p / 100 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+}
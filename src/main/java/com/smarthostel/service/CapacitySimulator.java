@@ -0,0 +1,162 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Room;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+/**
+ * Monte Carlo runs of an intake against one snapshot of the catalogue. Each
+ * simulation draws a random sequence of requests from a weighted mix and
+ * places them one by one with {@link HostelService#allocate}, the rule behind
+ * the live allocateRoom, over partitions that share the snapshot's columns
+ * copy-on-write.
+ *
+ * Simulations run on the common fork/join pool, one task per worker. Each
+ * task builds its partitions once, then takes chunks of simulations from a
+ * shared counter until none are left; after each simulation it puts back only
+ * the rooms that simulation touched. Every simulation has its own seed drawn
+ * up front, so results do not depend on how the work was split.
+ */
+final class CapacitySimulator {
+    /** One kind of arrival: what the group needs and how likely it is. */
+    record Shape(String block, int students, boolean needsAC, boolean needsWashroom, double weight) {
+    }
+
+    /**
+     * Per-simulation counts, indexed {@code [facilities][simulation]}. Requests
+     * validate arrivals and group sizes so that even every student of every
+     * arrival going unmet (10^6 times 1000) fits an int.
+     */
+    record Counts(int[][] requests, int[][] unmetRequests, int[][] unmetStudents) {
+    }
+
+    // Chunks per fork/join worker; more than one evens out slow and fast workers
+    private static final int CHUNKS_PER_WORKER = 4;
+
+    // normalized block name -> display name and snapshot columns
+    private final Map<String, String> blockNames = new LinkedHashMap<>();
+    private final Map<String, CopyOnWriteRoomStore.Base> bases = new LinkedHashMap<>();
+    private int rooms;
+    private long freeBeds;
+
+    CapacitySimulator(Iterator<Room> snapshot) {
+        Map<String, List<Room>> byBlock = new LinkedHashMap<>();
+        while (snapshot.hasNext()) {
+            Room r = snapshot.next();
+            String key = HostelService.normalizeBlock(r.getBlock());
+            blockNames.putIfAbsent(key, r.getBlock());
+            byBlock.computeIfAbsent(key, k -> new ArrayList<>()).add(r);
+            rooms++;
+            freeBeds += r.freeBeds();
+        }
+        byBlock.forEach((key, list) -> bases.put(key, new CopyOnWriteRoomStore.Base(list)));
+    }
+
+    int rooms() {
+        return rooms;
+    }
+
+    long freeBeds() {
+        return freeBeds;
+    }
+
+    Counts run(List<Shape> shapes, int arrivals, int simulations, long seed,
+               JobRegistry.Progress progress, double from, double to) {
+        double[] cumulative = new double[shapes.size()];
+        double sum = 0;
+        for (int i = 0; i < shapes.size(); i++) {
+            sum += shapes.get(i).weight();
+            cumulative[i] = sum;
+        }
+        long[] seeds = new long[simulations];
+        SplittableRandom master = new SplittableRandom(seed);
+        for (int i = 0; i < simulations; i++) {
+            seeds[i] = master.nextLong();
+        }
+
+        Counts counts = new Counts(new int[4][simulations], new int[4][simulations], new int[4][simulations]);
+        int workers = Math.min(simulations, ForkJoinPool.getCommonPoolParallelism());
+        int chunks = Math.min(simulations, CHUNKS_PER_WORKER * workers);
+        AtomicInteger nextChunk = new AtomicInteger();
+        int step = Math.max(1, simulations / 100);
+        AtomicInteger done = new AtomicInteger();
+        double total = sum;
+        IntStream.range(0, workers).parallel().forEach(worker -> {
+            // Built on the first chunk: a task that finds the work gone costs nothing
+            Fork fork = null;
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                if (fork == null) {
+                    fork = new Fork();
+                }
+                int end = (int) ((long) simulations * (chunk + 1) / chunks);
+                for (int sim = (int) ((long) simulations * chunk / chunks); sim < end; sim++) {
+                    fork.simulate(shapes, cumulative, total, arrivals, new SplittableRandom(seeds[sim]), counts, sim);
+                    fork.revert();
+                    int n = done.incrementAndGet();
+                    if (n % step == 0) {
+                        progress.update(from + (to - from) * n / simulations, "Simulated " + n + " of " + simulations);
+                    }
+                }
+            }
+        });
+        return counts;
+    }
+
+    /** One private copy of the catalogue, reused by a worker's simulations in turn. */
+    private final class Fork {
+        private final Map<String, BlockPartition> blocks = new HashMap<>();
+        private final List<BlockPartition> partitions = new ArrayList<>();
+        private final List<CopyOnWriteRoomStore> stores = new ArrayList<>();
+
+        Fork() {
+            bases.forEach((key, base) -> {
+                CopyOnWriteRoomStore store = new CopyOnWriteRoomStore(base);
+                BlockPartition p = BlockPartition.over(blockNames.get(key), store);
+                blocks.put(key, p);
+                partitions.add(p);
+                stores.add(store);
+            });
+        }
+
+        void simulate(List<Shape> shapes, double[] cumulative, double total, int arrivals,
+                      SplittableRandom random, Counts counts, int sim) {
+            // Rooms only fill up during an intake, so a shape that found no room never will again
+            boolean[] exhausted = new boolean[shapes.size()];
+            for (int a = 0; a < arrivals; a++) {
+                int i = Arrays.binarySearch(cumulative, random.nextDouble(total));
+                i = Math.min(i < 0 ? -i - 1 : i + 1, shapes.size() - 1);
+                Shape s = shapes.get(i);
+                int f = AvailabilityStats.facilities(s.needsAC(), s.needsWashroom());
+                counts.requests()[f][sim]++;
+                if (exhausted[i] || HostelService.allocate(blocks, s.block(), s.students(),
+                        s.needsAC(), s.needsWashroom()).isEmpty()) {
+                    exhausted[i] = true;
+                    counts.unmetRequests()[f][sim]++;
+                    counts.unmetStudents()[f][sim] += s.students();
+                }
+            }
+        }
+
+        void revert() {
+            for (int b = 0; b < partitions.size(); b++) {
+                CopyOnWriteRoomStore store = stores.get(b);
+                for (int i = 0; i < store.dirtyCount(); i++) {
+                    int row = store.dirtyRow(i);
+                    partitions.get(b).restore(row, store.snapshotOccupied(row));
+                }
+                store.clearDirty();
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Room;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Point-in-time iterator over the catalogue, see
+ * {@link HostelService#openSnapshot()}. Holds at most one page of rooms.
+ * Not thread-safe.
+ */
+public final class CatalogueSnapshot implements Iterator<Room>, AutoCloseable {
+    private static final int PAGE_SIZE = 256;
+
+    private final List<BlockPartition> partitions;
+    private final List<BlockPartition.SnapshotCursor> cursors = new ArrayList<>();
+    private final ArrayDeque<Room> page = new ArrayDeque<>(PAGE_SIZE);
+    private int current;
+
+    CatalogueSnapshot(List<BlockPartition> partitions) {
+        this.partitions = partitions;
+        for (BlockPartition p : partitions) {
+            cursors.add(p.openCursor());
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (page.isEmpty() && current < partitions.size()) {
+            BlockPartition p = partitions.get(current);
+            if (!p.readPage(cursors.get(current), PAGE_SIZE, page)) {
+                p.closeCursor(cursors.get(current));
+                current++;
+            }
+        }
+        return !page.isEmpty();
+    }
+
+    @Override
+    public Room next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.poll();
+    }
+
+    /** Stops recording changes for the blocks not read yet. Safe to call more than once. */
+    @Override
+    public void close() {
+        for (; current < partitions.size(); current++) {
+            partitions.get(current).closeCursor(cursors.get(current));
+        }
+        page.clear();
+    }
+}
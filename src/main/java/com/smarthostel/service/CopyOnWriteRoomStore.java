@@ -0,0 +1,151 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Room;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Store for simulations: a private occupancy over room columns that all
+ * copies share read-only. The occupancy array is copied on the first write,
+ * and rows written since the last {@link #clearDirty()} are tracked, so a
+ * copy can be put back to the snapshot in time proportional to what changed.
+ *
+ * Rooms cannot be added. Not thread-safe; each copy belongs to one thread.
+ */
+final class CopyOnWriteRoomStore implements RoomStore {
+    /** One block's rooms at snapshot time; immutable once built. */
+    static final class Base {
+        final String[] roomNos;
+        final int[] capacities;
+        final int[] occupied;
+        final byte[] flags;
+        final Map<String, Integer> rowsByNo;
+
+        Base(List<Room> rooms) {
+            int n = rooms.size();
+            roomNos = new String[n];
+            capacities = new int[n];
+            occupied = new int[n];
+            flags = new byte[n];
+            rowsByNo = new HashMap<>(n * 2);
+            for (int row = 0; row < n; row++) {
+                Room r = rooms.get(row);
+                roomNos[row] = r.getRoomNo();
+                capacities[row] = r.getCapacity();
+                occupied[row] = r.getOccupied();
+                flags[row] = (byte) ((r.isHasAC() ? HeapRoomStore.FLAG_AC : 0)
+                        | (r.isHasAttachedWashroom() ? HeapRoomStore.FLAG_WASHROOM : 0));
+                rowsByNo.put(HostelService.normalizeRoomNo(r.getRoomNo()), row);
+            }
+        }
+    }
+
+    private final Base base;
+    // base.occupied until the first write
+    private int[] occupied;
+    private boolean[] dirty;
+    private int[] dirtyRows = new int[16];
+    private int dirtyCount;
+
+    CopyOnWriteRoomStore(Base base) {
+        this.base = base;
+        this.occupied = base.occupied;
+    }
+
+    /** Rows written since the last {@link #clearDirty()}, in first-write order. */
+    int dirtyCount() {
+        return dirtyCount;
+    }
+
+    int dirtyRow(int i) {
+        return dirtyRows[i];
+    }
+
+    int snapshotOccupied(int row) {
+        return base.occupied[row];
+    }
+
+    void clearDirty() {
+        for (int i = 0; i < dirtyCount; i++) {
+            dirty[dirtyRows[i]] = false;
+        }
+        dirtyCount = 0;
+    }
+
+    @Override
+    public int size() {
+        return base.roomNos.length;
+    }
+
+    @Override
+    public int add(String roomNo, int capacity, boolean ac, boolean washroom) {
+        throw new UnsupportedOperationException("Snapshot copies cannot grow");
+    }
+
+    @Override
+    public int find(String normalizedRoomNo) {
+        Integer row = base.rowsByNo.get(normalizedRoomNo);
+        return row == null ? -1 : row;
+    }
+
+    @Override
+    public String roomNo(int row) {
+        return base.roomNos[row];
+    }
+
+    @Override
+    public int capacity(int row) {
+        return base.capacities[row];
+    }
+
+    @Override
+    public int occupied(int row) {
+        return occupied[row];
+    }
+
+    @Override
+    public void setOccupied(int row, int value) {
+        if (occupied == base.occupied) {
+            occupied = base.occupied.clone();
+            dirty = new boolean[occupied.length];
+        }
+        if (!dirty[row]) {
+            dirty[row] = true;
+            if (dirtyCount == dirtyRows.length) {
+                dirtyRows = Arrays.copyOf(dirtyRows, dirtyCount * 2);
+            }
+            dirtyRows[dirtyCount++] = row;
+        }
+        occupied[row] = value;
+    }
+
+    @Override
+    public boolean hasAC(int row) {
+        return (base.flags[row] & HeapRoomStore.FLAG_AC) != 0;
+    }
+
+    @Override
+    public boolean hasWashroom(int row) {
+        return (base.flags[row] & HeapRoomStore.FLAG_WASHROOM) != 0;
+    }
+
+    @Override
+    public int[] scan(int minCapacity, int minFreeBeds, boolean requireAC, boolean requireWashroom) {
+        int required = (requireAC ? HeapRoomStore.FLAG_AC : 0) | (requireWashroom ? HeapRoomStore.FLAG_WASHROOM : 0);
+        int[] out = new int[16];
+        int n = 0;
+        for (int row = 0; row < size(); row++) {
+            int cap = base.capacities[row];
+            if (cap >= minCapacity && cap - occupied[row] >= minFreeBeds && (base.flags[row] & required) == required) {
+                if (n == out.length) {
+                    out = Arrays.copyOf(out, n * 2);
+                }
+                out[n++] = row;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
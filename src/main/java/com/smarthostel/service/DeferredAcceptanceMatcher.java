@@ -0,0 +1,318 @@
+package com.smarthostel.service;
+
+import com.smarthostel.dto.GroupPreference;
+import com.smarthostel.model.Room;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Group-proposing deferred acceptance (Gale-Shapley) where each room has as
+ * many seats as it has free beds and a group takes as many seats as it has
+ * students.
+ *
+ * Groups rank rooms: the rooms they named come first, in their order, then
+ * the remaining rooms that meet their hard requirements, scored by block
+ * preference, nice-to-have facilities and how snugly the group fits. Lists
+ * are cut to {@code maxChoices}. Rooms rank groups by priority, then by
+ * request order. A room over capacity keeps its groups greedily in rank
+ * order, each one that still fits, and rejects the others.
+ *
+ * With one-student groups this is the classic algorithm and the result is
+ * stable. With larger groups a stable matching need not exist, and this one
+ * is not guaranteed to be: a rejected group may prefer a room that holds a
+ * lower-ranked group, when the lower-ranked group fits in the seats left by
+ * better-ranked ones and the rejected group does not, or when seats were
+ * freed after it had moved on. What does hold is that a room only turns a
+ * group away when the better-ranked groups it holds at that moment leave it
+ * too few seats.
+ *
+ * Works on a snapshot of the catalogue; nothing here touches HostelService.
+ */
+final class DeferredAcceptanceMatcher {
+    private static final int FLAG_WASHROOM = 1;
+    private static final int FLAG_AC = 2;
+    private static final int SCORE_CHUNK = 64;
+
+    private final String[] roomNos;
+    private final String[] roomBlocks;
+    private final int[] free;
+    private final int[] flags;
+    private final int[] blockOf;
+    private final Map<String, Integer> roomIndex = new HashMap<>();
+    private final Map<String, Integer> blockIndex = new HashMap<>();
+
+    DeferredAcceptanceMatcher(List<Room> catalogue) {
+        List<Room> rooms = new ArrayList<>();
+        for (Room r : catalogue) {
+            if (r.freeBeds() > 0) {
+                rooms.add(r);
+            }
+        }
+        // room order is the final tie-break, keep it independent of block layout
+        rooms.sort(Comparator.comparing(Room::getRoomNo));
+        int n = rooms.size();
+        roomNos = new String[n];
+        roomBlocks = new String[n];
+        free = new int[n];
+        flags = new int[n];
+        blockOf = new int[n];
+        for (int i = 0; i < n; i++) {
+            Room r = rooms.get(i);
+            roomNos[i] = r.getRoomNo();
+            roomBlocks[i] = r.getBlock();
+            free[i] = r.freeBeds();
+            flags[i] = (r.isHasAC() ? FLAG_AC : 0) | (r.isHasAttachedWashroom() ? FLAG_WASHROOM : 0);
+            blockOf[i] = blockIndex.computeIfAbsent(HostelService.normalizeBlock(r.getBlock()), k -> blockIndex.size());
+            roomIndex.put(HostelService.normalizeRoomNo(r.getRoomNo()), i);
+        }
+    }
+
+    int roomCount() {
+        return roomNos.length;
+    }
+
+    String roomNo(int room) {
+        return roomNos[room];
+    }
+
+    String block(int room) {
+        return roomBlocks[room];
+    }
+
+    /**
+     * Each group's acceptable rooms, best first. Scoring is split across the
+     * common fork/join pool; progress moves from {@code from} to {@code to}.
+     */
+    int[][] rankRooms(List<GroupPreference> groups, int maxChoices,
+                      JobRegistry.Progress progress, double from, double to) {
+        int[][] prefs = new int[groups.size()][];
+        AtomicInteger done = new AtomicInteger();
+        ForkJoinPool.commonPool().invoke(new ScoreTask(groups, maxChoices, prefs, 0, groups.size(), () -> {
+            int d = done.addAndGet(SCORE_CHUNK);
+            progress.update(from + (to - from) * Math.min(1.0, (double) d / groups.size()), "Scoring preferences");
+        }));
+        return prefs;
+    }
+
+    /**
+     * Runs deferred acceptance over the ranked lists.
+     *
+     * @return room index per group, or -1 if the group is unmatched
+     */
+    int[] match(List<GroupPreference> groups, int[][] prefs,
+                JobRegistry.Progress progress, double from, double to) {
+        int g = groups.size();
+        int[] size = new int[g];
+        int[] priority = new int[g];
+        long totalChoices = 0;
+        for (int i = 0; i < g; i++) {
+            size[i] = groups.get(i).getStudents();
+            priority[i] = groups.get(i).getPriority();
+            totalChoices += prefs[i].length;
+        }
+        Comparator<Integer> roomsRanking = (a, b) -> priority[a] != priority[b]
+                ? Integer.compare(priority[b], priority[a])
+                : Integer.compare(a, b);
+
+        int[] next = new int[g];
+        int[] assigned = new int[g];
+        Arrays.fill(assigned, -1);
+        int[] used = new int[roomNos.length];
+        Map<Integer, TreeSet<Integer>> held = new HashMap<>();
+        ArrayDeque<Integer> proposing = new ArrayDeque<>(g);
+        for (int i = 0; i < g; i++) {
+            proposing.add(i);
+        }
+
+        long proposals = 0;
+        while (!proposing.isEmpty()) {
+            int group = proposing.poll();
+            if (next[group] == prefs[group].length) {
+                continue; // ran out of acceptable rooms
+            }
+            int room = prefs[group][next[group]++];
+            TreeSet<Integer> holders = held.computeIfAbsent(room, r -> new TreeSet<>(roomsRanking));
+            holders.add(group);
+            assigned[group] = room;
+            used[room] += size[group];
+            if (used[room] > free[room]) {
+                // Keep holders in rank order while they fit; a small low-ranked group may
+                // still fit after a large better-ranked one did not
+                used[room] = 0;
+                for (Iterator<Integer> it = holders.iterator(); it.hasNext(); ) {
+                    int holder = it.next();
+                    if (used[room] + size[holder] <= free[room]) {
+                        used[room] += size[holder];
+                    } else {
+                        it.remove();
+                        assigned[holder] = -1;
+                        proposing.add(holder);
+                    }
+                }
+            }
+            if (++proposals % 16384 == 0) {
+                progress.update(from + (to - from) * Math.min(1.0, (double) proposals / totalChoices), "Matching");
+            }
+        }
+        return assigned;
+    }
+
+    private final class ScoreTask extends RecursiveAction {
+        private final List<GroupPreference> groups;
+        private final int maxChoices;
+        private final int[][] prefs;
+        private final int lo;
+        private final int hi;
+        private final Runnable chunkDone;
+
+        ScoreTask(List<GroupPreference> groups, int maxChoices, int[][] prefs, int lo, int hi, Runnable chunkDone) {
+            this.groups = groups;
+            this.maxChoices = maxChoices;
+            this.prefs = prefs;
+            this.lo = lo;
+            this.hi = hi;
+            this.chunkDone = chunkDone;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > SCORE_CHUNK) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new ScoreTask(groups, maxChoices, prefs, lo, mid, chunkDone),
+                        new ScoreTask(groups, maxChoices, prefs, mid, hi, chunkDone));
+                return;
+            }
+            int[] heapRoom = new int[maxChoices];
+            int[] heapScore = new int[maxChoices];
+            int[] blockBonus = new int[blockIndex.size()];
+            boolean[] isNamed = new boolean[free.length];
+            for (int i = lo; i < hi; i++) {
+                prefs[i] = rank(groups.get(i), heapRoom, heapScore, blockBonus, isNamed);
+            }
+            chunkDone.run();
+        }
+
+        private int[] rank(GroupPreference group, int[] heapRoom, int[] heapScore, int[] blockBonus,
+                           boolean[] isNamed) {
+            int students = group.getStudents();
+            int required = (group.isNeedsAC() ? FLAG_AC : 0) | (group.isNeedsWashroom() ? FLAG_WASHROOM : 0);
+            int acBonus = group.isPrefersAC() ? 50 : 0;
+            int washBonus = group.isPrefersWashroom() ? 50 : 0;
+            Arrays.fill(blockBonus, 0);
+            List<String> blockPrefs = group.getBlockPreferences() == null ? List.of() : group.getBlockPreferences();
+            for (int j = 0; j < blockPrefs.size(); j++) {
+                Integer b = blockIndex.get(HostelService.normalizeBlock(blockPrefs.get(j)));
+                if (b != null && blockBonus[b] == 0) {
+                    blockBonus[b] = (blockPrefs.size() - j) * 100;
+                }
+            }
+
+            // Named rooms first, in the group's order, if they can take the group at all
+            int[] named = new int[0];
+            if (group.getRoomPreferences() != null) {
+                named = group.getRoomPreferences().stream()
+                        .map(no -> roomIndex.get(HostelService.normalizeRoomNo(no)))
+                        .filter(r -> r != null && free[r] >= students && (flags[r] & required) == required)
+                        .distinct()
+                        .mapToInt(Integer::intValue)
+                        .limit(maxChoices)
+                        .toArray();
+            }
+            for (int r : named) {
+                isNamed[r] = true;
+            }
+
+            // Top (maxChoices - named) of the rest, kept in a min-heap on (score, -room)
+            int k = maxChoices - named.length;
+            int n = 0;
+            for (int r = 0; r < free.length && k > 0; r++) {
+                int f = flags[r];
+                if (free[r] < students || (f & required) != required || isNamed[r]) {
+                    continue;
+                }
+                int score = blockBonus[blockOf[r]]
+                        + ((f & FLAG_AC) != 0 ? acBonus : 0)
+                        + ((f & FLAG_WASHROOM) != 0 ? washBonus : 0)
+                        - (free[r] - students) * 10;
+                if (n < k) {
+                    heapRoom[n] = r;
+                    heapScore[n] = score;
+                    siftUp(heapRoom, heapScore, n++);
+                } else if (score > heapScore[0]) {
+                    heapRoom[0] = r;
+                    heapScore[0] = score;
+                    siftDown(heapRoom, heapScore, n);
+                }
+            }
+
+            // Drain the heap worst-first into the tail of the list
+            int[] ranked = new int[named.length + n];
+            System.arraycopy(named, 0, ranked, 0, named.length);
+            int tail = ranked.length;
+            while (n > 0) {
+                int r = heapRoom[0];
+                n--;
+                heapRoom[0] = heapRoom[n];
+                heapScore[0] = heapScore[n];
+                siftDown(heapRoom, heapScore, n);
+                ranked[--tail] = r;
+            }
+            for (int r : named) {
+                isNamed[r] = false;
+            }
+            return ranked;
+        }
+    }
+
+    // Heap order: lower score is "smaller"; on equal score the higher room index is, so lower rooms win ties
+    private static boolean less(int[] room, int[] score, int a, int b) {
+        return score[a] != score[b] ? score[a] < score[b] : room[a] > room[b];
+    }
+
+    private static void siftUp(int[] room, int[] score, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!less(room, score, i, parent)) {
+                break;
+            }
+            swap(room, score, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(int[] room, int[] score, int n) {
+        int i = 0;
+        while (true) {
+            int l = 2 * i + 1;
+            if (l >= n) {
+                break;
+            }
+            int smallest = l + 1 < n && less(room, score, l + 1, l) ? l + 1 : l;
+            if (!less(room, score, smallest, i)) {
+                break;
+            }
+            swap(room, score, i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static void swap(int[] room, int[] score, int a, int b) {
+        int t = room[a];
+        room[a] = room[b];
+        room[b] = t;
+        t = score[a];
+        score[a] = score[b];
+        score[b] = t;
+    }
+}
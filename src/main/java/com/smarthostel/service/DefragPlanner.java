@@ -0,0 +1,188 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.DefragProposal;
+import com.smarthostel.model.Room;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Plans moves on a private snapshot of the catalogue. To make room for a
+ * request it picks the room that needs the fewest moves (then the fewest
+ * students moved, then the smallest room) and fills other rooms' free beds
+ * largest-first. Students stay in their block and only move to rooms with at
+ * least the facilities they have now.
+ *
+ * Planned moves are applied to the snapshot, so later plans build on them.
+ * Not thread-safe.
+ */
+final class DefragPlanner {
+    /** Moves (as {to room, students} pairs) that give {@code room} enough free beds. */
+    record Plan(int room, int[][] moves) {
+    }
+
+    private final String[] roomNos;
+    private final String[] blocks;
+    private final int[] blockOf;
+    private final int[] capacity;
+    private final int[] occupied;
+    private final int[] flags;
+    private final boolean[] reserved;
+    private final List<List<Integer>> roomsByBlock = new ArrayList<>();
+    private final Map<String, Integer> blockIndex = new HashMap<>();
+    private final Map<String, Integer> roomIndex = new HashMap<>();
+    private boolean timedOut;
+
+    DefragPlanner(List<Room> snapshot) {
+        int n = snapshot.size();
+        roomNos = new String[n];
+        blocks = new String[n];
+        blockOf = new int[n];
+        capacity = new int[n];
+        occupied = new int[n];
+        flags = new int[n];
+        reserved = new boolean[n];
+        for (int i = 0; i < n; i++) {
+            Room r = snapshot.get(i);
+            roomNos[i] = r.getRoomNo();
+            blocks[i] = r.getBlock();
+            capacity[i] = r.getCapacity();
+            occupied[i] = r.getOccupied();
+            flags[i] = AvailabilityStats.facilities(r.isHasAC(), r.isHasAttachedWashroom());
+            blockOf[i] = blockIndex.computeIfAbsent(HostelService.normalizeBlock(r.getBlock()), k -> {
+                roomsByBlock.add(new ArrayList<>());
+                return roomsByBlock.size() - 1;
+            });
+            roomsByBlock.get(blockOf[i]).add(i);
+            roomIndex.put(HostelService.normalizeRoomNo(r.getRoomNo()), i);
+        }
+    }
+
+    String roomNo(int room) {
+        return roomNos[room];
+    }
+
+    String block(int room) {
+        return blocks[room];
+    }
+
+    /** True if the last {@link #plan} call gave up at the deadline. */
+    boolean timedOut() {
+        return timedOut;
+    }
+
+    /**
+     * Best plan for a request, a plan without moves if some room already
+     * fits it, or null if no room can be freed (or the deadline passed).
+     */
+    Plan plan(String block, int students, boolean needsAC, boolean needsWashroom, long deadlineNanos) {
+        timedOut = false;
+        int required = AvailabilityStats.facilities(needsAC, needsWashroom);
+        List<Integer> scope = new ArrayList<>();
+        if (block == null) {
+            roomsByBlock.forEach(scope::addAll);
+        } else {
+            Integer b = blockIndex.get(HostelService.normalizeBlock(block));
+            if (b == null) {
+                return null;
+            }
+            scope.addAll(roomsByBlock.get(b));
+        }
+
+        int best = -1;
+        int bestMoves = Integer.MAX_VALUE;
+        int bestDeficit = Integer.MAX_VALUE;
+        int[][] bestPlan = null;
+        int[][] destinations = new int[4 * roomsByBlock.size()][];
+        int checked = 0;
+        for (int room : scope) {
+            if ((++checked & 63) == 0 && System.nanoTime() > deadlineNanos) {
+                timedOut = true;
+                return null;
+            }
+            if (reserved[room] || capacity[room] < students || (flags[room] & required) != required) {
+                continue;
+            }
+            int deficit = students - (capacity[room] - occupied[room]);
+            if (deficit <= 0) {
+                return new Plan(room, new int[0][]);
+            }
+            if (deficit > bestDeficit && bestMoves == 1) {
+                continue; // cannot beat a single move of fewer students
+            }
+            int key = blockOf[room] * 4 + flags[room];
+            if (destinations[key] == null) {
+                destinations[key] = destinationsByFreeBeds(blockOf[room], flags[room]);
+            }
+            int[][] moves = fill(room, deficit, destinations[key]);
+            if (moves == null) {
+                continue;
+            }
+            if (moves.length < bestMoves
+                    || (moves.length == bestMoves && deficit < bestDeficit)
+                    || (moves.length == bestMoves && deficit == bestDeficit && capacity[room] < capacity[best])) {
+                best = room;
+                bestMoves = moves.length;
+                bestDeficit = deficit;
+                bestPlan = moves;
+            }
+        }
+        return best < 0 ? null : new Plan(best, bestPlan);
+    }
+
+    /** Applies a plan to the snapshot and keeps its room out of later plans. */
+    void commit(Plan plan) {
+        for (int[] move : plan.moves()) {
+            occupied[plan.room()] -= move[1];
+            occupied[move[0]] += move[1];
+        }
+        reserved[plan.room()] = true;
+    }
+
+    /** Replays an already published proposal so new plans don't collide with it. */
+    void commit(DefragProposal proposal) {
+        Integer room = roomIndex.get(HostelService.normalizeRoomNo(proposal.getRoomNo()));
+        if (room == null) {
+            return;
+        }
+        for (DefragProposal.Move m : proposal.getMoves()) {
+            Integer to = roomIndex.get(HostelService.normalizeRoomNo(m.getToRoom()));
+            if (to != null) {
+                occupied[room] -= m.getStudents();
+                occupied[to] += m.getStudents();
+            }
+        }
+        reserved[room] = true;
+    }
+
+    /** Rooms of a block that could take students from a room with {@code fromFlags}, most free beds first. */
+    private int[] destinationsByFreeBeds(int block, int fromFlags) {
+        return roomsByBlock.get(block).stream()
+                .filter(r -> (flags[r] & fromFlags) == fromFlags && capacity[r] > occupied[r])
+                .sorted((a, b) -> Integer.compare(capacity[b] - occupied[b], capacity[a] - occupied[a]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private int[][] fill(int room, int deficit, int[] destinations) {
+        int[][] moves = new int[deficit][];
+        int n = 0;
+        int remaining = deficit;
+        for (int i = 0; i < destinations.length && remaining > 0; i++) {
+            int to = destinations[i];
+            if (to == room || reserved[to]) {
+                continue;
+            }
+            int take = Math.min(remaining, capacity[to] - occupied[to]);
+            if (take <= 0) {
+                continue;
+            }
+            moves[n++] = new int[] {to, take};
+            remaining -= take;
+        }
+        return remaining > 0 ? null : Arrays.copyOf(moves, n);
+    }
+}
@@ -0,0 +1,257 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.AuditEvent;
+import com.smarthostel.model.DefragProposal;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Background optimizer that frees rooms for the largest requests that could
+ * not be allocated.
+ *
+ * Failed allocations are remembered as a waiting list. Every interval the
+ * optimizer spends at most its time budget planning moves for the largest
+ * waiting requests first (see {@link DefragPlanner}); a planning session that
+ * runs out of time continues on the next tick. Plans work on a snapshot read
+ * block by block, so no allocation lock is held while planning.
+ *
+ * Plans are published as pending proposals. Approving one performs all of
+ * its moves and occupies the freed beds in one step under the block's lock
+ * (see {@link HostelService#applyMoves}), or does nothing if a room no longer
+ * fits. The freed beds become a hold for the waiting group, so a concurrent
+ * allocation cannot take them before the group is placed; unless confirmed
+ * they go back when the hold expires. Applied moves are written to the
+ * {@link AuditLog} as a release of the old room and an allocation of the new
+ * one, for the actor who approved.
+ */
+@Service
+public class DefragService {
+    private static final Logger log = LoggerFactory.getLogger(DefragService.class);
+    private static final int HISTORY = 100;
+
+    private record Shape(String block, int students, boolean needsAC, boolean needsWashroom) {
+    }
+
+    private static final class Waiting {
+        final AtomicInteger count = new AtomicInteger();
+        volatile long lastSeenMillis;
+    }
+
+    private static final class Session {
+        final DefragPlanner planner;
+        final List<Shape> targets;
+        int cursor;
+
+        Session(DefragPlanner planner, List<Shape> targets) {
+            this.planner = planner;
+            this.targets = targets;
+        }
+    }
+
+    private final HostelService hostelService;
+    private final HoldService holdService;
+    private final AuditLog auditLog;
+    private final long budgetNanos;
+    private final int maxPending;
+    private final Duration waitingTtl;
+    private final Duration proposalTtl;
+    private final ScheduledExecutorService scheduler;
+    private final Map<Shape, Waiting> waiting = new ConcurrentHashMap<>();
+
+    // Guarded by this
+    private final Map<String, DefragProposal> pending = new LinkedHashMap<>();
+    private final Map<String, Shape> pendingShapes = new HashMap<>();
+    private final Deque<DefragProposal> resolved = new ArrayDeque<>();
+    private Session session;
+
+    public DefragService(HostelService hostelService, HoldService holdService, AuditLog auditLog,
+                         @Value("${hostel.defrag.interval:30s}") Duration interval,
+                         @Value("${hostel.defrag.budget:200ms}") Duration budget,
+                         @Value("${hostel.defrag.max-proposals:20}") int maxPending,
+                         @Value("${hostel.defrag.waiting-ttl:1h}") Duration waitingTtl,
+                         @Value("${hostel.defrag.proposal-ttl:15m}") Duration proposalTtl) {
+        this.hostelService = hostelService;
+        this.holdService = holdService;
+        this.auditLog = auditLog;
+        this.budgetNanos = budget.toNanos();
+        this.maxPending = maxPending;
+        this.waitingTtl = waitingTtl;
+        this.proposalTtl = proposalTtl;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "defrag-optimizer");
+            t.setDaemon(true);
+            return t;
+        });
+        scheduler.scheduleWithFixedDelay(this::tick, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /** Remembers a request that found no room, so the optimizer can make space for it. */
+    public void recordUnmet(String block, int students, boolean needsAC, boolean needsWashroom) {
+        String key = block == null || block.isBlank() ? null : HostelService.normalizeBlock(block);
+        Waiting w = waiting.computeIfAbsent(new Shape(key, students, needsAC, needsWashroom), s -> new Waiting());
+        w.count.incrementAndGet();
+        w.lastSeenMillis = System.currentTimeMillis();
+    }
+
+    /** Runs one time-budgeted planning slice now and returns the pending proposals. */
+    public synchronized List<DefragProposal> runOnce() {
+        long deadline = System.nanoTime() + budgetNanos;
+        if (session == null) {
+            session = startSession();
+        }
+        DefragPlanner planner = session.planner;
+        while (session.cursor < session.targets.size() && pending.size() < maxPending) {
+            Shape s = session.targets.get(session.cursor);
+            Waiting w = waiting.get(s);
+            if (w == null || countPending(s) >= w.count.get()) {
+                session.cursor++;
+                continue;
+            }
+            DefragPlanner.Plan plan = planner.plan(s.block(), s.students(), s.needsAC(), s.needsWashroom(), deadline);
+            if (planner.timedOut()) {
+                return getProposals(); // resume this target on the next tick
+            }
+            if (plan == null || plan.moves().length == 0) {
+                // Nothing can be freed, or a room already fits and the request can simply be retried
+                session.cursor++;
+                continue;
+            }
+            planner.commit(plan);
+            publish(s, planner, plan);
+        }
+        session = null;
+        return getProposals();
+    }
+
+    public synchronized List<DefragProposal> getProposals() {
+        return new ArrayList<>(pending.values());
+    }
+
+    /** Recently approved, rejected or expired proposals, newest first. */
+    public synchronized List<DefragProposal> getHistory() {
+        return new ArrayList<>(resolved);
+    }
+
+    /**
+     * Performs the proposal's moves and holds the freed beds for the waiting
+     * group. The returned proposal is APPLIED with the hold's id, or STALE
+     * (and nothing changed) if the catalogue changed so that it no longer fits.
+     */
+    public synchronized Optional<DefragProposal> approve(String id, String actor) {
+        DefragProposal p = pending.remove(id);
+        if (p == null) {
+            return Optional.empty();
+        }
+        Shape shape = pendingShapes.remove(id);
+        if (hostelService.applyMoves(p.getBlock(), p.getMoves(), p.getRoomNo(), p.getStudents()).isEmpty()) {
+            return Optional.of(resolve(p, DefragProposal.Status.STALE));
+        }
+        p.setHoldId(holdService.holdOccupied(p.getRoomNo(), p.getStudents()).getId());
+        for (DefragProposal.Move m : p.getMoves()) {
+            auditLog.record(actor, AuditEvent.Action.RELEASE, m.getFromRoom(), m.getStudents(), false, false, true);
+            auditLog.record(actor, AuditEvent.Action.ALLOCATE, m.getToRoom(), m.getStudents(), false, false, true);
+        }
+        auditLog.record(actor, AuditEvent.Action.HOLD, p.getRoomNo(), p.getStudents(),
+                p.isNeedsAC(), p.isNeedsWashroom(), true);
+        waiting.computeIfPresent(shape, (k, w) -> w.count.decrementAndGet() <= 0 ? null : w);
+        return Optional.of(resolve(p, DefragProposal.Status.APPLIED));
+    }
+
+    public synchronized Optional<DefragProposal> reject(String id) {
+        DefragProposal p = pending.remove(id);
+        pendingShapes.remove(id);
+        return p == null ? Optional.empty() : Optional.of(resolve(p, DefragProposal.Status.REJECTED));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private void tick() {
+        try {
+            runOnce();
+        } catch (RuntimeException e) {
+            // keep the schedule alive; the next tick starts a fresh session
+            log.error("Defrag run failed", e);
+            synchronized (this) {
+                session = null;
+            }
+        }
+    }
+
+    private Session startSession() {
+        long now = System.currentTimeMillis();
+        waiting.entrySet().removeIf(e -> now - e.getValue().lastSeenMillis > waitingTtl.toMillis());
+        Instant expired = Instant.now().minus(proposalTtl);
+        for (DefragProposal p : new ArrayList<>(pending.values())) {
+            if (p.getCreatedAt().isBefore(expired)) {
+                pending.remove(p.getId());
+                pendingShapes.remove(p.getId());
+                resolve(p, DefragProposal.Status.STALE);
+            }
+        }
+
+        DefragPlanner planner = new DefragPlanner(hostelService.getAllRooms());
+        pending.values().forEach(planner::commit);
+        // Largest requests first: they are the ones greedy allocation cannot serve
+        Map<Shape, Integer> counts = new LinkedHashMap<>();
+        waiting.forEach((s, w) -> counts.put(s, w.count.get()));
+        List<Shape> targets = new ArrayList<>(counts.keySet());
+        targets.sort(Comparator.comparingInt(Shape::students).reversed()
+                .thenComparing(counts::get, Comparator.reverseOrder()));
+        return new Session(planner, targets);
+    }
+
+    private int countPending(Shape s) {
+        int n = 0;
+        for (Shape pendingShape : pendingShapes.values()) {
+            if (pendingShape.equals(s)) {
+                n++;
+            }
+        }
+        return n;
+    }
+
+    private void publish(Shape s, DefragPlanner planner, DefragPlanner.Plan plan) {
+        List<DefragProposal.Move> moves = new ArrayList<>(plan.moves().length);
+        for (int[] m : plan.moves()) {
+            moves.add(new DefragProposal.Move(planner.roomNo(plan.room()), planner.roomNo(m[0]), m[1]));
+        }
+        DefragProposal p = new DefragProposal(UUID.randomUUID().toString(), Instant.now(),
+                planner.block(plan.room()), planner.roomNo(plan.room()), s.students(), s.needsAC(), s.needsWashroom(),
+                moves, DefragProposal.Status.PENDING);
+        pending.put(p.getId(), p);
+        pendingShapes.put(p.getId(), s);
+    }
+
+    private DefragProposal resolve(DefragProposal p, DefragProposal.Status status) {
+        p.setStatus(status);
+        resolved.addFirst(p);
+        if (resolved.size() > HISTORY) {
+            resolved.removeLast();
+        }
+        return p;
+    }
+}
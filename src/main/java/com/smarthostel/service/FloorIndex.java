@@ -0,0 +1,174 @@
+package com.smarthostel.service;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Layout of one block: for every floor, its rooms ordered by position along
+ * the corridor. Rooms next to each other in that order are neighbours; the
+ * distance between two rooms is the difference of their positions. No two
+ * rooms share a floor and position. Rooms added without a floor and position
+ * are not in the index.
+ *
+ * A group is placed in a run of consecutive rooms (skipping rooms that are
+ * full or lack a required facility) on one floor. Per floor, a sliding
+ * window finds the fewest rooms that hold the group and then the tightest
+ * such run, so each lookup is linear in the rooms of the block.
+ *
+ * Not thread-safe; used under the owning partition's lock.
+ */
+final class FloorIndex {
+    /** Rooms for one group: {@code rows[i]} takes {@code students[i]}. */
+    record Plan(int floor, int[] rows, int[] students, long span, int leftover, int start) {
+        boolean betterThan(Plan other) {
+            return better(rows.length, span, leftover, floor, start, other);
+        }
+    }
+
+    private final RoomStore store;
+    // floor -> (position << 32 | row) -> row
+    private final TreeMap<Integer, TreeMap<Long, Integer>> floors = new TreeMap<>();
+    private int[] floorOf = new int[16];
+    private int[] positionOf = new int[16];
+    private boolean[] placed = new boolean[16];
+
+    FloorIndex(RoomStore store) {
+        this.store = store;
+    }
+
+    void added(int row, int floor, int position) {
+        if (row >= placed.length) {
+            int n = Math.max(row + 1, placed.length * 2);
+            floorOf = Arrays.copyOf(floorOf, n);
+            positionOf = Arrays.copyOf(positionOf, n);
+            placed = Arrays.copyOf(placed, n);
+        }
+        floorOf[row] = floor;
+        positionOf[row] = position;
+        placed[row] = true;
+        floors.computeIfAbsent(floor, f -> new TreeMap<>()).put(((long) position << 32) | row, row);
+    }
+
+    /** True if a room already stands at this floor and position. */
+    boolean isTaken(int floor, int position) {
+        TreeMap<Long, Integer> rooms = floors.get(floor);
+        Long key = rooms == null ? null : rooms.ceilingKey((long) position << 32);
+        return key != null && (int) (key >> 32) == position;
+    }
+
+    boolean isPlaced(int row) {
+        return row < placed.length && placed[row];
+    }
+
+    int floor(int row) {
+        return floorOf[row];
+    }
+
+    int position(int row) {
+        return positionOf[row];
+    }
+
+    /** Best placement for the group on any floor of this block, or null; {@code free} gives a row's usable beds. */
+    Plan plan(int students, boolean needsAC, boolean needsWashroom, IntUnaryOperator free) {
+        int required = AvailabilityStats.facilities(needsAC, needsWashroom);
+        Plan best = null;
+        int[] rows = new int[16];
+        int[] beds = new int[16];
+        int[] pos = new int[16];
+        for (Map.Entry<Integer, TreeMap<Long, Integer>> e : floors.entrySet()) {
+            // Candidate rooms of this floor, in corridor order
+            int m = 0;
+            long total = 0;
+            for (int row : e.getValue().values()) {
+                int f = free.applyAsInt(row);
+                if (f <= 0 || (AvailabilityStats.facilities(store.hasAC(row), store.hasWashroom(row)) & required) != required) {
+                    continue;
+                }
+                if (m == rows.length) {
+                    rows = Arrays.copyOf(rows, m * 2);
+                    beds = Arrays.copyOf(beds, m * 2);
+                    pos = Arrays.copyOf(pos, m * 2);
+                }
+                rows[m] = row;
+                beds[m] = f;
+                pos[m] = positionOf[row];
+                total += f;
+                m++;
+            }
+            if (total < students) {
+                continue;
+            }
+            int k = fewestRooms(beds, m, students);
+            if (best != null && k > best.rows().length) {
+                continue;
+            }
+            // Among runs of exactly k rooms that hold the group, the tightest
+            long sum = 0;
+            for (int i = 0; i < m; i++) {
+                sum += beds[i];
+                if (i >= k) {
+                    sum -= beds[i - k];
+                }
+                if (i < k - 1 || sum < students) {
+                    continue;
+                }
+                int first = i - k + 1;
+                // Positions may be far apart; an int difference could overflow
+                long span = (long) pos[i] - pos[first];
+                int leftover = (int) (sum - students);
+                if (better(k, span, leftover, e.getKey(), pos[first], best)) {
+                    best = fill(e.getKey(), rows, beds, first, k, students, span, leftover, pos[first]);
+                }
+            }
+        }
+        return best;
+    }
+
+    /** Fewer rooms, then shorter walk, then fewer beds left empty, then lower floor and position. */
+    private static boolean better(int rooms, long span, int leftover, int floor, int start, Plan other) {
+        if (other == null) {
+            return true;
+        }
+        if (rooms != other.rows().length) {
+            return rooms < other.rows().length;
+        }
+        if (span != other.span()) {
+            return span < other.span();
+        }
+        if (leftover != other.leftover()) {
+            return leftover < other.leftover();
+        }
+        return floor != other.floor() ? floor < other.floor() : start < other.start();
+    }
+
+    /** Length of the shortest run of consecutive rooms with at least {@code students} free beds. */
+    private static int fewestRooms(int[] free, int m, int students) {
+        int k = Integer.MAX_VALUE;
+        long sum = 0;
+        int left = 0;
+        for (int right = 0; right < m; right++) {
+            sum += free[right];
+            while (sum - free[left] >= students) {
+                sum -= free[left++];
+            }
+            if (sum >= students) {
+                k = Math.min(k, right - left + 1);
+            }
+        }
+        return k;
+    }
+
+    private static Plan fill(int floor, int[] rows, int[] free, int first, int k, int students,
+                             long span, int leftover, int start) {
+        int[] runRows = Arrays.copyOfRange(rows, first, first + k);
+        int[] take = new int[k];
+        int remaining = students;
+        for (int i = 0; i < k; i++) {
+            take[i] = Math.min(remaining, free[first + i]);
+            remaining -= take[i];
+        }
+        return new Plan(floor, runRows, take, span, leftover, start);
+    }
+}
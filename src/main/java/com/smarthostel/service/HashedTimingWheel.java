@@ -0,0 +1,169 @@
+package com.smarthostel.service;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed timing wheel (Varghese & Lauck): one ticker thread and a ring of
+ * buckets, each a doubly linked list of timeouts. Scheduling and cancelling
+ * are O(1) - callers only enqueue, and the ticker moves entries into their
+ * bucket - so tens of thousands of pending timeouts cost one thread and a few
+ * words each. Expiry precision is one tick.
+ */
+public class HashedTimingWheel implements AutoCloseable {
+    private static final int MAX_ADDS_PER_TICK = 100_000;
+
+    public interface Timeout {
+        /** True if this call stopped the task from running. */
+        boolean cancel();
+    }
+
+    private final long tickNanos;
+    private final Entry[] buckets;
+    private final int mask;
+    private final Queue<Entry> pendingAdds = new ConcurrentLinkedQueue<>();
+    private final Queue<Entry> pendingCancels = new ConcurrentLinkedQueue<>();
+    private final Thread worker;
+    private final long startNanos = System.nanoTime();
+    private volatile boolean running = true;
+    private long tick;
+
+    public HashedTimingWheel(long tickDuration, TimeUnit unit, int wheelSize, String threadName) {
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1;
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        this.buckets = new Entry[size];
+        this.mask = size - 1;
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        Entry e = new Entry(task, System.nanoTime() - startNanos + unit.toNanos(delay));
+        pendingAdds.add(e);
+        return e;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = (tick + 1) * tickNanos;
+            long sleep = deadline - (System.nanoTime() - startNanos);
+            if (sleep > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleep);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                }
+                continue;
+            }
+            processCancels();
+            transferAdds();
+            expire(tick & mask);
+            tick++;
+        }
+    }
+
+    private void processCancels() {
+        Entry e;
+        while ((e = pendingCancels.poll()) != null) {
+            unlink(e);
+        }
+    }
+
+    private void transferAdds() {
+        for (int i = 0; i < MAX_ADDS_PER_TICK; i++) {
+            Entry e = pendingAdds.poll();
+            if (e == null) {
+                return;
+            }
+            if (e.state.get() != Entry.PENDING) {
+                continue;
+            }
+            long due = e.deadlineNanos / tickNanos;
+            e.rounds = (due - tick) / buckets.length;
+            int idx = (int) (Math.max(due, tick) & mask);
+            e.bucket = idx;
+            e.next = buckets[idx];
+            if (e.next != null) {
+                e.next.prev = e;
+            }
+            buckets[idx] = e;
+        }
+    }
+
+    private void expire(long idx) {
+        Entry e = buckets[(int) idx];
+        while (e != null) {
+            Entry next = e.next;
+            if (e.rounds <= 0) {
+                unlink(e);
+                if (e.state.compareAndSet(Entry.PENDING, Entry.EXPIRED)) {
+                    try {
+                        e.task.run();
+                    } catch (RuntimeException ignored) {
+                        // a failing task must not stop the wheel
+                    }
+                }
+            } else {
+                e.rounds--;
+            }
+            e = next;
+        }
+    }
+
+    private void unlink(Entry e) {
+        if (e.bucket < 0) {
+            return;
+        }
+        if (e.prev != null) {
+            e.prev.next = e.next;
+        } else {
+            buckets[e.bucket] = e.next;
+        }
+        if (e.next != null) {
+            e.next.prev = e.prev;
+        }
+        e.prev = null;
+        e.next = null;
+        e.bucket = -1;
+    }
+
+    private final class Entry implements Timeout {
+        static final int PENDING = 0;
+        static final int CANCELLED = 1;
+        static final int EXPIRED = 2;
+
+        final Runnable task;
+        final long deadlineNanos;
+        final AtomicInteger state = new AtomicInteger(PENDING);
+        // owned by the ticker thread
+        long rounds;
+        int bucket = -1;
+        Entry prev;
+        Entry next;
+
+        Entry(Runnable task, long deadlineNanos) {
+            this.task = task;
+            this.deadlineNanos = deadlineNanos;
+        }
+
+        @Override
+        public boolean cancel() {
+            if (!state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+            pendingCancels.add(this);
+            return true;
+        }
+    }
+}
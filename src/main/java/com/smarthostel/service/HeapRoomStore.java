@@ -0,0 +1,93 @@
+package com.smarthostel.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Default store: parallel primitive arrays on the Java heap. */
+public class HeapRoomStore implements RoomStore {
+    static final byte FLAG_WASHROOM = 1;
+    static final byte FLAG_AC = 2;
+
+    private String[] roomNos = new String[16];
+    private int[] capacities = new int[16];
+    private int[] occupied = new int[16];
+    private byte[] flags = new byte[16];
+    private final Map<String, Integer> rowsByNo = new HashMap<>();
+    private int size;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int add(String roomNo, int capacity, boolean ac, boolean washroom) {
+        if (size == capacities.length) {
+            int n = size * 2;
+            roomNos = Arrays.copyOf(roomNos, n);
+            capacities = Arrays.copyOf(capacities, n);
+            occupied = Arrays.copyOf(occupied, n);
+            flags = Arrays.copyOf(flags, n);
+        }
+        int row = size++;
+        roomNos[row] = roomNo;
+        capacities[row] = capacity;
+        flags[row] = (byte) ((ac ? FLAG_AC : 0) | (washroom ? FLAG_WASHROOM : 0));
+        rowsByNo.put(HostelService.normalizeRoomNo(roomNo), row);
+        return row;
+    }
+
+    @Override
+    public int find(String normalizedRoomNo) {
+        Integer row = rowsByNo.get(normalizedRoomNo);
+        return row == null ? -1 : row;
+    }
+
+    @Override
+    public String roomNo(int row) {
+        return roomNos[row];
+    }
+
+    @Override
+    public int capacity(int row) {
+        return capacities[row];
+    }
+
+    @Override
+    public int occupied(int row) {
+        return occupied[row];
+    }
+
+    @Override
+    public void setOccupied(int row, int value) {
+        occupied[row] = value;
+    }
+
+    @Override
+    public boolean hasAC(int row) {
+        return (flags[row] & FLAG_AC) != 0;
+    }
+
+    @Override
+    public boolean hasWashroom(int row) {
+        return (flags[row] & FLAG_WASHROOM) != 0;
+    }
+
+    @Override
+    public int[] scan(int minCapacity, int minFreeBeds, boolean requireAC, boolean requireWashroom) {
+        int required = (requireAC ? FLAG_AC : 0) | (requireWashroom ? FLAG_WASHROOM : 0);
+        int[] out = new int[16];
+        int n = 0;
+        for (int row = 0; row < size; row++) {
+            int cap = capacities[row];
+            if (cap >= minCapacity && cap - occupied[row] >= minFreeBeds && (flags[row] & required) == required) {
+                if (n == out.length) {
+                    out = Arrays.copyOf(out, n * 2);
+                }
+                out[n++] = row;
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+}
@@ -0,0 +1,130 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.AuditEvent;
+import com.smarthostel.model.Hold;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tentative allocations. A hold occupies beds right away; if it is neither
+ * confirmed nor cancelled within the TTL, the timing wheel expires it and
+ * the beds go straight back to {@link HostelService}. Expiries are written
+ * to the {@link AuditLog} as the "system" actor; everything else is recorded
+ * by the controller that knows who asked.
+ *
+ * Removing the hold from {@code active} decides who wins between confirm,
+ * cancel and expiry, so each hold is resolved exactly once.
+ */
+@Service
+public class HoldService {
+    static final String SYSTEM_ACTOR = "system";
+
+    private final HostelService hostelService;
+    private final AuditLog auditLog;
+    private final Duration ttl;
+    private final HashedTimingWheel wheel;
+    private final Map<String, ActiveHold> active = new ConcurrentHashMap<>();
+
+    public HoldService(HostelService hostelService, AuditLog auditLog,
+                       @Value("${hostel.holds.ttl:10m}") Duration ttl,
+                       @Value("${hostel.holds.tick:100ms}") Duration tick) {
+        this.hostelService = hostelService;
+        this.auditLog = auditLog;
+        this.ttl = ttl;
+        this.wheel = new HashedTimingWheel(tick.toNanos(), TimeUnit.NANOSECONDS, 512, "hold-expiry");
+    }
+
+    /** Holds beds in the smallest fitting room of {@code block}, or of any block when null. */
+    public Optional<Hold> hold(String block, int students, boolean needsAC, boolean needsWashroom) {
+        return hostelService.allocateRoom(block, students, needsAC, needsWashroom)
+                .map(room -> holdOccupied(room.getRoomNo(), students));
+    }
+
+    /**
+     * Turns beds the caller has already occupied (e.g. freed by an approved
+     * defrag proposal) into a hold, released again unless confirmed in time.
+     */
+    public Hold holdOccupied(String roomNo, int students) {
+        String id = UUID.randomUUID().toString();
+        ActiveHold h = new ActiveHold(id, roomNo, students, Instant.now().plus(ttl));
+        active.put(id, h);
+        h.timeout = wheel.schedule(() -> expire(h), ttl.toNanos(), TimeUnit.NANOSECONDS);
+        return h.view(Hold.Status.HELD);
+    }
+
+    public Optional<Hold> getHold(String id) {
+        return Optional.ofNullable(active.get(id)).map(h -> h.view(Hold.Status.HELD));
+    }
+
+    /** Makes the allocation permanent. Empty if the hold is unknown or already resolved. */
+    public Optional<Hold> confirm(String id) {
+        ActiveHold h = active.remove(id);
+        if (h == null) {
+            return Optional.empty();
+        }
+        h.cancelTimeout();
+        return Optional.of(h.view(Hold.Status.CONFIRMED));
+    }
+
+    public Optional<Hold> cancel(String id) {
+        ActiveHold h = active.remove(id);
+        if (h == null) {
+            return Optional.empty();
+        }
+        h.cancelTimeout();
+        hostelService.releaseBeds(h.roomNo, h.students);
+        return Optional.of(h.view(Hold.Status.CANCELLED));
+    }
+
+    public int getActiveCount() {
+        return active.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+    }
+
+    private void expire(ActiveHold h) {
+        if (active.remove(h.id, h)) {
+            boolean released = hostelService.releaseBeds(h.roomNo, h.students).isPresent();
+            auditLog.record(SYSTEM_ACTOR, AuditEvent.Action.EXPIRE, h.roomNo, h.students, false, false, released);
+        }
+    }
+
+    private static final class ActiveHold {
+        final String id;
+        final String roomNo;
+        final int students;
+        final Instant expiresAt;
+        volatile HashedTimingWheel.Timeout timeout;
+
+        ActiveHold(String id, String roomNo, int students, Instant expiresAt) {
+            this.id = id;
+            this.roomNo = roomNo;
+            this.students = students;
+            this.expiresAt = expiresAt;
+        }
+
+        void cancelTimeout() {
+            // may still be null if resolved while being scheduled; expire() is then a no-op
+            HashedTimingWheel.Timeout t = timeout;
+            if (t != null) {
+                t.cancel();
+            }
+        }
+
+        Hold view(Hold.Status status) {
+            return new Hold(id, roomNo, students, expiresAt, status);
+        }
+    }
+}
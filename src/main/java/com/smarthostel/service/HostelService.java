@@ -1,20 +1,61 @@
 package com.smarthostel.service;
 
+import com.smarthostel.dto.GroupAllocation;
+import com.smarthostel.dto.RoomStats;
+import com.smarthostel.model.DefragProposal;
 import com.smarthostel.model.Room;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * The room catalogue, partitioned by block. Each {@link BlockPartition} has
+ * its own lock, so work in one block never waits on another. Room numbers
+ * stay unique across the whole hostel. Operations without a block read the
+ * partitions one at a time; no call ever holds two block locks.
+ */
 @Service
 public class HostelService {
-    private final List<Room> rooms = new ArrayList<>();
+    public static final String DEFAULT_BLOCK = "Main";
+    /** Most rooms a prefix lookup returns. */
+    public static final int LOOKUP_LIMIT = 20;
+    /** Most beds one room may have; AddRoomRequest enforces the same bound. */
+    public static final int MAX_CAPACITY = 1000;
+
+    private static final Comparator<Room> ROOM_ORDER =
+            Comparator.comparingInt(Room::getCapacity).thenComparing(Room::getRoomNo);
+    private static final Comparator<BlockPartition> BLOCK_ORDER =
+            Comparator.comparing(p -> p.name().toLowerCase(Locale.ROOT));
+
+    private final RoomStoreFactory storeFactory;
+    // normalized block name -> partition
+    private final ConcurrentHashMap<String, BlockPartition> blocks = new ConcurrentHashMap<>();
+    // normalized room number -> owning partition; claiming an entry here reserves the number
+    private final ConcurrentHashMap<String, BlockPartition> roomBlocks = new ConcurrentHashMap<>();
+    private final RoomNumberIndex roomNumbers = new RoomNumberIndex(LOOKUP_LIMIT);
 
     public HostelService() {
+        this(HeapRoomStore::new);
+    }
+
+    /** Uses a {@link RoomStoreFactory} bean when one is defined (e.g. hostel.store=offheap). */
+    @Autowired
+    public HostelService(ObjectProvider<RoomStoreFactory> storeFactory) {
+        this(storeFactory.getIfAvailable(() -> HeapRoomStore::new));
+    }
+
+    public HostelService(RoomStoreFactory storeFactory) {
+        this.storeFactory = storeFactory;
         // Preload sample data (mirrors your Swing app)
         addRoom("101", 1, true, true);
         addRoom("102", 2, false, true);
@@ -23,44 +64,345 @@ public class HostelService {
         addRoom("201", 6, false, false);
     }
 
-    public synchronized boolean addRoom(String roomNo, int capacity, boolean ac, boolean washroom) {
+    public boolean addRoom(String roomNo, int capacity, boolean ac, boolean washroom) {
+        return addRoom(null, roomNo, capacity, ac, washroom);
+    }
+
+    /** Adds a room to {@code block} (the default block when blank), creating the block if needed. */
+    public boolean addRoom(String block, String roomNo, int capacity, boolean ac, boolean washroom) {
+        return addRoom(block, roomNo, capacity, ac, washroom, null, null);
+    }
+
+    /**
+     * Adds a room with its place in the block: rooms on the same floor are
+     * neighbours in position order. Rooms without a floor and position are
+     * never used for group allocation. False if the room number is taken in
+     * any block, or the floor and position in this one, or if the capacity
+     * is outside 1..{@link #MAX_CAPACITY}. A rejected add changes nothing.
+     */
+    public boolean addRoom(String block, String roomNo, int capacity, boolean ac, boolean washroom,
+                           Integer floor, Integer position) {
         String normalized = normalizeRoomNo(roomNo);
-        if (normalized.isEmpty()) {
+        if (normalized.isEmpty() || capacity < 1 || capacity > MAX_CAPACITY) {
             return false;
         }
-        for (Room r : rooms) {
-            if (normalizeRoomNo(r.getRoomNo()).equalsIgnoreCase(normalized)) {
-                return false;
+        String key = normalizeBlock(block);
+        BlockPartition partition = blocks.get(key);
+        // A new block is published only once the room number is ours, so a taken number leaves no empty block
+        BlockPartition created = null;
+        if (partition == null) {
+            partition = created = new BlockPartition(displayBlock(block), storeFactory.create());
+        }
+        if (roomBlocks.putIfAbsent(normalized, partition) != null) {
+            if (created != null) {
+                created.close();
             }
+            return false;
         }
-        rooms.add(new Room(roomNo.trim(), capacity, ac, washroom));
+        if (created != null) {
+            BlockPartition existing = blocks.putIfAbsent(key, created);
+            if (existing != null) {
+                // another add created the block meanwhile
+                created.close();
+                roomBlocks.replace(normalized, created, existing);
+                partition = existing;
+            }
+        }
+        // A position clash means the block already has a room, so it is never left empty here
+        if (!partition.add(roomNo.trim(), capacity, ac, washroom, floor, position)) {
+            roomBlocks.remove(normalized, partition);
+            return false;
+        }
+        roomNumbers.add(normalized, roomNo.trim(), capacity);
         return true;
     }
 
-    public synchronized List<Room> getAllRooms() {
-        return new ArrayList<>(rooms);
+    /** Changes whenever any block's rooms or occupancy change. */
+    public long getVersion() {
+        long version = 0;
+        for (BlockPartition p : blocks.values()) {
+            version += p.version();
+        }
+        return version;
+    }
+
+    public List<String> getBlocks() {
+        List<String> names = new ArrayList<>();
+        for (BlockPartition p : partitions()) {
+            names.add(p.name());
+        }
+        return names;
+    }
+
+    /** All rooms, grouped by block (blocks in name order, rooms in insertion order). */
+    public List<Room> getAllRooms() {
+        List<Room> all = new ArrayList<>();
+        for (BlockPartition p : partitions()) {
+            p.collectAll(all);
+        }
+        return all;
+    }
+
+    /**
+     * One page of a block's rooms in insertion order, for streaming the
+     * catalogue without copying it all under the lock. Rooms are only ever
+     * appended, so paging by offset never skips or repeats a room.
+     */
+    public List<Room> getRooms(String block, int offset, int limit) {
+        BlockPartition p = blocks.get(normalizeBlock(block));
+        List<Room> page = new ArrayList<>();
+        if (p != null) {
+            p.collect(offset, limit, page);
+        }
+        return page;
+    }
+
+    /**
+     * Every room as it was when the snapshot opened, block by block. Rooms are
+     * read a page at a time under their block's lock; an occupancy change to
+     * a room not yet read keeps its old value for the snapshot, so memory
+     * grows with the changes made while it is open, not with the catalogue.
+     * Each block is captured at its own instant (no call holds two block
+     * locks). Must be closed.
+     */
+    public CatalogueSnapshot openSnapshot() {
+        return new CatalogueSnapshot(partitions());
+    }
+
+    public Optional<Room> findRoom(String roomNo) {
+        String normalized = normalizeRoomNo(roomNo);
+        BlockPartition p = roomBlocks.get(normalized);
+        return p == null ? Optional.empty() : p.find(normalized);
+    }
+
+    /**
+     * Rooms whose number starts with {@code prefix} (ignoring case and
+     * surrounding spaces), at most {@code limit} of them, smallest capacity
+     * first as in {@link #searchRooms}. Answered from a prefix index without
+     * touching the rest of the catalogue.
+     */
+    public List<Room> lookupRooms(String prefix, int limit) {
+        List<Room> result = new ArrayList<>();
+        for (String roomNo : roomNumbers.lookup(normalizeRoomNo(prefix), Math.min(limit, LOOKUP_LIMIT))) {
+            findRoom(roomNo).ifPresent(result::add);
+        }
+        return result;
+    }
+
+    public List<Room> searchRooms(int minCapacity, boolean requireAC, boolean requireWashroom) {
+        return searchRooms(null, minCapacity, requireAC, requireWashroom);
+    }
+
+    /** Searches one block, or every block when {@code block} is null or blank. */
+    public List<Room> searchRooms(String block, int minCapacity, boolean requireAC, boolean requireWashroom) {
+        List<Room> result = new ArrayList<>();
+        for (BlockPartition p : scope(block)) {
+            p.search(minCapacity, requireAC, requireWashroom, result);
+        }
+        result.sort(ROOM_ORDER);
+        return result;
+    }
+
+    public Optional<Room> allocateRoom(int students, boolean needsAC, boolean needsWashroom) {
+        return allocateRoom(null, students, needsAC, needsWashroom);
+    }
+
+    /**
+     * Places the group in the smallest room that still has enough free beds
+     * and the required facilities, and marks those beds as occupied. Beds
+     * booked for any day from today on are not free (see
+     * {@link #bookBeds}). With a
+     * block, only that block is considered. Without one, each block is asked
+     * for its best fit (one lock at a time) and the winning block allocates
+     * its current best fit; if that block filled up meanwhile, the round is
+     * repeated.
+     */
+    public Optional<Room> allocateRoom(String block, int students, boolean needsAC, boolean needsWashroom) {
+        return allocate(blocks, block, students, needsAC, needsWashroom);
+    }
+
+    /**
+     * The allocation rule of {@link #allocateRoom(String, int, boolean, boolean)}
+     * over any set of partitions keyed by normalized block name, so capacity
+     * simulations place groups exactly as the live catalogue would, with one
+     * assumption: simulation partitions ({@link BlockPartition#over}) carry no
+     * bookings, so a simulated intake treats booked beds as free. Plans for an
+     * intake that overlaps future bookings overstate the beds on offer.
+     */
+    static Optional<Room> allocate(Map<String, BlockPartition> blocks, String block, int students,
+                                   boolean needsAC, boolean needsWashroom) {
+        if (!anyBlock(block)) {
+            BlockPartition p = blocks.get(normalizeBlock(block));
+            return p == null ? Optional.empty() : p.allocateBest(students, needsAC, needsWashroom);
+        }
+        while (true) {
+            BlockPartition winner = null;
+            BlockPartition.Candidate best = null;
+            for (BlockPartition p : blocks.values()) {
+                BlockPartition.Candidate c = p.peekBest(students, needsAC, needsWashroom);
+                if (c != null && c.betterThan(best)) {
+                    best = c;
+                    winner = p;
+                }
+            }
+            if (winner == null) {
+                return Optional.empty();
+            }
+            Optional<Room> room = winner.allocateBest(students, needsAC, needsWashroom);
+            if (room.isPresent()) {
+                return room;
+            }
+        }
     }
 
-    public synchronized List<Room> searchRooms(int minCapacity, boolean requireAC, boolean requireWashroom) {
-        return rooms.stream()
-                .filter(r -> r.getCapacity() >= minCapacity)
-                .filter(r -> !requireAC || r.isHasAC())
-                .filter(r -> !requireWashroom || r.isHasAttachedWashroom())
-                .sorted(Comparator.comparingInt(Room::getCapacity).thenComparing(Room::getRoomNo))
-                .collect(Collectors.toList());
+    /**
+     * Places a group that may not fit in one room across the fewest
+     * neighbouring rooms on one floor (then the shortest stretch of corridor,
+     * then the fewest beds left empty). All of the group's beds are occupied
+     * in one step under the block's lock, or none are. Without a block, each
+     * block proposes its best run and the best proposal wins, as in
+     * {@link #allocateRoom(String, int, boolean, boolean)}.
+     */
+    public Optional<GroupAllocation> allocateGroup(String block, int students, boolean needsAC, boolean needsWashroom) {
+        if (!anyBlock(block)) {
+            BlockPartition p = blocks.get(normalizeBlock(block));
+            return p == null ? Optional.empty() : p.allocateGroup(students, needsAC, needsWashroom);
+        }
+        while (true) {
+            BlockPartition winner = null;
+            FloorIndex.Plan best = null;
+            // Name order, so ties go to the first block deterministically
+            for (BlockPartition p : partitions()) {
+                FloorIndex.Plan plan = p.peekGroup(students, needsAC, needsWashroom);
+                if (plan != null && plan.betterThan(best)) {
+                    best = plan;
+                    winner = p;
+                }
+            }
+            if (winner == null) {
+                return Optional.empty();
+            }
+            Optional<GroupAllocation> group = winner.allocateGroup(students, needsAC, needsWashroom);
+            if (group.isPresent()) {
+                return group;
+            }
+        }
     }
 
-    public synchronized Optional<Room> allocateRoom(int students, boolean needsAC, boolean needsWashroom) {
-        List<Room> candidates = searchRooms(students, needsAC, needsWashroom);
-        if (candidates.isEmpty()) {
-            return Optional.empty();
+    /**
+     * Occupies beds in a specific room (placements decided elsewhere, e.g. by
+     * matching). Empty if the room does not exist or has fewer free beds,
+     * counting beds booked from today on as taken.
+     */
+    public Optional<Room> occupyBeds(String roomNo, int students) {
+        String normalized = normalizeRoomNo(roomNo);
+        BlockPartition p = roomBlocks.get(normalized);
+        return p == null ? Optional.empty() : p.occupy(normalized, students);
+    }
+
+    /**
+     * Frees beds in a room. Empty if the room does not exist or fewer than
+     * {@code students} beds are occupied.
+     */
+    public Optional<Room> releaseBeds(String roomNo, int students) {
+        String normalized = normalizeRoomNo(roomNo);
+        BlockPartition p = roomBlocks.get(normalized);
+        return p == null ? Optional.empty() : p.release(normalized, students);
+    }
+
+    /**
+     * Moves students between rooms of one block and occupies the beds that
+     * frees in {@code roomNo} for a waiting group, as one step under the
+     * block's lock: either everything fits and is applied, or nothing is.
+     */
+    public Optional<Room> applyMoves(String block, List<DefragProposal.Move> moves, String roomNo, int students) {
+        BlockPartition p = blocks.get(normalizeBlock(block));
+        return p == null ? Optional.empty() : p.applyMoves(moves, normalizeRoomNo(roomNo), students);
+    }
+
+    /**
+     * Rooms with at least {@code students} beds free on every day of
+     * [from, to): neither occupied nor booked. {@code block} may be null for
+     * all blocks; smallest capacity first, as in {@link #searchRooms}.
+     */
+    public List<Room> searchAvailable(String block, int students, boolean requireAC, boolean requireWashroom,
+                                      LocalDate from, LocalDate to) {
+        List<Room> result = new ArrayList<>();
+        for (BlockPartition p : scope(block)) {
+            p.searchAvailable(students, requireAC, requireWashroom, from.toEpochDay(), to.toEpochDay(), result);
         }
-        candidates.sort(Comparator.comparingInt(Room::getCapacity));
-        return Optional.of(candidates.get(0));
+        result.sort(ROOM_ORDER);
+        return result;
     }
 
-    private String normalizeRoomNo(String roomNo) {
+    /**
+     * Books beds in a room for [checkIn, checkOut) if they are free on every
+     * one of those days. Checked and recorded under the block's lock, the
+     * same lock every allocation takes, so the two can never overbook a room.
+     */
+    public boolean bookBeds(String roomNo, int students, LocalDate checkIn, LocalDate checkOut) {
+        String normalized = normalizeRoomNo(roomNo);
+        BlockPartition p = roomBlocks.get(normalized);
+        return p != null && p.book(normalized, students, checkIn.toEpochDay(), checkOut.toEpochDay());
+    }
+
+    /** Gives back beds taken by {@link #bookBeds} with the same arguments. */
+    public void cancelBooking(String roomNo, int students, LocalDate checkIn, LocalDate checkOut) {
+        String normalized = normalizeRoomNo(roomNo);
+        BlockPartition p = roomBlocks.get(normalized);
+        if (p != null) {
+            p.unbook(normalized, students, checkIn.toEpochDay(), checkOut.toEpochDay());
+        }
+    }
+
+    public RoomStats getStats() {
+        return getStats(null);
+    }
+
+    /** Stats for one block, or the whole hostel when {@code block} is null or blank. */
+    public RoomStats getStats(String block) {
+        AvailabilityStats total = new AvailabilityStats();
+        for (BlockPartition p : scope(block)) {
+            p.addStatsTo(total);
+        }
+        return total.snapshot();
+    }
+
+    /** Closes every block's store, giving back any off-heap memory. */
+    @PreDestroy
+    public void shutdown() {
+        for (BlockPartition p : partitions()) {
+            p.close();
+        }
+    }
+
+    private List<BlockPartition> partitions() {
+        List<BlockPartition> list = new ArrayList<>(blocks.values());
+        list.sort(BLOCK_ORDER);
+        return list;
+    }
+
+    private List<BlockPartition> scope(String block) {
+        if (anyBlock(block)) {
+            return partitions();
+        }
+        BlockPartition p = blocks.get(normalizeBlock(block));
+        return p == null ? List.of() : List.of(p);
+    }
+
+    private static boolean anyBlock(String block) {
+        return block == null || block.isBlank();
+    }
+
+    static String normalizeRoomNo(String roomNo) {
         return roomNo == null ? "" : roomNo.trim().toLowerCase(Locale.ROOT);
     }
-}
 
+    static String normalizeBlock(String block) {
+        return normalizeRoomNo(displayBlock(block));
+    }
+
+    private static String displayBlock(String block) {
+        return block == null || block.isBlank() ? DEFAULT_BLOCK : block.trim();
+    }
+}
@@ -0,0 +1,124 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Job;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Runs long-running jobs off the request threads and keeps their status for
+ * polling. A small fixed pool runs the jobs themselves; jobs that need more
+ * cores fork their work onto the common fork/join pool. Finished jobs are
+ * forgotten after the retention period.
+ */
+@Service
+public class JobRegistry {
+    /** Work run by a job; reports progress as it goes. */
+    @FunctionalInterface
+    public interface Task<T> {
+        T run(Progress progress) throws Exception;
+    }
+
+    @FunctionalInterface
+    public interface Progress {
+        /** @param fraction 0.0 to 1.0 */
+        void update(double fraction, String message);
+    }
+
+    private final Map<String, RunningJob> jobs = new ConcurrentHashMap<>();
+    private final ExecutorService runners;
+    private final Duration retention;
+
+    public JobRegistry(@Value("${hostel.jobs.concurrency:2}") int concurrency,
+                       @Value("${hostel.jobs.retention:1h}") Duration retention) {
+        this.retention = retention;
+        this.runners = Executors.newFixedThreadPool(concurrency, r -> {
+            Thread t = new Thread(r, "job-runner");
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    public Job submit(String type, Task<?> task) {
+        evictExpired();
+        RunningJob job = new RunningJob(UUID.randomUUID().toString(), type);
+        jobs.put(job.id, job);
+        runners.execute(() -> job.run(task));
+        return job.view();
+    }
+
+    public Optional<Job> get(String id) {
+        return Optional.ofNullable(jobs.get(id)).map(RunningJob::view);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        runners.shutdownNow();
+    }
+
+    private void evictExpired() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(j -> j.finishedAt != null && j.finishedAt.isBefore(cutoff));
+    }
+
+    private static final class RunningJob implements Progress {
+        final String id;
+        final String type;
+        final Instant submittedAt = Instant.now();
+        volatile Job.Status status = Job.Status.QUEUED;
+        volatile double progress;
+        volatile String message = "Queued";
+        volatile Instant finishedAt;
+        volatile Object result;
+
+        RunningJob(String id, String type) {
+            this.id = id;
+            this.type = type;
+        }
+
+        void run(Task<?> task) {
+            status = Job.Status.RUNNING;
+            try {
+                Object r = task.run(this);
+                result = r;
+                progress = 1.0;
+                message = "Done";
+                status = Job.Status.SUCCEEDED;
+                finishedAt = Instant.now();
+            } catch (Exception e) {
+                fail(e);
+            } catch (Error e) {
+                // Report the job as failed, but leave the error to the runner thread's handler
+                fail(e);
+                throw e;
+            }
+        }
+
+        private void fail(Throwable e) {
+            message = e.getMessage() == null ? e.getClass().getSimpleName() : e.getMessage();
+            status = Job.Status.FAILED;
+            finishedAt = Instant.now();
+        }
+
+        @Override
+        public void update(double fraction, String message) {
+            this.progress = Math.max(0.0, Math.min(1.0, fraction));
+            this.message = message;
+        }
+
+        Job view() {
+            Job.Status s = status;
+            return new Job(id, type, s, progress, message, submittedAt, finishedAt,
+                    s == Job.Status.SUCCEEDED ? result : null);
+        }
+    }
+}
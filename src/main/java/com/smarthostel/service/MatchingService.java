@@ -0,0 +1,106 @@
+package com.smarthostel.service;
+
+import com.smarthostel.dto.GroupPreference;
+import com.smarthostel.dto.MatchingRequest;
+import com.smarthostel.dto.MatchingResult;
+import com.smarthostel.model.AuditEvent;
+import com.smarthostel.model.Job;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Preference-based cohort matching as a background job. The catalogue is
+ * read once at the start; the match itself runs on that snapshot, so the
+ * allocation locks are never held while it computes. With {@code apply}, the
+ * matched beds are occupied room by room at the end, and groups whose room
+ * filled up in the meantime are reported as conflicts. Each applied (or
+ * conflicting) placement is written to the {@link AuditLog} for the actor
+ * that submitted the job.
+ */
+@Service
+public class MatchingService {
+    static final String JOB_TYPE = "matching";
+
+    private final HostelService hostelService;
+    private final JobRegistry jobs;
+    private final AuditLog auditLog;
+
+    public MatchingService(HostelService hostelService, JobRegistry jobs, AuditLog auditLog) {
+        this.hostelService = hostelService;
+        this.jobs = jobs;
+        this.auditLog = auditLog;
+    }
+
+    public Job submit(MatchingRequest request, String actor) {
+        List<GroupPreference> groups = List.copyOf(request.getGroups());
+        int maxChoices = request.getMaxChoices();
+        boolean apply = request.isApply();
+        return jobs.submit(JOB_TYPE, progress -> match(groups, maxChoices, apply ? actor : null, progress));
+    }
+
+    public Optional<Job> getJob(String id) {
+        return jobs.get(id).filter(j -> JOB_TYPE.equals(j.getType()));
+    }
+
+    /** Only a non-null {@code applyAs} occupies the matched beds, on behalf of that actor. */
+    MatchingResult match(List<GroupPreference> groups, int maxChoices, String applyAs, JobRegistry.Progress progress) {
+        long start = System.nanoTime();
+        progress.update(0.0, "Reading catalogue");
+        DeferredAcceptanceMatcher matcher = new DeferredAcceptanceMatcher(hostelService.getAllRooms());
+        int[][] prefs = matcher.rankRooms(groups, maxChoices, progress, 0.05, 0.75);
+        int[] assigned = matcher.match(groups, prefs, progress, 0.75, 0.95);
+
+        List<MatchingResult.Assignment> assignments = new ArrayList<>();
+        List<GroupPreference> assignedGroups = new ArrayList<>();
+        List<String> unmatched = new ArrayList<>();
+        List<String> conflicts = new ArrayList<>();
+        int matchedStudents = 0;
+        int firstChoice = 0;
+        for (int g = 0; g < groups.size(); g++) {
+            GroupPreference group = groups.get(g);
+            int room = assigned[g];
+            if (room < 0) {
+                unmatched.add(group.getGroupId());
+                continue;
+            }
+            int rank = 1;
+            while (prefs[g][rank - 1] != room) {
+                rank++;
+            }
+            assignments.add(new MatchingResult.Assignment(group.getGroupId(), matcher.roomNo(room),
+                    matcher.block(room), group.getStudents(), rank));
+            assignedGroups.add(group);
+            matchedStudents += group.getStudents();
+            if (rank == 1) {
+                firstChoice++;
+            }
+        }
+
+        if (applyAs != null) {
+            progress.update(0.95, "Applying");
+            for (int i = 0; i < assignments.size(); i++) {
+                MatchingResult.Assignment a = assignments.get(i);
+                GroupPreference group = assignedGroups.get(i);
+                boolean applied = hostelService.occupyBeds(a.getRoomNo(), a.getStudents()).isPresent();
+                auditLog.record(applyAs, AuditEvent.Action.ALLOCATE, a.getRoomNo(), a.getStudents(),
+                        group.isNeedsAC(), group.isNeedsWashroom(), applied);
+                if (!applied) {
+                    conflicts.add(a.getGroupId());
+                }
+            }
+        }
+
+        MatchingResult result = new MatchingResult();
+        result.setAssignments(assignments);
+        result.setUnmatched(unmatched);
+        result.setMatchedStudents(matchedStudents);
+        result.setFirstChoice(firstChoice);
+        result.setApplied(applyAs != null);
+        result.setConflicts(conflicts);
+        result.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+}
@@ -0,0 +1,142 @@
+package com.smarthostel.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Radix trie over normalized room numbers for prefix lookup. Edges carry
+ * whole label runs, children are kept in arrays sorted by first character,
+ * and every node caches the best {@code k} rooms below it in (capacity,
+ * room number) order. A lookup walks at most one node per label run of the
+ * prefix and copies that cache, however many rooms share the prefix.
+ *
+ * Capacities never change, so the caches only change when a room is added.
+ */
+final class RoomNumberIndex {
+    private record Entry(int capacity, String roomNo) {
+        boolean before(Entry other) {
+            return capacity != other.capacity ? capacity < other.capacity : roomNo.compareTo(other.roomNo) < 0;
+        }
+    }
+
+    private static final class Node {
+        String label;
+        char[] firsts = new char[0];
+        Node[] children = new Node[0];
+        Entry[] top = new Entry[0];
+        int topSize;
+
+        Node(String label) {
+            this.label = label;
+        }
+    }
+
+    private final int k;
+    private final Node root = new Node("");
+
+    RoomNumberIndex(int k) {
+        this.k = k;
+    }
+
+    /** Indexes a room; {@code key} is its normalized number, unique across the hostel. */
+    synchronized void add(String key, String roomNo, int capacity) {
+        Entry e = new Entry(capacity, roomNo);
+        Node node = root;
+        offer(node, e);
+        int pos = 0;
+        while (pos < key.length()) {
+            int i = Arrays.binarySearch(node.firsts, key.charAt(pos));
+            if (i < 0) {
+                Node leaf = new Node(key.substring(pos));
+                offer(leaf, e);
+                insertChild(node, -i - 1, leaf);
+                return;
+            }
+            Node child = node.children[i];
+            int common = commonPrefix(child.label, key, pos);
+            if (common < child.label.length()) {
+                // Split the edge; the new middle node covers exactly what the old child covered
+                Node mid = new Node(child.label.substring(0, common));
+                child.label = child.label.substring(common);
+                mid.firsts = new char[] {child.label.charAt(0)};
+                mid.children = new Node[] {child};
+                mid.top = Arrays.copyOf(child.top, child.top.length);
+                mid.topSize = child.topSize;
+                node.children[i] = mid;
+                child = mid;
+            }
+            offer(child, e);
+            node = child;
+            pos += common;
+        }
+    }
+
+    /** Room numbers (as added) of the best {@code limit} rooms whose normalized number starts with {@code prefix}. */
+    synchronized List<String> lookup(String prefix, int limit) {
+        Node node = root;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            int i = Arrays.binarySearch(node.firsts, prefix.charAt(pos));
+            if (i < 0) {
+                return List.of();
+            }
+            Node child = node.children[i];
+            int common = commonPrefix(child.label, prefix, pos);
+            if (pos + common < prefix.length() && common < child.label.length()) {
+                return List.of(); // diverges inside the edge
+            }
+            node = child;
+            pos += common;
+        }
+        int n = Math.min(limit, node.topSize);
+        List<String> result = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            result.add(node.top[i].roomNo());
+        }
+        return result;
+    }
+
+    private void offer(Node node, Entry e) {
+        int size = node.topSize;
+        if (size == k && !e.before(node.top[size - 1])) {
+            return;
+        }
+        if (size == node.top.length) {
+            node.top = Arrays.copyOf(node.top, Math.min(k, Math.max(1, size * 2)));
+        }
+        int i = size == k ? size - 1 : size;
+        while (i > 0 && e.before(node.top[i - 1])) {
+            node.top[i] = node.top[i - 1];
+            i--;
+        }
+        node.top[i] = e;
+        if (size < k) {
+            node.topSize++;
+        }
+    }
+
+    private static void insertChild(Node node, int at, Node child) {
+        int n = node.firsts.length;
+        char[] firsts = new char[n + 1];
+        Node[] children = new Node[n + 1];
+        System.arraycopy(node.firsts, 0, firsts, 0, at);
+        System.arraycopy(node.children, 0, children, 0, at);
+        firsts[at] = child.label.charAt(0);
+        children[at] = child;
+        System.arraycopy(node.firsts, at, firsts, at + 1, n - at);
+        System.arraycopy(node.children, at, children, at + 1, n - at);
+        node.firsts = firsts;
+        node.children = children;
+    }
+
+    /** Length of the common prefix of {@code label} and {@code key} starting at {@code pos}. */
+    private static int commonPrefix(String label, String key, int pos) {
+        int max = Math.min(label.length(), key.length() - pos);
+        int i = 0;
+        while (i < max && label.charAt(i) == key.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+}
@@ -0,0 +1,49 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Room;
+
+/**
+ * Columnar storage behind {@link HostelService}. Rooms are addressed by row
+ * (0..size-1, in insertion order) and {@link Room} objects are only
+ * materialized for rows that end up in a response.
+ *
+ * Implementations are not thread-safe; HostelService calls them under its lock.
+ */
+public interface RoomStore extends AutoCloseable {
+    int size();
+
+    /** Appends a room and returns its row. */
+    int add(String roomNo, int capacity, boolean ac, boolean washroom);
+
+    /** Row of the room with this normalized number, or -1. */
+    int find(String normalizedRoomNo);
+
+    String roomNo(int row);
+
+    int capacity(int row);
+
+    int occupied(int row);
+
+    void setOccupied(int row, int occupied);
+
+    boolean hasAC(int row);
+
+    boolean hasWashroom(int row);
+
+    /**
+     * Rows with capacity >= minCapacity, at least minFreeBeds free beds and
+     * the required facilities, in row order.
+     */
+    int[] scan(int minCapacity, int minFreeBeds, boolean requireAC, boolean requireWashroom);
+
+    default Room materialize(int row) {
+        Room r = new Room(roomNo(row), capacity(row), hasAC(row), hasWashroom(row));
+        r.setOccupied(occupied(row));
+        return r;
+    }
+
+    /** Frees memory held outside the heap, if any. The store must not be used afterwards. */
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,10 @@
+package com.smarthostel.service;
+
+/**
+ * Creates the {@link RoomStore} used by {@link HostelService}. Declare a bean
+ * of this type to replace the default {@link HeapRoomStore}.
+ */
+@FunctionalInterface
+public interface RoomStoreFactory {
+    RoomStore create();
+}
@@ -0,0 +1,74 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Room;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Single-flight front for {@link HostelService#searchRooms}: identical searches
+ * that arrive while one is already running wait for that result instead of
+ * taking the service lock and sorting again. Queries are keyed by the
+ * catalogue version, so a change to the catalogue always starts a fresh run.
+ */
+@Service
+public class SearchCoalescer {
+    private final HostelService hostelService;
+    private final ConcurrentHashMap<Key, CompletableFuture<List<Room>>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong executions = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+
+    public SearchCoalescer(HostelService hostelService) {
+        this.hostelService = hostelService;
+    }
+
+    public List<Room> searchRooms(String block, int minCapacity, boolean requireAC, boolean requireWashroom) {
+        Key key = new Key(block == null || block.isBlank() ? "" : HostelService.normalizeBlock(block),
+                minCapacity, requireAC, requireWashroom, hostelService.getVersion());
+        CompletableFuture<List<Room>> mine = new CompletableFuture<>();
+        CompletableFuture<List<Room>> leader = inFlight.putIfAbsent(key, mine);
+        if (leader != null) {
+            coalesced.incrementAndGet();
+            return await(leader);
+        }
+
+        executions.incrementAndGet();
+        try {
+            // shared between callers, so it must not be mutable
+            mine.complete(List.copyOf(hostelService.searchRooms(block, minCapacity, requireAC, requireWashroom)));
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+        } finally {
+            inFlight.remove(key, mine);
+        }
+        return await(mine);
+    }
+
+    /** Searches that actually ran against the catalogue. */
+    public long getExecutions() {
+        return executions.get();
+    }
+
+    /** Searches that were served by another caller's in-flight run. */
+    public long getCoalesced() {
+        return coalesced.get();
+    }
+
+    private static List<Room> await(CompletableFuture<List<Room>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String block, int minCapacity, boolean requireAC, boolean requireWashroom, long version) {
+    }
+}
@@ -0,0 +1,204 @@
+package com.smarthostel.service;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * {@link RoomStore} that keeps every column off the Java heap (FFM API).
+ * - Rows live in fixed-size chunks; each chunk is one native segment laid out
+ *   column by column, so scans walk contiguous memory and never move on growth
+ * - Room numbers are UTF-8 bytes in an append-only string area; each chunk row
+ *   points at its bytes. Numbers are unique per store, so each is stored once
+ * - Lookup by normalized room number is an open-addressing int table keyed by
+ *   a hash column, decoding a string only to confirm a hash match
+ *
+ * The heap only holds the chunk/area handles and the int table, independent of
+ * how many rooms there are. Not thread-safe (HostelService locks around it).
+ * The native memory is only given back by {@link #close()}, which
+ * HostelService calls when the application context shuts down.
+ */
+public class OffHeapRoomStore implements RoomStore {
+    private static final int CHUNK_ROWS = 1 << 14;
+    private static final long CAP_OFF = 0;
+    private static final long OCC_OFF = 4L * CHUNK_ROWS;
+    private static final long HASH_OFF = 8L * CHUNK_ROWS;
+    private static final long NAME_LEN_OFF = 12L * CHUNK_ROWS;
+    private static final long NAME_POS_OFF = 16L * CHUNK_ROWS;
+    private static final long FLAGS_OFF = 24L * CHUNK_ROWS;
+    private static final long CHUNK_BYTES = 25L * CHUNK_ROWS;
+    private static final int STRING_AREA_BYTES = 1 << 20;
+
+    private final Arena arena = Arena.ofShared();
+    private final List<MemorySegment> chunks = new ArrayList<>();
+    private final List<MemorySegment> stringAreas = new ArrayList<>();
+    private int stringAreaUsed = STRING_AREA_BYTES;
+    private int[] index = new int[64];
+    private int size;
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public int add(String roomNo, int capacity, boolean ac, boolean washroom) {
+        int row = size;
+        if ((row & (CHUNK_ROWS - 1)) == 0) {
+            chunks.add(arena.allocate(CHUNK_BYTES, 8));
+        }
+        MemorySegment c = chunk(row);
+        int i = row & (CHUNK_ROWS - 1);
+        int hash = hash(HostelService.normalizeRoomNo(roomNo));
+        c.set(ValueLayout.JAVA_INT, CAP_OFF + 4L * i, capacity);
+        c.set(ValueLayout.JAVA_INT, OCC_OFF + 4L * i, 0);
+        c.set(ValueLayout.JAVA_INT, HASH_OFF + 4L * i, hash);
+        c.set(ValueLayout.JAVA_BYTE, FLAGS_OFF + i,
+                (byte) ((ac ? HeapRoomStore.FLAG_AC : 0) | (washroom ? HeapRoomStore.FLAG_WASHROOM : 0)));
+        byte[] name = roomNo.getBytes(StandardCharsets.UTF_8);
+        c.set(ValueLayout.JAVA_INT, NAME_LEN_OFF + 4L * i, name.length);
+        c.set(ValueLayout.JAVA_LONG, NAME_POS_OFF + 8L * i, appendString(name));
+        size++;
+
+        if (size * 2 > index.length) {
+            rehash(index.length * 2);
+        } else {
+            insert(index, row, hash);
+        }
+        return row;
+    }
+
+    @Override
+    public int find(String normalizedRoomNo) {
+        int hash = hash(normalizedRoomNo);
+        int mask = index.length - 1;
+        for (int slot = hash & mask; index[slot] != 0; slot = (slot + 1) & mask) {
+            int row = index[slot] - 1;
+            if (hashAt(row) == hash && HostelService.normalizeRoomNo(roomNo(row)).equals(normalizedRoomNo)) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String roomNo(int row) {
+        MemorySegment c = chunk(row);
+        int i = row & (CHUNK_ROWS - 1);
+        int len = c.get(ValueLayout.JAVA_INT, NAME_LEN_OFF + 4L * i);
+        long pos = c.get(ValueLayout.JAVA_LONG, NAME_POS_OFF + 8L * i);
+        byte[] bytes = new byte[len];
+        MemorySegment.copy(stringAreas.get((int) (pos >>> 32)), ValueLayout.JAVA_BYTE, (int) pos, bytes, 0, len);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public int capacity(int row) {
+        return chunk(row).get(ValueLayout.JAVA_INT, CAP_OFF + 4L * (row & (CHUNK_ROWS - 1)));
+    }
+
+    @Override
+    public int occupied(int row) {
+        return chunk(row).get(ValueLayout.JAVA_INT, OCC_OFF + 4L * (row & (CHUNK_ROWS - 1)));
+    }
+
+    @Override
+    public void setOccupied(int row, int occupied) {
+        chunk(row).set(ValueLayout.JAVA_INT, OCC_OFF + 4L * (row & (CHUNK_ROWS - 1)), occupied);
+    }
+
+    @Override
+    public boolean hasAC(int row) {
+        return (flags(row) & HeapRoomStore.FLAG_AC) != 0;
+    }
+
+    @Override
+    public boolean hasWashroom(int row) {
+        return (flags(row) & HeapRoomStore.FLAG_WASHROOM) != 0;
+    }
+
+    @Override
+    public int[] scan(int minCapacity, int minFreeBeds, boolean requireAC, boolean requireWashroom) {
+        int required = (requireAC ? HeapRoomStore.FLAG_AC : 0) | (requireWashroom ? HeapRoomStore.FLAG_WASHROOM : 0);
+        int[] out = new int[16];
+        int n = 0;
+        for (int k = 0; k < chunks.size(); k++) {
+            MemorySegment c = chunks.get(k);
+            int rows = Math.min(CHUNK_ROWS, size - k * CHUNK_ROWS);
+            for (int i = 0; i < rows; i++) {
+                int cap = c.get(ValueLayout.JAVA_INT, CAP_OFF + 4L * i);
+                if (cap < minCapacity) {
+                    continue;
+                }
+                int occ = c.get(ValueLayout.JAVA_INT, OCC_OFF + 4L * i);
+                int f = c.get(ValueLayout.JAVA_BYTE, FLAGS_OFF + i);
+                if (cap - occ >= minFreeBeds && (f & required) == required) {
+                    if (n == out.length) {
+                        out = Arrays.copyOf(out, n * 2);
+                    }
+                    out[n++] = k * CHUNK_ROWS + i;
+                }
+            }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    @Override
+    public void close() {
+        arena.close();
+    }
+
+    private MemorySegment chunk(int row) {
+        return chunks.get(row >>> 14);
+    }
+
+    private byte flags(int row) {
+        return chunk(row).get(ValueLayout.JAVA_BYTE, FLAGS_OFF + (row & (CHUNK_ROWS - 1)));
+    }
+
+    private int hashAt(int row) {
+        return chunk(row).get(ValueLayout.JAVA_INT, HASH_OFF + 4L * (row & (CHUNK_ROWS - 1)));
+    }
+
+    /** Returns the position of the copied bytes: area index in the high word, offset in the low. */
+    private long appendString(byte[] bytes) {
+        if (bytes.length > STRING_AREA_BYTES) {
+            throw new IllegalArgumentException("room number too long");
+        }
+        if (stringAreaUsed + bytes.length > STRING_AREA_BYTES) {
+            stringAreas.add(arena.allocate(STRING_AREA_BYTES, 1));
+            stringAreaUsed = 0;
+        }
+        MemorySegment area = stringAreas.get(stringAreas.size() - 1);
+        MemorySegment.copy(bytes, 0, area, ValueLayout.JAVA_BYTE, stringAreaUsed, bytes.length);
+        long pos = ((long) (stringAreas.size() - 1) << 32) | stringAreaUsed;
+        stringAreaUsed += bytes.length;
+        return pos;
+    }
+
+    private void rehash(int newLength) {
+        int[] table = new int[newLength];
+        for (int row = 0; row < size; row++) {
+            insert(table, row, hashAt(row));
+        }
+        index = table;
+    }
+
+    private static void insert(int[] table, int row, int hash) {
+        int mask = table.length - 1;
+        int slot = hash & mask;
+        while (table[slot] != 0) {
+            slot = (slot + 1) & mask;
+        }
+        table[slot] = row + 1;
+    }
+
+    private static int hash(String normalized) {
+        int h = normalized.hashCode();
+        return h ^ (h >>> 16);
+    }
+}
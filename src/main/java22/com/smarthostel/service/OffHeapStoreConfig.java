@@ -0,0 +1,15 @@
+package com.smarthostel.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/** Enabled with hostel.store=offheap (build with -Poffheap on JDK 22+). */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "hostel.store", havingValue = "offheap")
+public class OffHeapStoreConfig {
+    @Bean
+    public RoomStoreFactory offHeapRoomStoreFactory() {
+        return OffHeapRoomStore::new;
+    }
+}
@@ -0,0 +1,40 @@
+package com.smarthostel.api;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * One bounded scheduler for every service call on the WebFlux stack.
+ * {@link ReactiveHostelController} subscribes on it explicitly; controller
+ * methods that return plain values (bookings, holds, matching, defrag, audit,
+ * planning) are run on it by WebFlux, so none of them block an event loop.
+ * When its queue is full, requests get a 503 (see {@link ReactiveExceptionHandler}).
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveConfig implements WebFluxConfigurer {
+    private final Scheduler scheduler;
+
+    public ReactiveConfig(@Value("${hostel.reactive.threads:16}") int threads,
+                          @Value("${hostel.reactive.queue:1024}") int queue) {
+        this.scheduler = Schedulers.newBoundedElastic(threads, queue, "hostel-service", 60, true);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler hostelServiceScheduler() {
+        return scheduler;
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        // Scheduler.schedule throws RejectedExecutionException when the queue is full
+        configurer.setExecutor(new TaskExecutorAdapter(scheduler::schedule));
+    }
+}
@@ -0,0 +1,228 @@
+package com.smarthostel.api;
+
+import com.smarthostel.client.RoomCodec;
+import com.smarthostel.dto.AddRoomRequest;
+import com.smarthostel.dto.AllocateRequest;
+import com.smarthostel.dto.GroupAllocation;
+import com.smarthostel.dto.ReleaseRequest;
+import com.smarthostel.dto.RoomStats;
+import com.smarthostel.model.AuditEvent;
+import com.smarthostel.model.Room;
+import com.smarthostel.service.AuditLog;
+import com.smarthostel.service.BookingService;
+import com.smarthostel.service.CatalogueSnapshot;
+import com.smarthostel.service.DefragService;
+import com.smarthostel.service.HostelService;
+import com.smarthostel.service.SearchCoalescer;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+
+/**
+ * WebFlux variant of {@link HostelController} (build with -Preactive, run
+ * with the "reactive" Spring profile). Netty's event loop only parses,
+ * validates and writes; every service call, since those take block locks,
+ * runs on the bounded scheduler from {@link ReactiveConfig}. When its queue
+ * is full the request gets a 503 instead of waiting.
+ *
+ * Room lists are streamed as a Flux: a JSON array, or one room per line with
+ * Accept: application/x-ndjson. {@code GET /api/rooms} reads the catalogue
+ * a page at a time, only as fast as the client consumes it.
+ */
+@RestController
+@RequestMapping("/api")
+@Validated
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveHostelController {
+    // Rooms copied per lock acquisition while streaming the catalogue
+    private static final int PAGE_SIZE = 256;
+    private static final MediaType ROOMS_BINARY = MediaType.parseMediaType(RoomCodec.MEDIA_TYPE);
+
+    private record Page(int offset, List<Room> rooms) {
+    }
+
+    private final HostelService hostelService;
+    private final SearchCoalescer searchCoalescer;
+    private final BookingService bookingService;
+    private final AuditLog auditLog;
+    private final DefragService defragService;
+    private final Scheduler scheduler;
+
+    public ReactiveHostelController(HostelService hostelService, SearchCoalescer searchCoalescer,
+                                    BookingService bookingService, AuditLog auditLog, DefragService defragService,
+                                    Scheduler hostelServiceScheduler) {
+        this.hostelService = hostelService;
+        this.searchCoalescer = searchCoalescer;
+        this.bookingService = bookingService;
+        this.auditLog = auditLog;
+        this.defragService = defragService;
+        this.scheduler = hostelServiceScheduler;
+    }
+
+    @PostMapping("/rooms")
+    public Mono<ResponseEntity<?>> addRoom(@Valid @RequestBody AddRoomRequest req) {
+        if ((req.getFloor() == null) != (req.getPosition() == null)) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .body(Map.of("message", "floor and position must be given together")));
+        }
+        return call(() -> hostelService.addRoom(req.getBlock(), req.getRoomNo(), req.getCapacity(), req.isHasAC(),
+                req.isHasAttachedWashroom(), req.getFloor(), req.getPosition()))
+                .<ResponseEntity<?>>map(ok -> ok
+                        ? ResponseEntity.status(HttpStatus.CREATED).body(Map.of("message", "Room added."))
+                        : ResponseEntity.status(HttpStatus.CONFLICT)
+                                .body(Map.of("message", "Room number, or floor and position in this block, already taken (or invalid).")));
+    }
+
+    @GetMapping(value = "/rooms", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Room> listRooms() {
+        return call(hostelService::getBlocks)
+                .flatMapIterable(blocks -> blocks)
+                .concatMap(block -> page(block, 0)
+                        .expand(p -> p.rooms().size() < PAGE_SIZE ? Mono.empty() : page(block, p.offset() + PAGE_SIZE)), 1)
+                .concatMapIterable(Page::rooms);
+    }
+
+    /** NDJSON export from a point-in-time snapshot; set server.compression.enabled for gzip. */
+    @GetMapping(value = "/rooms/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Room> export() {
+        return Flux.using(hostelService::openSnapshot, snapshot -> Flux.fromIterable(() -> snapshot), CatalogueSnapshot::close)
+                .subscribeOn(scheduler);
+    }
+
+    @GetMapping(value = "/rooms/lookup", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Room> lookup(@RequestParam String prefix,
+                             @RequestParam(defaultValue = "10") @Min(1) @Max(HostelService.LOOKUP_LIMIT) int limit) {
+        return call(() -> hostelService.lookupRooms(prefix, limit)).flatMapIterable(rooms -> rooms);
+    }
+
+    @GetMapping("/rooms/stats")
+    public Mono<RoomStats> stats(@RequestParam(required = false) String block) {
+        return call(() -> hostelService.getStats(block));
+    }
+
+    @GetMapping("/blocks")
+    public Mono<List<String>> blocks() {
+        return call(hostelService::getBlocks);
+    }
+
+    /**
+     * Same parameters as the servlet search; matches are streamed as they are
+     * written, or sent whole in the {@link RoomCodec} encoding if Accept asks for it.
+     */
+    @GetMapping(value = "/rooms/search",
+            produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE, RoomCodec.MEDIA_TYPE})
+    public Mono<ResponseEntity<?>> searchRooms(
+            @RequestParam(defaultValue = "1") @Min(1) int minCapacity,
+            @RequestParam(defaultValue = "false") boolean needsAC,
+            @RequestParam(defaultValue = "false") boolean needsWashroom,
+            @RequestParam(required = false) String block,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestHeader(value = "Accept", defaultValue = "") String accept
+    ) {
+        Callable<List<Room>> search;
+        if (from == null && to == null) {
+            search = () -> searchCoalescer.searchRooms(block, minCapacity, needsAC, needsWashroom);
+        } else if (from == null || to == null || !to.isAfter(from)) {
+            return Mono.just(ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(Map.of("message", "from and to are both required and to must be after from")));
+        } else {
+            search = () -> bookingService.searchAvailable(block, minCapacity, needsAC, needsWashroom, from, to);
+        }
+        if (RoomCodec.preferredBy(accept)) {
+            return call(search).map(list -> binary(list));
+        }
+        Flux<Room> rooms = call(search).flatMapIterable(list -> list);
+        return Mono.just(ResponseEntity.ok().header("Vary", "Accept").body(rooms));
+    }
+
+    @GetMapping("/rooms/search/stats")
+    public Map<String, Long> searchStats() {
+        return Map.of(
+                "executions", searchCoalescer.getExecutions(),
+                "coalesced", searchCoalescer.getCoalesced());
+    }
+
+    @PostMapping("/rooms/allocate")
+    public Mono<ResponseEntity<?>> allocate(@Valid @RequestBody AllocateRequest req,
+                                            @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor,
+                                            @RequestHeader(value = "Accept", defaultValue = "") String accept) {
+        return call(() -> {
+            Optional<Room> room = hostelService.allocateRoom(req.getBlock(), req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom());
+            auditLog.record(actor, AuditEvent.Action.ALLOCATE, room.map(Room::getRoomNo).orElse(null),
+                    req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom(), room.isPresent());
+            if (room.isEmpty()) {
+                defragService.recordUnmet(req.getBlock(), req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom());
+            }
+            return room
+                    .<ResponseEntity<?>>map(r -> RoomCodec.preferredBy(accept)
+                            ? binary(List.of(r))
+                            : ResponseEntity.ok().header("Vary", "Accept").body(r))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(Map.of("message", "No room available")));
+        });
+    }
+
+    @PostMapping("/rooms/allocate-group")
+    public Mono<ResponseEntity<?>> allocateGroup(@Valid @RequestBody AllocateRequest req,
+                                                 @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        return call(() -> {
+            Optional<GroupAllocation> group = hostelService.allocateGroup(req.getBlock(), req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom());
+            if (group.isEmpty()) {
+                auditLog.record(actor, AuditEvent.Action.ALLOCATE, null,
+                        req.getStudents(), req.isNeedsAC(), req.isNeedsWashroom(), false);
+                return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("message", "No set of neighbouring rooms can take the group"));
+            }
+            for (GroupAllocation.Placement p : group.get().getPlacements()) {
+                auditLog.record(actor, AuditEvent.Action.ALLOCATE, p.getRoom().getRoomNo(),
+                        p.getStudents(), req.isNeedsAC(), req.isNeedsWashroom(), true);
+            }
+            return ResponseEntity.ok(group.get());
+        });
+    }
+
+    @PostMapping("/rooms/release")
+    public Mono<ResponseEntity<?>> release(@Valid @RequestBody ReleaseRequest req,
+                                           @RequestHeader(value = AuditController.ACTOR_HEADER, defaultValue = "anonymous") String actor) {
+        return call(() -> {
+            Optional<Room> room = hostelService.releaseBeds(req.getRoomNo(), req.getStudents());
+            auditLog.record(actor, AuditEvent.Action.RELEASE, req.getRoomNo(), req.getStudents(),
+                    false, false, room.isPresent());
+            return room
+                    .<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.CONFLICT)
+                            .body(Map.of("message", "Room not found (or fewer beds occupied).")));
+        });
+    }
+
+    private static ResponseEntity<?> binary(List<Room> rooms) {
+        return ResponseEntity.ok().header("Vary", "Accept").contentType(ROOMS_BINARY).body(RoomCodec.encode(rooms));
+    }
+
+    private Mono<Page> page(String block, int offset) {
+        return call(() -> new Page(offset, hostelService.getRooms(block, offset, PAGE_SIZE)));
+    }
+
+    private <T> Mono<T> call(Callable<T> work) {
+        return Mono.<T>fromCallable(work).subscribeOn(scheduler);
+    }
+}
@@ -4,6 +4,12 @@ const api = {
     if (!res.ok) throw new Error("Failed to fetch rooms");
     return res.json();
   },
+  async lookupRooms(prefix) {
+    const qs = new URLSearchParams({ prefix, limit: "20" });
+    const res = await fetch(`/api/rooms/lookup?${qs.toString()}`);
+    if (!res.ok) throw new Error("Failed to look up rooms");
+    return res.json();
+  },
   async addRoom(payload) {
     const res = await fetch("/api/rooms", {
       method: "POST",
@@ -175,7 +181,42 @@ function wireAddRoom() {
 }
 
 function wireRoomListRefresh() {
-  $("#refreshRoomsBtn").addEventListener("click", refreshRooms);
+  $("#refreshRoomsBtn").addEventListener("click", () => {
+    $("#roomLookup").value = "";
+    refreshRooms();
+  });
+}
+
+function wireRoomLookup() {
+  const input = $("#roomLookup");
+  const tbody = $("#roomsTbody");
+  let timer = null;
+  let seq = 0;
+
+  input.addEventListener("input", () => {
+    clearTimeout(timer);
+    timer = setTimeout(async () => {
+      const prefix = input.value.trim();
+      if (!prefix) {
+        seq++;
+        refreshRooms();
+        return;
+      }
+      // Ignore answers that arrive after a newer keystroke's request was sent
+      const mine = ++seq;
+      try {
+        const rooms = await api.lookupRooms(prefix);
+        if (mine !== seq) return;
+        tbody.innerHTML = rooms.length
+          ? rooms.map(roomRowHtml).join("")
+          : `<tr><td colspan="4" class="muted">No room number starts with "${escapeHtml(prefix)}".</td></tr>`;
+      } catch (e) {
+        if (mine === seq) {
+          tbody.innerHTML = `<tr><td colspan="4" class="muted">Lookup failed.</td></tr>`;
+        }
+      }
+    }, 150);
+  });
 }
 
 function wireSearch() {
@@ -256,6 +297,7 @@ function main() {
   wireTabs();
   wireAddRoom();
   wireRoomListRefresh();
+  wireRoomLookup();
   wireSearch();
   wireAllocate();
   refreshRooms(); // warm cache for View All Rooms
@@ -0,0 +1,110 @@
+package com.smarthostel.client;
+
+import com.smarthostel.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class RoomCodecTest {
+    @Test
+    void roundTripKeepsEveryField() {
+        List<Room> rooms = List.of(
+                room("101", 1, 0, true, true, null, null, null),
+                room("B-12", 6, 4, false, true, "North", 3, 17),
+                room("\u00e9t\u00e9-1", 2, 2, true, false, "Annex", -2, -1),
+                room("MIN", 300, 299, false, false, "", Integer.MIN_VALUE, Integer.MIN_VALUE + 1),
+                room("MAX", 4, 1, true, true, null, Integer.MAX_VALUE, 0));
+
+        List<Room> decoded = RoomCodec.decode(RoomCodec.encode(rooms));
+
+        assertEquals(rooms.size(), decoded.size());
+        for (int i = 0; i < rooms.size(); i++) {
+            assertRoomEquals(rooms.get(i), decoded.get(i));
+        }
+    }
+
+    @Test
+    void smallNegativeLayoutStaysShort() {
+        byte[] near = RoomCodec.encode(List.of(room("1", 1, 0, false, false, null, -1, -64)));
+        byte[] far = RoomCodec.encode(List.of(room("1", 1, 0, false, false, null, -1, -65)));
+
+        // zigzag: -1 and -64 take one byte each, -65 needs two
+        assertEquals(near.length + 1, far.length);
+        assertEquals(-64, (int) RoomCodec.decode(near).get(0).getPosition());
+        assertEquals(-65, (int) RoomCodec.decode(far).get(0).getPosition());
+    }
+
+    @Test
+    void emptyList() {
+        assertEquals(List.of(), RoomCodec.decode(RoomCodec.encode(List.of())));
+    }
+
+    @Test
+    void everyTruncationIsRejected() {
+        byte[] data = RoomCodec.encode(List.of(
+                room("201", 6, 1, false, false, "Main", -3, 250),
+                room("202", 2, 0, true, true, null, null, null)));
+
+        for (int len = 0; len < data.length; len++) {
+            byte[] cut = Arrays.copyOf(data, len);
+            assertThrows(IllegalArgumentException.class, () -> RoomCodec.decode(cut), "length " + len);
+        }
+    }
+
+    @Test
+    void trailingBytesAreRejected() {
+        byte[] data = RoomCodec.encode(List.of(room("101", 1, 0, false, false, null, null, null)));
+        byte[] longer = Arrays.copyOf(data, data.length + 1);
+
+        assertThrows(IllegalArgumentException.class, () -> RoomCodec.decode(longer));
+    }
+
+    @Test
+    void bogusCountIsRejectedBeforeAllocating() {
+        // a million rooms claimed, four bytes of data
+        byte[] huge = {(byte) 0xC0, (byte) 0x84, 0x3D, 1, 0, 0, 1};
+        // 0xFFFFFFFF decodes to -1
+        byte[] negative = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F, 1, 0, 0, 1, 'x'};
+        // one room claimed too many
+        byte[] data = RoomCodec.encode(List.of(room("101", 1, 0, false, false, null, null, null)));
+        byte[] oneMore = data.clone();
+        oneMore[0] = 2;
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> RoomCodec.decode(huge));
+        assertEquals("Bad room count: 1000000", e.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> RoomCodec.decode(negative));
+        assertThrows(IllegalArgumentException.class, () -> RoomCodec.decode(oneMore));
+    }
+
+    @Test
+    void overlongVarintIsRejected() {
+        byte[] data = {(byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0};
+
+        assertThrows(IllegalArgumentException.class, () -> RoomCodec.decode(data));
+    }
+
+    private static Room room(String roomNo, int capacity, int occupied, boolean ac, boolean washroom,
+                             String block, Integer floor, Integer position) {
+        Room r = new Room(roomNo, capacity, ac, washroom);
+        r.setOccupied(occupied);
+        r.setBlock(block);
+        r.setFloor(floor);
+        r.setPosition(position);
+        return r;
+    }
+
+    private static void assertRoomEquals(Room expected, Room actual) {
+        assertEquals(expected.getRoomNo(), actual.getRoomNo());
+        assertEquals(expected.getCapacity(), actual.getCapacity());
+        assertEquals(expected.getOccupied(), actual.getOccupied());
+        assertEquals(expected.isHasAC(), actual.isHasAC());
+        assertEquals(expected.isHasAttachedWashroom(), actual.isHasAttachedWashroom());
+        assertEquals(expected.getBlock(), actual.getBlock());
+        assertEquals(expected.getFloor(), actual.getFloor());
+        assertEquals(expected.getPosition(), actual.getPosition());
+    }
+}
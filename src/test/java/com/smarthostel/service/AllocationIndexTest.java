@@ -0,0 +1,108 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AllocationIndexTest {
+    @Test
+    void allocateMatchesBruteForceUnderChurn() {
+        Random random = new Random(11);
+        for (int trial = 0; trial < 200; trial++) {
+            HostelService hostel = new HostelService(HeapRoomStore::new);
+            for (int i = 0, rooms = 1 + random.nextInt(60); i < rooms; i++) {
+                // mostly small rooms, some large ones spread over many capacity buckets
+                int capacity = 1 + random.nextInt(random.nextBoolean() ? 5 : 70);
+                hostel.addRoom("B" + random.nextInt(3), "x" + random.nextInt(1000), capacity,
+                        random.nextBoolean(), random.nextBoolean());
+            }
+            for (int op = 0; op < 300; op++) {
+                List<Room> all = hostel.getAllRooms();
+                if (random.nextInt(4) == 0) {
+                    Room r = all.get(random.nextInt(all.size()));
+                    if (r.getOccupied() > 0) {
+                        hostel.releaseBeds(r.getRoomNo(), 1 + random.nextInt(r.getOccupied()));
+                    }
+                    continue;
+                }
+                int students = 1 + random.nextInt(8);
+                boolean needsAC = random.nextBoolean();
+                boolean needsWashroom = random.nextInt(3) == 0;
+                Room expected = bruteForce(all, students, needsAC, needsWashroom);
+
+                Optional<Room> room = hostel.allocateRoom(students, needsAC, needsWashroom);
+
+                String where = "trial " + trial + ", op " + op;
+                assertEquals(expected == null, room.isEmpty(), where);
+                if (expected != null) {
+                    assertEquals(expected.getRoomNo(), room.get().getRoomNo(), where);
+                }
+            }
+        }
+    }
+
+    @Test
+    void largeCapacitiesAreIndexedSparsely() {
+        HeapRoomStore store = new HeapRoomStore();
+        AllocationIndex index = new AllocationIndex(store);
+        int big = store.add("B1", HostelService.MAX_CAPACITY, false, false);
+        int small = store.add("S1", 3, true, false);
+        index.added(big, HostelService.MAX_CAPACITY);
+        index.added(small, 3);
+
+        assertEquals(small, index.best(2, false, false));
+        assertEquals(big, index.best(4, false, false));
+        assertEquals(-1, index.best(2, false, true));
+
+        // the big room drops to a single free bed, the small one fills up
+        index.freeChanged(big, HostelService.MAX_CAPACITY, 1);
+        index.freeChanged(small, 3, 0);
+        assertEquals(-1, index.best(2, false, false));
+        assertEquals(big, index.best(1, false, false));
+        assertEquals(-1, index.best(1, true, false));
+    }
+
+    @Test
+    void rejectedAddsChangeNothing() {
+        HostelService hostel = new HostelService(HeapRoomStore::new);
+        List<String> blocks = hostel.getBlocks();
+        int rooms = hostel.getAllRooms().size();
+        long version = hostel.getVersion();
+
+        assertFalse(hostel.addRoom("Annex", "A1", Integer.MAX_VALUE, false, false));
+        assertFalse(hostel.addRoom("Annex", "A1", 0, false, false));
+        assertFalse(hostel.addRoom("Annex", "A1", HostelService.MAX_CAPACITY + 1, false, false));
+        // a number taken in another block
+        assertFalse(hostel.addRoom("Annex", "101", 2, false, false));
+
+        assertEquals(blocks, hostel.getBlocks());
+        assertEquals(rooms, hostel.getAllRooms().size());
+        assertEquals(version, hostel.getVersion());
+        assertTrue(hostel.findRoom("A1").isEmpty());
+
+        assertTrue(hostel.addRoom("Annex", "A1", HostelService.MAX_CAPACITY, false, false));
+        assertEquals("A1", hostel.allocateRoom(HostelService.MAX_CAPACITY, false, false).get().getRoomNo());
+    }
+
+    /** Smallest room with enough free beds, then the lowest room number. */
+    private static Room bruteForce(List<Room> rooms, int students, boolean needsAC, boolean needsWashroom) {
+        Room best = null;
+        for (Room r : rooms) {
+            if (r.freeBeds() < students || (needsAC && !r.isHasAC()) || (needsWashroom && !r.isHasAttachedWashroom())) {
+                continue;
+            }
+            if (best == null || r.getCapacity() < best.getCapacity()
+                    || (r.getCapacity() == best.getCapacity() && r.getRoomNo().compareTo(best.getRoomNo()) < 0)) {
+                best = r;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,75 @@
+package com.smarthostel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarthostel.model.AuditEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AuditLogTest {
+    @TempDir
+    Path dir;
+
+    private AuditLog log;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (log != null) {
+            log.shutdown();
+        }
+    }
+
+    @Test
+    void openSegmentIsReadToTheLastFlush() throws InterruptedException {
+        log = open(DataSize.ofMegabytes(16));
+        Instant from = Instant.now().minusSeconds(5);
+        int written = 0;
+        for (int n : new int[] {3, 30, 3000}) {
+            for (int i = 0; i < n; i++) {
+                log.record("tester", AuditEvent.Action.ALLOCATE, "R" + (written + i), 1, false, false, true);
+            }
+            written += n;
+            assertEquals(written, awaitCount(from, written));
+        }
+    }
+
+    @Test
+    void queryCrossesClosedAndOpenSegments() throws InterruptedException {
+        log = open(DataSize.ofKilobytes(4));
+        Instant from = Instant.now().minusSeconds(5);
+        for (int i = 0; i < 500; i++) {
+            log.record("tester", AuditEvent.Action.RELEASE, "R" + (i % 7), 1, false, false, true);
+        }
+
+        assertEquals(500, awaitCount(from, 500));
+        List<AuditEvent> events = log.query(from, Instant.now().plusSeconds(5), "r3", 1000);
+        assertEquals(71, events.size());
+        events.forEach(e -> assertEquals("R3", e.getRoomNo()));
+    }
+
+    private AuditLog open(DataSize segmentSize) {
+        return new AuditLog(new ObjectMapper().findAndRegisterModules(), dir, 4096, segmentSize, Duration.ofHours(1));
+    }
+
+    /** Waits for the writer to drain the ring; returns the last count seen. */
+    private int awaitCount(Instant from, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        int count;
+        do {
+            count = log.query(from, Instant.now().plusSeconds(5), null, Integer.MAX_VALUE).size();
+            if (count >= expected) {
+                return count;
+            }
+            Thread.sleep(20);
+        } while (System.nanoTime() < deadline);
+        return count;
+    }
+}
@@ -0,0 +1,131 @@
+package com.smarthostel.service;
+
+import com.smarthostel.dto.GroupAllocation;
+import com.smarthostel.model.Booking;
+import com.smarthostel.model.Room;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookingServiceTest {
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private HostelService hostel;
+    private BookingService bookings;
+
+    @BeforeEach
+    void setUp() {
+        hostel = new HostelService();
+        bookings = new BookingService(hostel);
+        hostel.addRoom("T", "T1", 2, false, false, 1, 1);
+    }
+
+    @Test
+    void bookedBedsAreNotAllocated() {
+        assertTrue(bookings.book("T1", 2, false, false, TODAY.plusDays(3), TODAY.plusDays(5)).isPresent());
+
+        assertTrue(hostel.allocateRoom("T", 1, false, false).isEmpty());
+        assertTrue(hostel.occupyBeds("T1", 1).isEmpty());
+        assertTrue(hostel.allocateGroup("T", 1, false, false).isEmpty());
+        assertEquals(0, hostel.findRoom("T1").get().getOccupied());
+    }
+
+    @Test
+    void allocatedBedsAreNotBooked() {
+        assertTrue(hostel.allocateRoom("T", 2, false, false).isPresent());
+
+        assertTrue(bookings.book("T1", 1, false, false, TODAY.plusDays(3), TODAY.plusDays(5)).isEmpty());
+        assertTrue(bookings.searchAvailable("T", 1, false, false, TODAY.plusDays(3), TODAY.plusDays(5)).isEmpty());
+    }
+
+    @Test
+    void partlyBookedRoomTakesTheRest() {
+        assertTrue(bookings.book("T1", 1, false, false, TODAY, TODAY.plusDays(2)).isPresent());
+
+        assertTrue(hostel.allocateRoom("T", 2, false, false).isEmpty());
+        assertTrue(hostel.allocateRoom("T", 1, false, false).isPresent());
+        assertTrue(bookings.book("T1", 1, false, false, TODAY.plusDays(1), TODAY.plusDays(3)).isEmpty());
+    }
+
+    @Test
+    void pastBookingsDoNotHoldBeds() {
+        assertTrue(bookings.book("T1", 2, false, false, TODAY.minusDays(5), TODAY.minusDays(2)).isPresent());
+
+        assertTrue(hostel.allocateRoom("T", 2, false, false).isPresent());
+    }
+
+    @Test
+    void groupSkipsBookedRooms() {
+        hostel.addRoom("T", "T2", 2, false, false, 1, 2);
+        hostel.addRoom("T", "T3", 2, false, false, 1, 3);
+        assertTrue(bookings.book("T2", 1, false, false, TODAY, TODAY.plusDays(1)).isPresent());
+
+        assertTrue(hostel.allocateGroup("T", 6, false, false).isEmpty());
+        GroupAllocation group = hostel.allocateGroup("T", 5, false, false).get();
+
+        for (GroupAllocation.Placement p : group.getPlacements()) {
+            Room room = p.getRoom();
+            assertEquals(room.getRoomNo().equals("T2") ? 1 : 2, p.getStudents());
+        }
+    }
+
+    @Test
+    void cancelFreesBookedBeds() {
+        Booking booking = bookings.book("T1", 2, false, false, TODAY, TODAY.plusDays(1)).get();
+        assertTrue(hostel.allocateRoom("T", 1, false, false).isEmpty());
+
+        assertTrue(bookings.cancel(booking.getId()).isPresent());
+
+        assertTrue(hostel.allocateRoom("T", 2, false, false).isPresent());
+    }
+
+    @Test
+    void concurrentBookAndAllocateNeverOverfill() throws Exception {
+        for (int i = 2; i <= 50; i++) {
+            hostel.addRoom("T", "T" + i, 3, false, false);
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            boolean booker = t % 2 == 0;
+            results.add(pool.submit(() -> {
+                start.await();
+                int beds = 0;
+                for (int i = 0; i < 200; i++) {
+                    if (booker) {
+                        String roomNo = "T" + (1 + i % 50);
+                        if (bookings.book(roomNo, 1, false, false, TODAY, TODAY.plusDays(7)).isPresent()) {
+                            beds++;
+                        }
+                    } else if (hostel.allocateRoom("T", 1, false, false).isPresent()) {
+                        beds++;
+                    }
+                }
+                return beds;
+            }));
+        }
+        start.countDown();
+        int taken = 0;
+        for (Future<Integer> f : results) {
+            taken += f.get();
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(2 + 49 * 3, taken);
+        assertTrue(hostel.allocateRoom("T", 1, false, false).isEmpty());
+        assertTrue(bookings.searchAvailable("T", 1, false, false, TODAY, TODAY.plusDays(1)).isEmpty());
+    }
+}
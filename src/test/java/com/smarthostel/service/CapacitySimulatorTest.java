@@ -0,0 +1,114 @@
+package com.smarthostel.service;
+
+import com.smarthostel.dto.CapacityPlan;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CapacitySimulatorTest {
+    private static final List<CapacitySimulator.Shape> SHAPES = List.of(
+            new CapacitySimulator.Shape(null, 1, false, false, 4),
+            new CapacitySimulator.Shape(null, 2, false, false, 3),
+            new CapacitySimulator.Shape(null, 3, true, false, 2),
+            new CapacitySimulator.Shape("blk2", 4, true, true, 1),
+            new CapacitySimulator.Shape(null, 6, false, true, 0.5),
+            new CapacitySimulator.Shape(null, 2, true, true, 1.5));
+    private static final int ROOMS = 400;
+    private static final int ARRIVALS = 300;
+    private static final int SIMULATIONS = 120;
+    private static final long SEED = 42L;
+
+    @Test
+    void everySimulationMatchesAReplayOnALiveService() {
+        CapacitySimulator simulator;
+        try (CatalogueSnapshot snapshot = catalogue().openSnapshot()) {
+            simulator = new CapacitySimulator(snapshot);
+        }
+        CapacitySimulator.Counts counts = simulator.run(SHAPES, ARRIVALS, SIMULATIONS, SEED, (f, m) -> { }, 0, 1);
+
+        double[] cumulative = new double[SHAPES.size()];
+        double total = 0;
+        for (int i = 0; i < cumulative.length; i++) {
+            total += SHAPES.get(i).weight();
+            cumulative[i] = total;
+        }
+        SplittableRandom master = new SplittableRandom(SEED);
+        for (int sim = 0; sim < SIMULATIONS; sim++) {
+            HostelService live = catalogue();
+            SplittableRandom random = new SplittableRandom(master.nextLong());
+            int[] requests = new int[4];
+            int[] unmetRequests = new int[4];
+            int[] unmetStudents = new int[4];
+            for (int a = 0; a < ARRIVALS; a++) {
+                int i = Arrays.binarySearch(cumulative, random.nextDouble(total));
+                i = Math.min(i < 0 ? -i - 1 : i + 1, cumulative.length - 1);
+                CapacitySimulator.Shape s = SHAPES.get(i);
+                int f = AvailabilityStats.facilities(s.needsAC(), s.needsWashroom());
+                requests[f]++;
+                if (live.allocateRoom(s.block(), s.students(), s.needsAC(), s.needsWashroom()).isEmpty()) {
+                    unmetRequests[f]++;
+                    unmetStudents[f] += s.students();
+                }
+            }
+            for (int f = 0; f < 4; f++) {
+                String where = "simulation " + sim + ", facilities " + f;
+                assertEquals(requests[f], counts.requests()[f][sim], where);
+                assertEquals(unmetRequests[f], counts.unmetRequests()[f][sim], where);
+                assertEquals(unmetStudents[f], counts.unmetStudents()[f][sim], where);
+            }
+        }
+    }
+
+    @Test
+    void planLeavesTheCatalogueAloneAndRepeatsWithTheSameSeed() {
+        HostelService hostel = catalogue();
+        long version = hostel.getVersion();
+        CapacityPlanningService planning = new CapacityPlanningService(hostel, null);
+
+        CapacityPlan first = planning.plan(SHAPES, ARRIVALS, SIMULATIONS, SEED, (f, m) -> { });
+        CapacityPlan second = planning.plan(SHAPES, ARRIVALS, SIMULATIONS, SEED, (f, m) -> { });
+
+        assertEquals(version, hostel.getVersion());
+        assertEquals(hostel.getAllRooms().size(), first.getRooms());
+        assertArrayEquals(summary(first.getTotal()), summary(second.getTotal()));
+    }
+
+    @Test
+    void largestValidIntakeCountsEveryUnmetStudent() {
+        // 10^6 arrivals of the largest group, none of which fits: the totals reach 10^9 without overflowing
+        int arrivals = 1_000_000;
+        List<CapacitySimulator.Shape> shapes =
+                List.of(new CapacitySimulator.Shape(null, HostelService.MAX_CAPACITY, false, false, 1));
+        CapacityPlanningService planning = new CapacityPlanningService(catalogue(), null);
+
+        CapacityPlan plan = planning.plan(shapes, arrivals, 1, SEED, (f, m) -> { });
+
+        assertEquals(arrivals, plan.getTotal().getUnmetRequests().getMax());
+        assertEquals((long) arrivals * HostelService.MAX_CAPACITY, plan.getTotal().getUnmetStudents().getMax());
+    }
+
+    private static double[] summary(CapacityPlan.Outcome o) {
+        CapacityPlan.Distribution unmet = o.getUnmetRequests();
+        return new double[] {unmet.getMean(), unmet.getP50(), unmet.getP90(), unmet.getP99(), unmet.getMax(),
+                o.getUnmetStudents().getMean(), o.getShortfallProbability()};
+    }
+
+    /** Four blocks, a fifth of the beds already taken. */
+    private static HostelService catalogue() {
+        HostelService hostel = new HostelService(HeapRoomStore::new);
+        Random random = new Random(7);
+        for (int i = 0; i < ROOMS; i++) {
+            hostel.addRoom("Blk" + (i % 4), "R" + i, 1 + random.nextInt(6), random.nextBoolean(), random.nextInt(3) == 0);
+        }
+        for (int i = 0; i < ROOMS / 5; i++) {
+            hostel.allocateRoom(1 + random.nextInt(2), false, false);
+        }
+        return hostel;
+    }
+}
@@ -0,0 +1,51 @@
+package com.smarthostel.service;
+
+import com.smarthostel.dto.GroupPreference;
+import com.smarthostel.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class DeferredAcceptanceMatcherTest {
+    private static final JobRegistry.Progress QUIET = (fraction, message) -> {
+    };
+
+    @Test
+    void roomKeepsSmallerGroupThatStillFits() {
+        Room room = new Room("R1", 3, false, false);
+        room.setBlock("Main");
+        DeferredAcceptanceMatcher matcher = new DeferredAcceptanceMatcher(List.of(room));
+        List<GroupPreference> groups = List.of(
+                group("small", 1, 1),
+                group("first", 2, 3),
+                group("second", 2, 2));
+
+        int[] assigned = matcher.match(groups, matcher.rankRooms(groups, 1, QUIET, 0, 1), QUIET, 0, 1);
+
+        // "second" cannot fit next to "first"; "small" can, even though it ranks lower
+        assertArrayEquals(new int[] {0, 0, -1}, assigned);
+    }
+
+    @Test
+    void singleStudentsFollowPriority() {
+        Room room = new Room("R1", 2, false, false);
+        room.setBlock("Main");
+        DeferredAcceptanceMatcher matcher = new DeferredAcceptanceMatcher(List.of(room));
+        List<GroupPreference> groups = List.of(group("a", 1, 1), group("b", 1, 3), group("c", 1, 2));
+
+        int[] assigned = matcher.match(groups, matcher.rankRooms(groups, 1, QUIET, 0, 1), QUIET, 0, 1);
+
+        assertArrayEquals(new int[] {-1, 0, 0}, assigned);
+    }
+
+    private static GroupPreference group(String id, int students, int priority) {
+        GroupPreference g = new GroupPreference();
+        g.setGroupId(id);
+        g.setStudents(students);
+        g.setPriority(priority);
+        g.setRoomPreferences(List.of("R1"));
+        return g;
+    }
+}
@@ -0,0 +1,85 @@
+package com.smarthostel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarthostel.model.DefragProposal;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefragServiceTest {
+    @TempDir
+    Path dir;
+
+    private HostelService hostel;
+    private AuditLog audit;
+    private HoldService holds;
+    private DefragService defrag;
+
+    @BeforeEach
+    void setUp() {
+        hostel = new HostelService();
+        // Two half-full rooms in a block of their own: a pair fits only after one student moves
+        hostel.addRoom("Annex", "A1", 2, false, false);
+        hostel.addRoom("Annex", "A2", 2, false, false);
+        hostel.occupyBeds("A1", 1);
+        hostel.occupyBeds("A2", 1);
+        audit = new AuditLog(new ObjectMapper(), dir, 1024, DataSize.ofMegabytes(1), Duration.ofHours(1));
+        holds = new HoldService(hostel, audit, Duration.ofMinutes(10), Duration.ofMillis(100));
+        defrag = new DefragService(hostel, holds, audit, Duration.ofHours(1), Duration.ofSeconds(5), 20,
+                Duration.ofHours(1), Duration.ofMinutes(15));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        defrag.shutdown();
+        holds.shutdown();
+        audit.shutdown();
+    }
+
+    @Test
+    void approvedProposalHoldsTheFreedRoom() {
+        DefragProposal p = propose();
+
+        DefragProposal approved = defrag.approve(p.getId(), "warden").get();
+
+        assertEquals(DefragProposal.Status.APPLIED, approved.getStatus());
+        assertNotNull(approved.getHoldId());
+        assertEquals(p.getRoomNo(), holds.getHold(approved.getHoldId()).get().getRoomNo());
+        assertEquals(2, hostel.findRoom(p.getRoomNo()).get().getOccupied());
+        // The freed beds went to the hold, not to whoever allocates next
+        assertTrue(hostel.allocateRoom("Annex", 1, false, false).isEmpty());
+    }
+
+    @Test
+    void staleProposalChangesNothing() {
+        DefragProposal p = propose();
+        String destination = p.getMoves().get(0).getToRoom();
+        hostel.occupyBeds(destination, 1);
+
+        DefragProposal approved = defrag.approve(p.getId(), "warden").get();
+
+        assertEquals(DefragProposal.Status.STALE, approved.getStatus());
+        assertEquals(1, hostel.findRoom(p.getRoomNo()).get().getOccupied());
+        assertEquals(2, hostel.findRoom(destination).get().getOccupied());
+        assertEquals(0, holds.getActiveCount());
+    }
+
+    private DefragProposal propose() {
+        defrag.recordUnmet("annex", 2, false, false);
+        List<DefragProposal> proposals = defrag.runOnce();
+        assertEquals(1, proposals.size());
+        DefragProposal p = proposals.get(0);
+        assertEquals(1, p.getMoves().size());
+        return p;
+    }
+}
@@ -0,0 +1,120 @@
+package com.smarthostel.service;
+
+import com.smarthostel.dto.GroupAllocation;
+import com.smarthostel.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GroupAllocationTest {
+    @Test
+    void matchesBruteForceOnRandomLayouts() {
+        Random random = new Random(7);
+        for (int round = 0; round < 3000; round++) {
+            HostelService hostel = new HostelService();
+            int id = 0;
+            for (int b = 0, blocks = 1 + random.nextInt(2); b < blocks; b++) {
+                for (int f = 0, floors = 1 + random.nextInt(3); f < floors; f++) {
+                    for (int p = 0, rooms = random.nextInt(8); p < rooms; p++) {
+                        if (random.nextInt(5) == 0) {
+                            continue; // a gap in the corridor
+                        }
+                        String roomNo = "R" + id++;
+                        int capacity = 1 + random.nextInt(4);
+                        hostel.addRoom("B" + b, roomNo, capacity, random.nextBoolean(), false, f, p * 2 + random.nextInt(2));
+                        int occupied = random.nextInt(capacity + 1);
+                        if (occupied > 0) {
+                            hostel.occupyBeds(roomNo, occupied);
+                        }
+                    }
+                }
+            }
+            int students = 1 + random.nextInt(12);
+            boolean needsAC = random.nextInt(3) == 0;
+            long[] expected = bruteForce(hostel.getAllRooms(), students, needsAC);
+
+            Optional<GroupAllocation> group = hostel.allocateGroup(null, students, needsAC, false);
+
+            assertEquals(expected == null, group.isEmpty(), "round " + round);
+            if (group.isPresent()) {
+                int placed = 0;
+                long leftover = 0;
+                for (GroupAllocation.Placement p : group.get().getPlacements()) {
+                    assertTrue(p.getStudents() >= 1 && p.getRoom().getOccupied() <= p.getRoom().getCapacity());
+                    placed += p.getStudents();
+                    leftover += p.getRoom().freeBeds();
+                }
+                assertEquals(students, placed);
+                assertArrayEquals(expected, new long[] {group.get().getPlacements().size(), group.get().getSpan(), leftover},
+                        "round " + round);
+            }
+        }
+    }
+
+    @Test
+    void farApartPositionsDoNotOverflowTheSpan() {
+        HostelService hostel = new HostelService();
+        hostel.addRoom("Far", "F1", 1, false, false, 0, Integer.MIN_VALUE);
+        hostel.addRoom("Far", "F2", 1, false, false, 0, Integer.MAX_VALUE);
+        hostel.addRoom("Far", "F3", 1, false, false, 1, 0);
+        hostel.addRoom("Far", "F4", 1, false, false, 1, 10);
+
+        GroupAllocation group = hostel.allocateGroup("Far", 2, false, false).get();
+
+        assertEquals(1, group.getFloor());
+        assertEquals(10, group.getSpan());
+        GroupAllocation rest = hostel.allocateGroup("Far", 2, false, false).get();
+        assertEquals((long) Integer.MAX_VALUE - Integer.MIN_VALUE, rest.getSpan());
+    }
+
+    @Test
+    void floorAndPositionAreUniquePerBlock() {
+        HostelService hostel = new HostelService();
+        assertTrue(hostel.addRoom("North", "N1", 2, false, false, 1, 5));
+
+        assertFalse(hostel.addRoom("North", "N2", 2, false, false, 1, 5));
+        assertTrue(hostel.findRoom("N2").isEmpty());
+        assertTrue(hostel.addRoom("North", "N2", 2, false, false, 1, 6));
+        assertTrue(hostel.addRoom("South", "S1", 2, false, false, 1, 5));
+    }
+
+    /** {rooms, span, beds left empty} of the best run, or null if none holds the group. */
+    private static long[] bruteForce(List<Room> rooms, int students, boolean needsAC) {
+        Map<String, List<Room>> byFloor = new TreeMap<>();
+        for (Room r : rooms) {
+            if (r.getFloor() != null && r.freeBeds() > 0 && (!needsAC || r.isHasAC())) {
+                byFloor.computeIfAbsent(r.getBlock() + "|" + r.getFloor(), k -> new ArrayList<>()).add(r);
+            }
+        }
+        long[] best = null;
+        for (List<Room> floor : byFloor.values()) {
+            floor.sort(Comparator.comparingInt(Room::getPosition));
+            for (int i = 0; i < floor.size(); i++) {
+                int sum = 0;
+                for (int j = i; j < floor.size(); j++) {
+                    sum += floor.get(j).freeBeds();
+                    if (sum >= students) {
+                        long[] key = {j - i + 1, floor.get(j).getPosition() - floor.get(i).getPosition(), sum - students};
+                        if (best == null || Arrays.compare(key, best) < 0) {
+                            best = key;
+                        }
+                        break;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+}
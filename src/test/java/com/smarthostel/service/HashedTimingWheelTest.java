@@ -0,0 +1,128 @@
+package com.smarthostel.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+    private HashedTimingWheel wheel;
+
+    @AfterEach
+    void tearDown() {
+        wheel.close();
+    }
+
+    @Test
+    void firesNoEarlierThanTheDeadlineAcrossRounds() throws InterruptedException {
+        // 8 buckets of 2 ms: the later timeouts wrap the wheel several times
+        wheel = new HashedTimingWheel(2, TimeUnit.MILLISECONDS, 8, "test-wheel");
+        long[] delaysMs = {1, 5, 15, 17, 40, 100};
+        ConcurrentLinkedQueue<Integer> order = new ConcurrentLinkedQueue<>();
+        long[] firedAfter = new long[delaysMs.length];
+        CountDownLatch done = new CountDownLatch(delaysMs.length);
+        long start = System.nanoTime();
+        // scheduled latest first, so bucket order alone would give the wrong answer
+        for (int i = delaysMs.length - 1; i >= 0; i--) {
+            int id = i;
+            wheel.schedule(() -> {
+                firedAfter[id] = System.nanoTime() - start;
+                order.add(id);
+                done.countDown();
+            }, delaysMs[i], TimeUnit.MILLISECONDS);
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), new ArrayList<>(order));
+        for (int i = 0; i < delaysMs.length; i++) {
+            assertTrue(firedAfter[i] >= TimeUnit.MILLISECONDS.toNanos(delaysMs[i]), "timeout " + i + " fired early");
+        }
+    }
+
+    @Test
+    void cancelledTimeoutNeverRuns() throws InterruptedException {
+        wheel = new HashedTimingWheel(1, TimeUnit.MILLISECONDS, 16, "test-wheel");
+        CountDownLatch ran = new CountDownLatch(1);
+        CountDownLatch marker = new CountDownLatch(1);
+        HashedTimingWheel.Timeout t = wheel.schedule(ran::countDown, 20, TimeUnit.MILLISECONDS);
+        wheel.schedule(marker::countDown, 60, TimeUnit.MILLISECONDS);
+
+        assertTrue(t.cancel());
+        assertFalse(t.cancel());
+
+        assertTrue(marker.await(5, TimeUnit.SECONDS));
+        assertEquals(1, ran.getCount());
+    }
+
+    @Test
+    void expiredTimeoutCannotBeCancelled() throws InterruptedException {
+        wheel = new HashedTimingWheel(1, TimeUnit.MILLISECONDS, 16, "test-wheel");
+        CountDownLatch ran = new CountDownLatch(1);
+        HashedTimingWheel.Timeout t = wheel.schedule(ran::countDown, 2, TimeUnit.MILLISECONDS);
+
+        assertTrue(ran.await(5, TimeUnit.SECONDS));
+        assertFalse(t.cancel());
+    }
+
+    @Test
+    void eachTimeoutEitherRunsOrIsCancelledUnderRaces() throws InterruptedException {
+        wheel = new HashedTimingWheel(1, TimeUnit.MILLISECONDS, 64, "test-wheel");
+        int n = 20_000;
+        AtomicIntegerArray runs = new AtomicIntegerArray(n);
+        HashedTimingWheel.Timeout[] timeouts = new HashedTimingWheel.Timeout[n];
+        for (int i = 0; i < n; i++) {
+            int id = i;
+            timeouts[i] = wheel.schedule(() -> runs.incrementAndGet(id),
+                    ThreadLocalRandom.current().nextInt(5), TimeUnit.MILLISECONDS);
+        }
+        // cancellers race the ticker (and each other) over the same timeouts
+        boolean[][] cancelled = new boolean[4][n];
+        List<Thread> threads = new ArrayList<>();
+        for (int c = 0; c < 4; c++) {
+            boolean[] mine = cancelled[c];
+            Thread t = new Thread(() -> {
+                for (int i = 0; i < n; i++) {
+                    mine[i] = timeouts[i].cancel();
+                }
+            });
+            threads.add(t);
+            t.start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        CountDownLatch last = new CountDownLatch(1);
+        wheel.schedule(last::countDown, 20, TimeUnit.MILLISECONDS);
+        assertTrue(last.await(5, TimeUnit.SECONDS));
+
+        for (int i = 0; i < n; i++) {
+            int wins = 0;
+            for (boolean[] c : cancelled) {
+                wins += c[i] ? 1 : 0;
+            }
+            assertEquals(1, wins + runs.get(i), "timeout " + i);
+        }
+    }
+
+    @Test
+    void failingTaskDoesNotStopTheWheel() throws InterruptedException {
+        wheel = new HashedTimingWheel(1, TimeUnit.MILLISECONDS, 16, "test-wheel");
+        CountDownLatch after = new CountDownLatch(1);
+        wheel.schedule(() -> {
+            throw new IllegalStateException("boom");
+        }, 1, TimeUnit.MILLISECONDS);
+        wheel.schedule(after::countDown, 10, TimeUnit.MILLISECONDS);
+
+        assertTrue(after.await(5, TimeUnit.SECONDS));
+    }
+}
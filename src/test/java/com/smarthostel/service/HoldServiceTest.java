@@ -0,0 +1,119 @@
+package com.smarthostel.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.smarthostel.model.AuditEvent;
+import com.smarthostel.model.Hold;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HoldServiceTest {
+    @TempDir
+    Path dir;
+
+    private HostelService hostel;
+    private AuditLog audit;
+    private HoldService holds;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        holds.shutdown();
+        audit.shutdown();
+    }
+
+    @Test
+    void unconfirmedHoldExpiresAndReleasesItsBeds() throws InterruptedException {
+        open(Duration.ofMillis(30));
+        Instant from = Instant.now().minusSeconds(5);
+
+        Hold h = holds.hold("Ward", 3, false, false).get();
+        assertEquals(3, hostel.findRoom("W1").get().getOccupied());
+
+        await(() -> holds.getActiveCount() == 0);
+        assertEquals(0, hostel.findRoom("W1").get().getOccupied());
+        assertTrue(holds.getHold(h.getId()).isEmpty());
+        assertTrue(holds.confirm(h.getId()).isEmpty());
+        await(() -> audit.query(from, Instant.now().plusSeconds(5), "W1", 10).stream()
+                .anyMatch(e -> e.getAction() == AuditEvent.Action.EXPIRE
+                        && HoldService.SYSTEM_ACTOR.equals(e.getActor())));
+    }
+
+    @Test
+    void confirmedHoldKeepsItsBedsPastTheTtl() throws InterruptedException {
+        open(Duration.ofMillis(30));
+
+        Hold h = holds.hold("Ward", 2, false, false).get();
+        assertEquals(Hold.Status.CONFIRMED, holds.confirm(h.getId()).get().getStatus());
+
+        Thread.sleep(120);
+        assertEquals(2, hostel.findRoom("W1").get().getOccupied());
+        assertTrue(holds.cancel(h.getId()).isEmpty());
+    }
+
+    @Test
+    void cancelReleasesOnce() {
+        open(Duration.ofMinutes(10));
+
+        Hold h = holds.hold("Ward", 2, false, false).get();
+
+        assertEquals(Hold.Status.CANCELLED, holds.cancel(h.getId()).get().getStatus());
+        assertTrue(holds.cancel(h.getId()).isEmpty());
+        assertTrue(holds.confirm(h.getId()).isEmpty());
+        assertEquals(0, hostel.findRoom("W1").get().getOccupied());
+    }
+
+    @Test
+    void confirmRacingExpiryResolvesEachHoldOnce() throws InterruptedException {
+        // A TTL of about one tick: confirms and expiries land on the same holds
+        open(Duration.ofMillis(2));
+        for (int i = 0; i < 200; i++) {
+            hostel.addRoom("Race", "R" + i, 1, false, false);
+        }
+        List<Hold> placed = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            placed.add(holds.hold("Race", 1, false, false).get());
+        }
+        int confirmed = 0;
+        for (Hold h : placed) {
+            if (holds.confirm(h.getId()).isPresent()) {
+                confirmed++;
+            }
+        }
+
+        await(() -> holds.getActiveCount() == 0);
+        int occupied = 0;
+        for (int i = 0; i < 200; i++) {
+            occupied += hostel.findRoom("R" + i).get().getOccupied();
+        }
+        // confirmed beds stay taken, every other hold gave its bed back exactly once
+        assertEquals(confirmed, occupied);
+    }
+
+    private void open(Duration ttl) {
+        hostel = new HostelService();
+        hostel.addRoom("Ward", "W1", 4, false, false);
+        audit = new AuditLog(new ObjectMapper().findAndRegisterModules(), dir, 1024, DataSize.ofMegabytes(1),
+                Duration.ofHours(1));
+        holds = new HoldService(hostel, audit, ttl, Duration.ofMillis(1));
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(1);
+        }
+    }
+}
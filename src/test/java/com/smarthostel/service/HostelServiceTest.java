@@ -0,0 +1,32 @@
+package com.smarthostel.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HostelServiceTest {
+    @Test
+    void shutdownClosesEveryBlockStore() {
+        List<boolean[]> closed = new ArrayList<>();
+        HostelService hostel = new HostelService(() -> {
+            boolean[] flag = new boolean[1];
+            closed.add(flag);
+            return new HeapRoomStore() {
+                @Override
+                public void close() {
+                    flag[0] = true;
+                }
+            };
+        });
+        hostel.addRoom("North", "N1", 2, false, false);
+
+        hostel.shutdown();
+
+        assertEquals(2, closed.size());
+        closed.forEach(flag -> assertTrue(flag[0]));
+    }
+}
@@ -0,0 +1,90 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Room;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RoomNumberIndexTest {
+    @Test
+    void returnsTheBestRoomsUnderThePrefixUpToTheLimit() {
+        RoomNumberIndex index = new RoomNumberIndex(3);
+        add(index, "A-101", 4);
+        add(index, "A-102", 2);
+        add(index, "A-103", 2);
+        add(index, "A-2", 1);
+        add(index, "B-1", 1);
+
+        assertEquals(List.of("A-2", "A-102", "A-103"), index.lookup("a-", 3));
+        assertEquals(List.of("A-102", "A-103"), index.lookup("a-10", 2));
+        // at most k, however large the limit
+        assertEquals(List.of("A-2", "B-1", "A-102"), index.lookup("", 10));
+        assertEquals(List.of("A-101"), index.lookup("a-101", 3));
+        // diverges inside an edge, or runs past every number
+        assertTrue(index.lookup("a-11", 3).isEmpty());
+        assertTrue(index.lookup("a-1011", 3).isEmpty());
+        assertTrue(index.lookup("c", 3).isEmpty());
+    }
+
+    @Test
+    void lookupFoldsCaseAndKeepsTheNumberAsAdded() {
+        HostelService hostel = new HostelService(HeapRoomStore::new);
+        hostel.addRoom("North", "Nb-7", 2, false, false);
+        hostel.addRoom("North", "nB-8", 3, false, false);
+
+        assertFalse(hostel.addRoom("South", "NB-7", 2, false, false));
+        assertEquals(List.of("Nb-7", "nB-8"), numbers(hostel.lookupRooms("NB-", 5)));
+        assertEquals(List.of("Nb-7", "nB-8"), numbers(hostel.lookupRooms("  nb", 5)));
+        assertEquals(List.of("Nb-7"), numbers(hostel.lookupRooms("nb-", 1)));
+
+        for (int i = 0; i < 2 * HostelService.LOOKUP_LIMIT; i++) {
+            hostel.addRoom("North", "N" + i, 1, false, false);
+        }
+        assertEquals(HostelService.LOOKUP_LIMIT, hostel.lookupRooms("", 1000).size());
+    }
+
+    @Test
+    void matchesAFullScanAcrossEdgeSplits() {
+        Random random = new Random(5);
+        RoomNumberIndex index = new RoomNumberIndex(HostelService.LOOKUP_LIMIT);
+        List<Room> rooms = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // short alphabet so numbers share long prefixes and edges split often
+            StringBuilder no = new StringBuilder();
+            for (int c = 0, len = 1 + random.nextInt(6); c < len; c++) {
+                no.append("ab1".charAt(random.nextInt(3)));
+            }
+            String key = no.toString();
+            if (rooms.stream().noneMatch(r -> r.getRoomNo().equals(key))) {
+                rooms.add(new Room(key, 1 + random.nextInt(8), false, false));
+                index.add(key, key, rooms.get(rooms.size() - 1).getCapacity());
+            }
+        }
+        Comparator<Room> order = Comparator.comparingInt(Room::getCapacity).thenComparing(Room::getRoomNo);
+        for (int i = 0; i < 500; i++) {
+            String prefix = rooms.get(random.nextInt(rooms.size())).getRoomNo();
+            prefix = prefix.substring(0, random.nextInt(prefix.length() + 1));
+            int limit = 1 + random.nextInt(HostelService.LOOKUP_LIMIT);
+            String p = prefix;
+            List<String> expected = rooms.stream().filter(r -> r.getRoomNo().startsWith(p)).sorted(order)
+                    .limit(limit).map(Room::getRoomNo).toList();
+
+            assertEquals(expected, index.lookup(prefix, limit), "prefix '" + prefix + "', limit " + limit);
+        }
+    }
+
+    private static void add(RoomNumberIndex index, String roomNo, int capacity) {
+        index.add(HostelService.normalizeRoomNo(roomNo), roomNo, capacity);
+    }
+
+    private static List<String> numbers(List<Room> rooms) {
+        return rooms.stream().map(Room::getRoomNo).toList();
+    }
+}
@@ -0,0 +1,133 @@
+package com.smarthostel.service;
+
+import com.smarthostel.model.Room;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCoalescerTest {
+    private final ExecutorService pool = Executors.newCachedThreadPool();
+    private final GatedHostel hostel = new GatedHostel();
+    private final SearchCoalescer coalescer = new SearchCoalescer(hostel);
+
+    @AfterEach
+    void tearDown() {
+        hostel.gate.countDown();
+        pool.shutdownNow();
+    }
+
+    @Test
+    void concurrentIdenticalSearchesRunOnce() throws Exception {
+        Future<List<Room>> leader = pool.submit(() -> coalescer.searchRooms("Main", 2, false, false));
+        assertTrue(hostel.entered.await(5, TimeUnit.SECONDS));
+        List<Future<List<Room>>> followers = new ArrayList<>();
+        for (int i = 0; i < 15; i++) {
+            // block names differing only in case share the run
+            String block = i % 2 == 0 ? "main" : "MAIN";
+            followers.add(pool.submit(() -> coalescer.searchRooms(block, 2, false, false)));
+        }
+        await(() -> coalescer.getCoalesced() == 15);
+
+        hostel.gate.countDown();
+
+        List<Room> result = leader.get(5, TimeUnit.SECONDS);
+        for (Future<List<Room>> f : followers) {
+            assertSame(result, f.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, hostel.calls.get());
+        assertEquals(1, coalescer.getExecutions());
+        assertThrows(UnsupportedOperationException.class, () -> result.add(new Room()));
+    }
+
+    @Test
+    void differentQueriesAndNewVersionsRunSeparately() throws Exception {
+        Future<List<Room>> first = pool.submit(() -> coalescer.searchRooms(null, 2, false, false));
+        assertTrue(hostel.entered.await(5, TimeUnit.SECONDS));
+
+        Future<List<Room>> otherQuery = pool.submit(() -> coalescer.searchRooms(null, 2, true, false));
+        await(() -> hostel.calls.get() == 2);
+        hostel.addRoom("999", 3, false, false);
+        Future<List<Room>> afterChange = pool.submit(() -> coalescer.searchRooms(null, 2, false, false));
+        await(() -> hostel.calls.get() == 3);
+        hostel.gate.countDown();
+
+        first.get(5, TimeUnit.SECONDS);
+        otherQuery.get(5, TimeUnit.SECONDS);
+        assertTrue(afterChange.get(5, TimeUnit.SECONDS).stream().anyMatch(r -> r.getRoomNo().equals("999")));
+        assertEquals(3, coalescer.getExecutions());
+        assertEquals(0, coalescer.getCoalesced());
+    }
+
+    @Test
+    void failureReachesWaitersAndIsNotCached() throws Exception {
+        hostel.failNext = true;
+        Future<List<Room>> leader = pool.submit(() -> coalescer.searchRooms(null, 1, false, false));
+        assertTrue(hostel.entered.await(5, TimeUnit.SECONDS));
+        Future<List<Room>> follower = pool.submit(() -> coalescer.searchRooms(null, 1, false, false));
+        await(() -> coalescer.getCoalesced() == 1);
+
+        hostel.gate.countDown();
+
+        assertEquals("catalogue unavailable", cause(leader).getMessage());
+        assertSame(cause(leader), cause(follower));
+        // the failed run left no entry behind
+        assertEquals(hostel.getAllRooms().size(), coalescer.searchRooms(null, 1, false, false).size());
+        assertEquals(2, coalescer.getExecutions());
+    }
+
+    private static Throwable cause(Future<?> future) throws Exception {
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        return e.getCause();
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(1);
+        }
+    }
+
+    /** Searches wait at the gate until the test opens it, then run as usual. */
+    private static final class GatedHostel extends HostelService {
+        final CountDownLatch entered = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final AtomicInteger calls = new AtomicInteger();
+        volatile boolean failNext;
+
+        GatedHostel() {
+            super(HeapRoomStore::new);
+        }
+
+        @Override
+        public List<Room> searchRooms(String block, int minCapacity, boolean requireAC, boolean requireWashroom) {
+            calls.incrementAndGet();
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (failNext) {
+                failNext = false;
+                throw new IllegalStateException("catalogue unavailable");
+            }
+            return super.searchRooms(block, minCapacity, requireAC, requireWashroom);
+        }
+    }
+}